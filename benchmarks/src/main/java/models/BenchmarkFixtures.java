@@ -0,0 +1,199 @@
+package models;
+
+import controllers.data.Triple;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.formats.FunctionalSyntaxDocumentFormat;
+import org.semanticweb.owlapi.model.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * Class which represents the datasets used by the benchmarks.
+ * <p>
+ * The "schemaorg" dataset is the bundled rdf_datasets/schemaorg.rdf ontology. Any other dataset is a number of
+ * individuals: the ABox of the dataset is made of that number of synthetic individuals, each one asserted as
+ * instance of a random class of the schema.org TBox. Synthetic ontologies and entity mappings are generated
+ * once in the "berlusca-benchmarks" temporary directory and reused by the following runs.
+ * <p>
+ * The directory of the bundled datasets and relation mappings can be changed with the "berlusca.home"
+ * system property, which defaults to the parent directory of the benchmarks module.
+ */
+public class BenchmarkFixtures {
+    public static final String SCHEMAORG = "schemaorg";
+    public static final int NUM_TRIPLES = 4096;
+    private static final String INDIVIDUALS_NAMESPACE = "http://schema.org/benchmarks/individual";
+    private static final long RANDOM_SEED = 12345;
+
+    private static final File HOME = new File(System.getProperty("berlusca.home", ".."));
+    private static final File FIXTURES_DIRECTORY =
+            new File(System.getProperty("java.io.tmpdir"), "berlusca-benchmarks");
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Returns the ontology file of the given dataset, generating it if required.
+     *
+     * @param dataset Dataset name, "schemaorg" or a number of synthetic individuals
+     * @return Ontology file
+     * @throws OWLException Exception raised if the ontology cannot be generated
+     * @throws IOException Exception raised if the ontology cannot be written
+     */
+    public static File getOntologyFile(String dataset) throws OWLException, IOException {
+        File schemaOrgFile = new File(HOME, "rdf_datasets/schemaorg.rdf");
+        if (SCHEMAORG.equals(dataset)) {
+            return schemaOrgFile;
+        }
+
+        File ontologyFile = new File(FIXTURES_DIRECTORY, "abox-" + dataset + ".ofn");
+        if (!ontologyFile.exists()) {
+            writeSyntheticOntology(schemaOrgFile, Integer.parseInt(dataset), ontologyFile);
+        }
+
+        return ontologyFile;
+    }
+
+    /**
+     * Returns the entity mappings of the given dataset, which map the individuals of its ontology to
+     * contiguous identifiers.
+     *
+     * @param dataset Dataset name, "schemaorg" or a number of synthetic individuals
+     * @return TSV file of entity mappings
+     * @throws OWLException Exception raised if the ontology cannot be loaded
+     * @throws IOException Exception raised if the mappings cannot be written
+     */
+    public static File getEntityMappingFile(String dataset) throws OWLException, IOException {
+        File entityMappingFile = new File(FIXTURES_DIRECTORY, "entities-" + dataset + ".tsv");
+        if (!entityMappingFile.exists()) {
+            OWLOntology ontology = OWLManager.createOWLOntologyManager().loadOntology(
+                    IRI.create(getOntologyFile(dataset)));
+            List<String> individuals = ontology.individualsInSignature().
+                    map(i -> i.getIRI().toString()).
+                    sorted().
+                    collect(Collectors.toList());
+
+            writeAtomically(entityMappingFile, writer -> {
+                for (int i = 0; i < individuals.size(); i++) {
+                    writer.print(individuals.get(i));
+                    writer.print('\t');
+                    writer.println(i);
+                }
+            });
+        }
+
+        return entityMappingFile;
+    }
+
+    /**
+     * Returns the relation mappings bundled with the server.
+     *
+     * @return TSV file of relation mappings
+     */
+    public static File getRelationMappingFile() {
+        return new File(HOME, "relation_mappings.tsv");
+    }
+
+    /**
+     * Generates random triples of identifiers between the entities of the given indexer.
+     *
+     * @param indexer Mapping between URIs and integer identifiers
+     * @return Triples of identifiers
+     */
+    public static Triple[] createIdTriples(TripleIndexer indexer) {
+        List<Long> entityIds = new ArrayList<>(), relationIds = new ArrayList<>();
+        indexer.getEntities().forEach((uri, id) -> entityIds.add(id));
+        indexer.getRelations().forEach((uri, id) -> relationIds.add(id));
+        entityIds.sort(Comparator.naturalOrder());
+        relationIds.sort(Comparator.naturalOrder());
+
+        Random random = new Random(RANDOM_SEED);
+        Triple[] triples = new Triple[NUM_TRIPLES];
+        for (int i = 0; i < triples.length; i++) {
+            triples[i] = new Triple();
+            triples[i].subject = String.valueOf(entityIds.get(random.nextInt(entityIds.size())));
+            triples[i].predicate = String.valueOf(relationIds.get(random.nextInt(relationIds.size())));
+            triples[i].object = String.valueOf(entityIds.get(random.nextInt(entityIds.size())));
+        }
+
+        return triples;
+    }
+
+    /**
+     * Converts triples of identifiers to triples of URIs.
+     *
+     * @param idTriples Triples of identifiers
+     * @param indexer Mapping between URIs and integer identifiers
+     * @return Triples of URIs
+     */
+    public static Triple[] toURITriples(Triple[] idTriples, TripleIndexer indexer) {
+        Triple[] triples = new Triple[idTriples.length];
+        for (int i = 0; i < triples.length; i++) {
+            triples[i] = new Triple();
+            triples[i].subject = indexer.getEntities().getURI(Long.parseLong(idTriples[i].subject));
+            triples[i].predicate = indexer.getRelations().getURI(Long.parseLong(idTriples[i].predicate));
+            triples[i].object = indexer.getEntities().getURI(Long.parseLong(idTriples[i].object));
+        }
+
+        return triples;
+    }
+
+    /**
+     * Writes the schema.org TBox together with an ABox of synthetic individuals.
+     *
+     * @param schemaOrgFile schema.org ontology file
+     * @param numIndividuals Number of synthetic individuals
+     * @param ontologyFile Ontology file to be written
+     * @throws OWLException Exception raised if the ontology cannot be generated
+     * @throws IOException Exception raised if the ontology cannot be written
+     */
+    private static void writeSyntheticOntology(File schemaOrgFile, int numIndividuals, File ontologyFile)
+            throws OWLException, IOException {
+        OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+        OWLDataFactory dataFactory = manager.getOWLDataFactory();
+        OWLOntology ontology = manager.loadOntology(IRI.create(schemaOrgFile));
+        List<OWLClass> classes = ontology.classesInSignature().
+                filter(c -> !c.isBuiltIn()).
+                sorted().
+                collect(Collectors.toList());
+
+        Random random = new Random(RANDOM_SEED);
+        List<OWLAxiom> assertions = new ArrayList<>(numIndividuals);
+        for (int i = 0; i < numIndividuals; i++) {
+            assertions.add(dataFactory.getOWLClassAssertionAxiom(classes.get(random.nextInt(classes.size())),
+                    dataFactory.getOWLNamedIndividual(IRI.create(INDIVIDUALS_NAMESPACE + i))));
+        }
+        manager.addAxioms(ontology, assertions.stream());
+
+        Files.createDirectories(FIXTURES_DIRECTORY.toPath());
+        File temporaryFile = File.createTempFile(ontologyFile.getName(), ".tmp", FIXTURES_DIRECTORY);
+        try (FileOutputStream outputStream = new FileOutputStream(temporaryFile)) {
+            manager.saveOntology(ontology, new FunctionalSyntaxDocumentFormat(), outputStream);
+        }
+        Files.move(temporaryFile.toPath(), ontologyFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeAtomically(File file, FixtureWriter fixtureWriter) throws IOException {
+        Files.createDirectories(FIXTURES_DIRECTORY.toPath());
+        File temporaryFile = File.createTempFile(file.getName(), ".tmp", FIXTURES_DIRECTORY);
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(temporaryFile.toPath(),
+                StandardCharsets.UTF_8))) {
+            fixtureWriter.write(writer);
+        }
+        Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private interface FixtureWriter {
+        void write(PrintWriter writer) throws IOException;
+    }
+}
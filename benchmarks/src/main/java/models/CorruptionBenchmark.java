@@ -0,0 +1,109 @@
+package models;
+
+import controllers.data.Triple;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class which represents the benchmarks of the corruption of a triple.
+ * <p>
+ * Run with "-prof gc" to report the allocation rate of each benchmark.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CorruptionBenchmark {
+    private static final int NUM_CORRUPTED = 10;
+
+    @Param({BenchmarkFixtures.SCHEMAORG, "10000", "100000", "1000000"})
+    public String dataset;
+
+    @Param({"DISJOINT", "SIMILARITY"})
+    public TripleCorrupterType corrupterType;
+
+    @Param({"false", "true"})
+    public boolean candidatePools;
+
+    @Param({"MULTIMAP", "BITMAP"})
+    public ClassIndexType classIndex;
+
+    // Only used by the SIMILARITY corrupter
+    @Param({"NEAREST", "WEIGHTED"})
+    public SimilaritySampling similaritySampling;
+
+    private TripleCorrupter corrupter;
+    private TripleIndexer indexer;
+    private Triple[] idTriples;
+    private Triple[] uriTriples;
+
+    /**
+     * Class which represents the state of a benchmark thread.
+     */
+    @State(Scope.Thread)
+    public static class ThreadState {
+        private final SplittableRandom random = new SplittableRandom(TripleCorrupter.RANDOM_SEED);
+        private int nextTriple;
+
+        private int nextTriple() {
+            nextTriple = (nextTriple + 1) & (BenchmarkFixtures.NUM_TRIPLES - 1);
+            return nextTriple;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        corrupter = TripleCorrupter.create(BenchmarkFixtures.getOntologyFile(dataset), corrupterType,
+                new TripleCorrupterOptions().setCandidatePools(candidatePools).setClassIndex(classIndex)
+                        .setSimilaritySampling(similaritySampling));
+        indexer = new TripleIndexer(BenchmarkFixtures.getEntityMappingFile(dataset),
+                BenchmarkFixtures.getRelationMappingFile());
+        idTriples = BenchmarkFixtures.createIdTriples(indexer);
+        uriTriples = BenchmarkFixtures.toURITriples(idTriples, indexer);
+    }
+
+    /**
+     * Draws the entity replacing the subject or the object of a triple of URIs, which is the step repeated for
+     * each corrupted triple of a request.
+     *
+     * @param state State of the benchmark thread
+     * @return Identifier of the replacing individual
+     */
+    @Benchmark
+    public int corrupt(ThreadState state) {
+        Triple triple = uriTriples[state.nextTriple()];
+        boolean corruptSubject = state.random.nextBoolean();
+        return corrupter.corruptEntity(triple, corrupter.getIndividualId(corruptSubject ? triple.subject :
+                triple.object), corruptSubject, state.random);
+    }
+
+    /**
+     * Corrupts a triple of identifiers as the /corrupted endpoint does, including the identifier lookups.
+     *
+     * @param state State of the benchmark thread
+     * @return Corrupted triples
+     */
+    @Benchmark
+    @OperationsPerInvocation(NUM_CORRUPTED)
+    public List<Triple> corruptRequest(ThreadState state) {
+        return corrupter.corrupt(idTriples[state.nextTriple()], NUM_CORRUPTED, indexer, state.random);
+    }
+
+    /**
+     * Draws a random replacing entity, which is the fallback of individuals without candidates.
+     *
+     * @param state State of the benchmark thread
+     * @return Identifier of the replacing individual
+     */
+    @Benchmark
+    public int generateRandomEntity(ThreadState state) {
+        Triple triple = uriTriples[state.nextTriple()];
+        return corrupter.generateRandomEntity(corrupter.getIndividualId(state.random.nextBoolean() ?
+                triple.subject : triple.object), state.random);
+    }
+}
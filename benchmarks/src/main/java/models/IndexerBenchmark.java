@@ -0,0 +1,84 @@
+package models;
+
+import controllers.data.Triple;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class which represents the benchmarks of the lookups of a TripleIndexer.
+ * <p>
+ * Run with "-prof gc" to report the allocation rate of each benchmark.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IndexerBenchmark {
+    @Param({BenchmarkFixtures.SCHEMAORG, "10000", "100000", "1000000"})
+    public String dataset;
+
+    @Param({"HASH", "COMPACT", "COMPACT_OFF_HEAP"})
+    public DictionaryType dictionaryType;
+
+    private TripleIndexer indexer;
+    private String[] entityURIs;
+    private String[] relationURIs;
+    private long[] entityIds;
+    private long[] relationIds;
+
+    /**
+     * Class which represents the state of a benchmark thread.
+     */
+    @State(Scope.Thread)
+    public static class ThreadState {
+        private int nextKey;
+
+        private int nextKey() {
+            nextKey = (nextKey + 1) & (BenchmarkFixtures.NUM_TRIPLES - 1);
+            return nextKey;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        indexer = new TripleIndexer(BenchmarkFixtures.getEntityMappingFile(dataset),
+                BenchmarkFixtures.getRelationMappingFile(), dictionaryType);
+
+        Triple[] idTriples = BenchmarkFixtures.createIdTriples(indexer);
+        Triple[] uriTriples = BenchmarkFixtures.toURITriples(idTriples, indexer);
+        entityURIs = new String[idTriples.length];
+        relationURIs = new String[idTriples.length];
+        entityIds = new long[idTriples.length];
+        relationIds = new long[idTriples.length];
+        for (int i = 0; i < idTriples.length; i++) {
+            // Copies the URIs, so that lookups cannot succeed by comparing identical references
+            entityURIs[i] = new String(uriTriples[i].subject.toCharArray());
+            relationURIs[i] = new String(uriTriples[i].predicate.toCharArray());
+            entityIds[i] = Long.parseLong(idTriples[i].subject);
+            relationIds[i] = Long.parseLong(idTriples[i].predicate);
+        }
+    }
+
+    @Benchmark
+    public Long entityURI2id(ThreadState state) {
+        return indexer.getEntity2id().get(entityURIs[state.nextKey()]);
+    }
+
+    @Benchmark
+    public String entityId2URI(ThreadState state) {
+        return indexer.getId2entity().get(entityIds[state.nextKey()]);
+    }
+
+    @Benchmark
+    public Long relationURI2id(ThreadState state) {
+        return indexer.getRelation2id().get(relationURIs[state.nextKey()]);
+    }
+
+    @Benchmark
+    public String relationId2URI(ThreadState state) {
+        return indexer.getId2relation().get(relationIds[state.nextKey()]);
+    }
+}
@@ -0,0 +1,124 @@
+package models;
+
+import org.jgrapht.Graph;
+import org.jgrapht.graph.DefaultEdge;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLException;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+import org.semanticweb.owlapi.reasoner.SimpleConfiguration;
+import uk.ac.manchester.cs.jfact.JFactFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class which represents single-shot benchmarks of each phase of the startup of the server.
+ * <p>
+ * Index builds are executed again on corrupters which have already been started, so they measure the cost
+ * of the phase once the reasoner has computed its results. Run with "-prof gc" to report the allocations of
+ * each phase.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+    @Param({BenchmarkFixtures.SCHEMAORG, "10000", "100000", "1000000"})
+    public String dataset;
+
+    private File ontologyFile;
+    private OWLOntology ontology;
+    private OntologyIndex ontologyIndex;
+    private DisjointTripleCorrupter disjointCorrupter;
+    private SimilarityTripleCorrupter similarityCorrupter;
+    private Graph<OWLClass, DefaultEdge> conceptHierarchy;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        ontologyFile = BenchmarkFixtures.getOntologyFile(dataset);
+        BenchmarkFixtures.getEntityMappingFile(dataset);
+        ontology = loadOntology();
+        ontologyIndex = new OntologyIndex(ontologyFile, new TripleCorrupterOptions());
+        disjointCorrupter = new DisjointTripleCorrupter(ontologyIndex, new TripleCorrupterOptions());
+        similarityCorrupter = new SimilarityTripleCorrupter(ontologyIndex, new TripleCorrupterOptions());
+        conceptHierarchy = similarityCorrupter.buildConceptHierarchy();
+    }
+
+    @Benchmark
+    public OWLOntology loadOntology() throws OWLException {
+        return OWLManager.createOWLOntologyManager().loadOntology(IRI.create(ontologyFile));
+    }
+
+    @Benchmark
+    public void precomputeReasoner(Blackhole blackhole) {
+        OWLReasoner reasoner = new JFactFactory().createReasoner(ontology, new SimpleConfiguration(50000));
+        reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        blackhole.consume(reasoner);
+        reasoner.dispose();
+    }
+
+    @Benchmark
+    public StructuralClassifier classifyStructurally() {
+        return new StructuralClassifier(ontology);
+    }
+
+    @Benchmark
+    public void buildClassIndex() {
+        ontologyIndex.buildClassIndex(ClassIndexType.MULTIMAP);
+    }
+
+    @Benchmark
+    public void buildIndividualsDictionary() {
+        ontologyIndex.buildIndividualsDictionary();
+    }
+
+    @Benchmark
+    public void buildDisjointClasses() {
+        disjointCorrupter.buildDisjointClasses();
+    }
+
+    @Benchmark
+    public void buildDisjointCandidatePools() {
+        disjointCorrupter.buildCandidatePools();
+    }
+
+    @Benchmark
+    public Graph<OWLClass, DefaultEdge> buildConceptHierarchy() throws IOException {
+        return similarityCorrupter.buildConceptHierarchy();
+    }
+
+    /**
+     * Computes the distances between all the classes of the hierarchy, from which similarities are derived.
+     *
+     * @return Distances between the classes
+     */
+    @Benchmark
+    public HierarchyDistances buildHierarchyDistances() {
+        return new HierarchyDistances(conceptHierarchy);
+    }
+
+    @Benchmark
+    public void buildIndividualsTypes() {
+        similarityCorrupter.buildIndividualsTypes();
+    }
+
+    @Benchmark
+    public void buildNearestClasses() {
+        similarityCorrupter.buildNearestClasses();
+    }
+
+    @Benchmark
+    public TripleIndexer buildTripleIndexer() throws OWLException, IOException {
+        return new TripleIndexer(BenchmarkFixtures.getEntityMappingFile(dataset),
+                BenchmarkFixtures.getRelationMappingFile());
+    }
+}
@@ -0,0 +1,51 @@
+package conf;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import models.CorruptionScheduler;
+import ninja.utils.NinjaProperties;
+
+/**
+ * Class which represents a provider used to generate the CorruptionScheduler of the corruption requests.
+ */
+public class CorruptionSchedulerProvider implements Provider<CorruptionScheduler> {
+    private final NinjaProperties properties;
+
+    /**
+     * Constructor which receives a NinjaProperties object which may contain the following parameters:
+     * <ul>
+     * <li>application.scheduler: queues the corruption requests and executes them on a bounded pool of workers,
+     * each worker executing one request at a time, rejecting them with status 429 when the server is overloaded
+     * (optional, default false)</li>
+     * <li>application.scheduler_workers: number of worker threads (optional, default number of processors)</li>
+     * <li>application.scheduler_queue_size: maximum number of queued requests (optional, default 256)</li>
+     * <li>application.scheduler_queue_timeout_millis: milliseconds after which a queued request is rejected,
+     * 0 for no limit (optional, default 1000)</li>
+     * </ul>
+     *
+     * @param properties Configuration parameters
+     */
+    @Inject
+    public CorruptionSchedulerProvider(NinjaProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Creates a CorruptionScheduler instance using the given parameters.
+     *
+     * @return CorruptionScheduler instance, which executes the requests on the calling thread when the
+     * scheduler is disabled
+     */
+    @Override
+    public CorruptionScheduler get() {
+        if (!properties.getBooleanWithDefault("application.scheduler", false)) {
+            return new CorruptionScheduler(0, 0, 0);
+        }
+
+        return new CorruptionScheduler(
+                properties.getIntegerWithDefault("application.scheduler_workers",
+                        Runtime.getRuntime().availableProcessors()),
+                properties.getIntegerWithDefault("application.scheduler_queue_size", 256),
+                properties.getIntegerWithDefault("application.scheduler_queue_timeout_millis", 1000));
+    }
+}
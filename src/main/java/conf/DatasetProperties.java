@@ -0,0 +1,129 @@
+package conf;
+
+import models.TripleCorrupterType;
+import ninja.utils.NinjaProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class which represents the configuration parameters of a dataset served by the server.
+ * <p>
+ * The datasets are listed by the application.datasets parameter, and each parameter application.KEY of a
+ * dataset NAME can be overridden by application.datasets.NAME.KEY. When application.datasets is not set, the
+ * server has a single dataset, named "default", configured by the application.KEY parameters.
+ */
+public class DatasetProperties {
+    public static final String DEFAULT_DATASET = "default";
+
+    private final NinjaProperties properties;
+    private final String name;
+    private final String prefix;
+
+    /**
+     * Constructor which receives the configuration parameters of the application and the name of the dataset.
+     *
+     * @param properties Configuration parameters
+     * @param name Name of the dataset
+     * @param prefix Prefix of the parameters overriding the ones of the application, null if there is none
+     */
+    private DatasetProperties(NinjaProperties properties, String name, String prefix) {
+        this.properties = properties;
+        this.name = name;
+        this.prefix = prefix;
+    }
+
+    /**
+     * Lists the datasets configured by the given NinjaProperties object, which may contain the following
+     * parameters:
+     * <ul>
+     * <li>application.datasets: comma-separated names of the datasets, the first one being the default one
+     * (optional)</li>
+     * </ul>
+     *
+     * @param properties Configuration parameters
+     * @return Configuration parameters of each dataset, in configuration order
+     */
+    public static List<DatasetProperties> list(NinjaProperties properties) {
+        List<DatasetProperties> datasets = new ArrayList<>();
+        String[] names = properties.getStringArray("application.datasets");
+        if (names == null || names.length == 0) {
+            datasets.add(new DatasetProperties(properties, DEFAULT_DATASET, null));
+            return datasets;
+        }
+
+        for (String name : names) {
+            datasets.add(new DatasetProperties(properties, name.trim(),
+                    "application.datasets." + name.trim() + "."));
+        }
+
+        return datasets;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the value of the given parameter for the dataset.
+     *
+     * @param key Name of the parameter, without the "application." prefix
+     * @return Value of the parameter, null if it is not set
+     */
+    public String get(String key) {
+        String value = (prefix != null) ? properties.get(prefix + key) : null;
+        return (value != null) ? value : properties.get("application." + key);
+    }
+
+    /**
+     * Returns the value of the given parameter for the dataset, or the given default value.
+     *
+     * @param key Name of the parameter, without the "application." prefix
+     * @param defaultValue Value returned when the parameter is not set
+     * @return Value of the parameter
+     */
+    public String getWithDefault(String key, String defaultValue) {
+        String value = get(key);
+        return (value != null) ? value : defaultValue;
+    }
+
+    /**
+     * Returns the boolean value of the given parameter for the dataset, or the given default value.
+     *
+     * @param key Name of the parameter, without the "application." prefix
+     * @param defaultValue Value returned when the parameter is not set
+     * @return Value of the parameter
+     */
+    public boolean getBooleanWithDefault(String key, boolean defaultValue) {
+        return Boolean.parseBoolean(getWithDefault(key, String.valueOf(defaultValue)));
+    }
+
+    /**
+     * Returns the integer value of the given parameter for the dataset, or the given default value.
+     *
+     * @param key Name of the parameter, without the "application." prefix
+     * @param defaultValue Value returned when the parameter is not set
+     * @return Value of the parameter
+     */
+    public int getIntegerWithDefault(String key, int defaultValue) {
+        return Integer.parseInt(getWithDefault(key, String.valueOf(defaultValue)));
+    }
+
+    /**
+     * Returns the strategies of the triple corrupters of the dataset, read from the comma-separated
+     * corrupter_id parameter.
+     *
+     * @return Strategies of the triple corrupters, the first one being the default one
+     */
+    public List<TripleCorrupterType> getCorrupterTypes() {
+        List<TripleCorrupterType> corrupterTypes = new ArrayList<>();
+        for (String corrupterId : get("corrupter_id").split(",")) {
+            TripleCorrupterType corrupterType = TripleCorrupterType.valueOf(corrupterId.trim());
+            if (!corrupterTypes.contains(corrupterType)) {
+                corrupterTypes.add(corrupterType);
+            }
+        }
+
+        return corrupterTypes;
+    }
+}
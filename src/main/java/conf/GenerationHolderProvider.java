@@ -0,0 +1,183 @@
+package conf;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import models.Dataset;
+import models.FilesWatcher;
+import models.Generation;
+import models.GenerationHolder;
+import models.RandomTripleCorrupter;
+import models.StartupPhases;
+import models.TripleCorrupter;
+import models.TripleCorrupterType;
+import models.TripleIndexer;
+import ninja.utils.NinjaProperties;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Class which represents a provider used to generate the GenerationHolder used to serve requests.
+ */
+public class GenerationHolderProvider implements Provider<GenerationHolder> {
+    private final NinjaProperties properties;
+    private final TripleIndexerProvider indexerProvider;
+    private final TripleCorrupterProvider corrupterProvider;
+
+    private final Logger logger = Logger.getLogger(GenerationHolderProvider.class.getName());
+
+    /**
+     * Constructor which receives a NinjaProperties object which may contain the following parameters,
+     * in addition to the ones of the triple corrupter and indexer providers:
+     * <ul>
+     * <li>application.datasets: comma-separated names of the datasets served by the server, whose parameters
+     * are read as described by {@link DatasetProperties} (optional, default a single dataset)</li>
+     * <li>application.progressive_startup: serves requests with a RandomTripleCorrupter as soon as the
+     * indexers are loaded, while the configured triple corrupters are created in background (optional,
+     * default false)</li>
+     * <li>application.reload_watch: reloads the triple corrupters and the indexers when the ontology, the
+     * ABox, the mappings, the snapshot or the known triples of a dataset change (optional, default false)</li>
+     * <li>application.reload_watch_quiet_millis: milliseconds without changes to the watched files after
+     * which they are reloaded (optional, default 5000)</li>
+     * </ul>
+     *
+     * @param properties Configuration parameters
+     * @param indexerProvider Provider of the indexer
+     * @param corrupterProvider Provider of the triple corrupter
+     */
+    @Inject
+    public GenerationHolderProvider(NinjaProperties properties, TripleIndexerProvider indexerProvider,
+                                    TripleCorrupterProvider corrupterProvider) {
+        this.properties = properties;
+        this.indexerProvider = indexerProvider;
+        this.corrupterProvider = corrupterProvider;
+    }
+
+    /**
+     * Creates a GenerationHolder instance using the given parameters.
+     *
+     * @return GenerationHolder instance, whose generation may be degraded until the configured triple corrupters
+     * are created
+     */
+    @Override
+    public GenerationHolder get() {
+        GenerationHolder holder;
+        try {
+            if (properties.getBooleanWithDefault("application.progressive_startup", false)) {
+                SharedIndexes sharedIndexes = new SharedIndexes();
+                holder = new GenerationHolder(createRandomGeneration(sharedIndexes), this::createGeneration);
+                holder.reload(startupPhases -> createGeneration(startupPhases, sharedIndexes));
+            } else {
+                holder = new GenerationHolder(createGeneration(new StartupPhases()), this::createGeneration);
+            }
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Unable to create the datasets", e);
+            throw new IllegalStateException("Unable to create the datasets", e);
+        }
+
+        if (properties.getBooleanWithDefault("application.reload_watch", false)) {
+            watchFiles(holder);
+        }
+
+        return holder;
+    }
+
+    /**
+     * Creates a new generation reading the indexers and the triple corrupters of all the datasets from the
+     * configured files.
+     *
+     * @param startupPhases Startup phases of the generation
+     * @return New generation
+     * @throws Exception Exception raised if an indexer or a triple corrupter cannot be created
+     */
+    private Generation createGeneration(StartupPhases startupPhases) throws Exception {
+        return createGeneration(startupPhases, new SharedIndexes());
+    }
+
+    /**
+     * Creates a new generation, sharing the indexes which have the same files and parameters. With several
+     * datasets, the names of the startup phases are prefixed by the name of the dataset, and with several
+     * triple corrupters for a dataset they are also prefixed by the identifier of the triple corrupter.
+     *
+     * @param startupPhases Startup phases of the generation
+     * @param sharedIndexes Indexes which have already been created
+     * @return New generation
+     * @throws Exception Exception raised if an indexer or a triple corrupter cannot be created
+     */
+    private Generation createGeneration(StartupPhases startupPhases, SharedIndexes sharedIndexes)
+            throws Exception {
+        List<DatasetProperties> datasetsProperties = DatasetProperties.list(properties);
+        List<Dataset> datasets = new ArrayList<>();
+        for (DatasetProperties datasetProperties : datasetsProperties) {
+            StartupPhases datasetPhases = (datasetsProperties.size() > 1) ?
+                    startupPhases.withPrefix(datasetProperties.getName() + "/") : startupPhases;
+            datasetPhases.start("indexer");
+            TripleIndexer indexer = indexerProvider.create(datasetProperties, sharedIndexes);
+            datasetPhases.end("indexer");
+
+            List<TripleCorrupterType> corrupterTypes = datasetProperties.getCorrupterTypes();
+            Map<String, TripleCorrupter> corrupters = new LinkedHashMap<>();
+            for (TripleCorrupterType corrupterType : corrupterTypes) {
+                StartupPhases corrupterPhases = (corrupterTypes.size() > 1) ?
+                        datasetPhases.withPrefix(corrupterType.name().toLowerCase() + "/") : datasetPhases;
+                corrupters.put(corrupterType.name(),
+                        corrupterProvider.create(datasetProperties, corrupterType, corrupterPhases, sharedIndexes));
+            }
+            datasets.add(new Dataset(datasetProperties.getName(), indexer, corrupters));
+        }
+
+        return new Generation(datasets);
+    }
+
+    /**
+     * Creates a degraded generation, whose triple corrupters draw random entities of the indexer of their
+     * dataset.
+     *
+     * @param sharedIndexes Indexes which are created, and which are reused by the configured generation
+     * @return Degraded generation
+     * @throws IOException Exception raised if an indexer cannot be created
+     */
+    private Generation createRandomGeneration(SharedIndexes sharedIndexes) throws IOException {
+        List<Dataset> datasets = new ArrayList<>();
+        for (DatasetProperties datasetProperties : DatasetProperties.list(properties)) {
+            TripleIndexer indexer = indexerProvider.create(datasetProperties, sharedIndexes);
+            TripleCorrupter corrupter = new RandomTripleCorrupter(indexer);
+            Map<String, TripleCorrupter> corrupters = new LinkedHashMap<>();
+            for (TripleCorrupterType corrupterType : datasetProperties.getCorrupterTypes()) {
+                corrupters.put(corrupterType.name(), corrupter);
+            }
+            datasets.add(new Dataset(datasetProperties.getName(), indexer, corrupters));
+        }
+
+        return new Generation(datasets);
+    }
+
+    private void watchFiles(GenerationHolder holder) {
+        Set<File> files = new LinkedHashSet<>();
+        for (DatasetProperties datasetProperties : DatasetProperties.list(properties)) {
+            for (String key : new String[]{"ontology_filename", "abox_filename", "entity_mappings_filename",
+                    "relation_mappings_filename", "snapshot_filename", "known_triples_filename"}) {
+                String filename = datasetProperties.get(key);
+                if (filename != null && !filename.isEmpty()) {
+                    files.add(new File(filename));
+                }
+            }
+        }
+
+        try {
+            new FilesWatcher(new ArrayList<>(files),
+                    properties.getIntegerWithDefault("application.reload_watch_quiet_millis", 5000),
+                    holder::reload).start();
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Unable to watch the files of the triple corrupter", e);
+        }
+    }
+}
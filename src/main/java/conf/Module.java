@@ -2,8 +2,8 @@ package conf;
 
 import com.google.inject.AbstractModule;
 import com.google.inject.Singleton;
-import models.TripleCorrupter;
-import models.TripleIndexer;
+import models.CorruptionScheduler;
+import models.GenerationHolder;
 
 /**
  * Class automatically called by Ninja Framework to configure dependency injection.
@@ -14,7 +14,7 @@ public class Module extends AbstractModule {
      * Binds providers to classes.
      */
     protected void configure() {
-        bind(TripleIndexer.class).toProvider(TripleIndexerProvider.class);
-        bind(TripleCorrupter.class).toProvider(TripleCorrupterProvider.class);
+        bind(GenerationHolder.class).toProvider(GenerationHolderProvider.class).in(Singleton.class);
+        bind(CorruptionScheduler.class).toProvider(CorruptionSchedulerProvider.class).in(Singleton.class);
     }
 }
@@ -1,7 +1,11 @@
 package conf;
 
 
+import controllers.AdminController;
 import controllers.ApplicationController;
+import controllers.MetricsController;
+import controllers.ReadinessController;
+import controllers.TranslationController;
 import ninja.AssetsController;
 import ninja.Router;
 import ninja.application.ApplicationRoutes;
@@ -20,10 +24,18 @@ public class Routes implements ApplicationRoutes {
     public void init(Router router) {
         router.GET().route("/").with(ApplicationController.class, "index");
         router.POST().route("/corrupted").with(ApplicationController.class, "corrupted");
+        router.POST().route("/corrupted/stream").with(ApplicationController.class, "corruptedStream");
+        router.GET().route("/metrics").with(MetricsController.class, "metrics");
+        router.GET().route("/ready").with(ReadinessController.class, "ready");
+        router.POST().route("/admin/reload").with(AdminController.class, "reload");
         router.GET().route("/entity/id").with(ApplicationController.class, "entityURI2id");
         router.GET().route("/entity/uri").with(ApplicationController.class, "entityId2URI");
         router.GET().route("/relation/id").with(ApplicationController.class, "relationURI2id");
         router.GET().route("/relation/uri").with(ApplicationController.class, "relationId2URI");
+        router.POST().route("/entity/ids").with(TranslationController.class, "entityURIs2ids");
+        router.POST().route("/entity/uris").with(TranslationController.class, "entityIds2URIs");
+        router.POST().route("/relation/ids").with(TranslationController.class, "relationURIs2ids");
+        router.POST().route("/relation/uris").with(TranslationController.class, "relationIds2URIs");
 
         ///////////////////////////////////////////////////////////////////////
         // Assets (pictures / javascript)
@@ -0,0 +1,40 @@
+package conf;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Class which represents the indexes created for the datasets of a generation.
+ * <p>
+ * Each index is identified by a key describing the files and the parameters it is built from, so that the
+ * datasets and the triple corrupters having the same key share a single instance, and memory grows with the
+ * number of distinct datasets rather than with the number of triple corrupters.
+ */
+public class SharedIndexes {
+    private final Map<String, Object> indexes = new HashMap<>();
+
+    /**
+     * Returns the index having the given key.
+     *
+     * @param key Description of the files and the parameters of the index
+     * @param type Class of the index
+     * @param <T> Type of the index
+     * @return Index having the given key, null if it has not been created yet
+     */
+    public <T> T get(String key, Class<T> type) {
+        return type.cast(indexes.get(key));
+    }
+
+    /**
+     * Records the index having the given key, so that it is returned by the next requests.
+     *
+     * @param key Description of the files and the parameters of the index
+     * @param index Index having the given key
+     * @param <T> Type of the index
+     * @return Recorded index
+     */
+    public <T> T put(String key, T index) {
+        indexes.put(key, index);
+        return index;
+    }
+}
@@ -0,0 +1,41 @@
+package conf;
+
+import models.CorrupterSnapshot;
+import models.TripleCorrupterType;
+
+import java.io.File;
+
+/**
+ * Class which creates the snapshot described by the configuration of a dataset.
+ */
+public class SnapshotConfiguration {
+    private SnapshotConfiguration() {
+    }
+
+    /**
+     * Creates the snapshot described by the given configuration parameters of a dataset, which may contain the
+     * following parameters in addition to the ones of the triple corrupter and indexer providers:
+     * <ul>
+     * <li>application.snapshot_filename: filename of the snapshot (optional)</li>
+     * </ul>
+     * The snapshot is only valid for the triple corrupter and the options it was compiled with.
+     *
+     * @param properties Configuration parameters of the dataset
+     * @param corrupterType Identifier of the triple corrupter
+     * @return Snapshot if it is configured, null otherwise
+     */
+    public static CorrupterSnapshot create(DatasetProperties properties, TripleCorrupterType corrupterType) {
+        String snapshotFilename = properties.get("snapshot_filename");
+        if (snapshotFilename == null || snapshotFilename.isEmpty()) {
+            return null;
+        }
+
+        return new CorrupterSnapshot(
+                new File(snapshotFilename),
+                new File(properties.get("ontology_filename")),
+                corrupterType,
+                new File(properties.get("entity_mappings_filename")),
+                new File(properties.get("relation_mappings_filename")),
+                TripleCorrupterProvider.createOptions(properties));
+    }
+}
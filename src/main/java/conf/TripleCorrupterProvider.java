@@ -1,8 +1,15 @@
 package conf;
 
 import com.google.inject.Inject;
-import com.google.inject.Provider;
+import models.ClassIndexType;
+import models.ClassifierType;
+import models.CorrupterSnapshot;
+import models.KnownTriples;
+import models.OntologyIndex;
+import models.SimilaritySampling;
+import models.StartupPhases;
 import models.TripleCorrupter;
+import models.TripleCorrupterOptions;
 import models.TripleCorrupterType;
 import ninja.utils.NinjaProperties;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
@@ -11,16 +18,42 @@ import java.io.File;
 import java.io.IOException;
 
 /**
- * Class which represents a provider used to generate an instance of TripleCorrupter.
+ * Class which represents a provider used by {@link GenerationHolderProvider} to create the TripleCorrupter
+ * instances of the datasets.
  */
-public class TripleCorrupterProvider implements Provider<TripleCorrupter> {
+public class TripleCorrupterProvider {
     private final NinjaProperties properties;
 
     /**
-     * Constructor which receives a NinjaProperties object which must contain the following parameters:
+     * Constructor which receives a NinjaProperties object which must contain the following parameters, which
+     * can be overridden for each dataset (see {@link DatasetProperties}):
      * <ul>
      * <li>application.ontology_filename: filename of ontology</li>
-     * <li>application.corrupter_id: identifier of triple corrupter (DISJOINT or SIMILARITY)</li>
+     * <li>application.abox_filename: RDF file (N-Triples, Turtle or RDF/XML, optionally gzipped) whose class
+     * assertions are streamed into the class index, so that the ontology file only has to contain the schema
+     * (optional)</li>
+     * <li>application.corrupter_id: comma-separated identifiers of the triple corrupters (DISJOINT, SIMILARITY or
+     * DOMAIN_RANGE), the first one being used by the requests which do not select a triple corrupter</li>
+     * <li>application.candidate_pools: precomputes candidate pools at startup (optional, default false)</li>
+     * <li>application.class_index: index of the individuals of each class, MULTIMAP or compressed BITMAP
+     * (optional, default MULTIMAP)</li>
+     * <li>application.classifier: classifier of the ontology, JFACT or STRUCTURAL, which computes the closure of
+     * the told axioms of plain class hierarchies and falls back to JFACT otherwise (optional, default JFACT)</li>
+     * <li>application.reasoner_cache_size: maximum number of entities of the reasoner results kept in cache
+     * while the indexes are built, the cache being emptied afterwards (optional, default 1000000)</li>
+     * <li>application.similarity_sampling: strategy used by the SIMILARITY corrupter to choose the class of the
+     * corrupted entity, NEAREST or WEIGHTED, whose alias tables use up to 16 bytes per pair of a direct type and
+     * a class connected to it (optional, default NEAREST)</li>
+     * <li>application.similarity_weight_exponent: exponent of the dissimilarities of the WEIGHTED similarity
+     * sampling (optional, default 1)</li>
+     * <li>application.snapshot_filename: snapshot restored in place of the ontology when it is up to date and
+     * compiled with the same class index and similarity options (optional)</li>
+     * <li>application.known_triples_filename: TSV file of known triples of identifiers, which are not returned
+     * as corrupted triples (optional)</li>
+     * <li>application.known_triples_bloom_filter: checks a Bloom filter before the known triples (optional,
+     * default false)</li>
+     * <li>application.known_triples_max_retries: maximum number of times a known corrupted triple is resampled
+     * (optional, default 10)</li>
      * </ul>
      *
      * @param properties Configuration parameters
@@ -31,19 +64,77 @@ public class TripleCorrupterProvider implements Provider<TripleCorrupter> {
     }
 
     /**
-     * Creates a TripleCorrupter instance using the given parameters.
+     * Creates the TripleCorrupter instance of the given strategy for the given dataset, recording its startup
+     * phases. The indexes derived from the ontology are shared with the triple corrupters having the same
+     * ontology file, ABox file, class index, classifier and reasoner cache size, and the known triples are shared
+     * with the ones having the same known triples file.
      *
-     * @return TripleCorrupter instance if it was created correctly, null otherwise
+     * @param dataset Configuration parameters of the dataset
+     * @param corrupterType Identifier of the triple corrupter
+     * @param startupPhases Startup phases of the corrupter, which can be read while it is being created
+     * @param sharedIndexes Indexes already created for the other triple corrupters
+     * @return TripleCorrupter instance
+     * @throws OWLOntologyCreationException Exception raised if the ontology cannot be loaded
+     * @throws IOException Exception raised if the ontology, the snapshot or the known triples cannot be read
      */
-    @Override
-    public TripleCorrupter get() {
-        try {
-            return TripleCorrupter.create(new File(properties.get("application.ontology_filename")),
-                    TripleCorrupterType.valueOf(properties.get("application.corrupter_id")));
-        } catch (OWLOntologyCreationException | IOException e) {
-            e.printStackTrace();
+    public TripleCorrupter create(DatasetProperties dataset, TripleCorrupterType corrupterType,
+                                  StartupPhases startupPhases, SharedIndexes sharedIndexes)
+            throws OWLOntologyCreationException, IOException {
+        TripleCorrupter corrupter;
+        CorrupterSnapshot snapshot = SnapshotConfiguration.create(dataset, corrupterType);
+        if (snapshot != null && snapshot.isValid()) {
+            corrupter = snapshot.readCorrupter();
+        } else {
+            TripleCorrupterOptions options = createOptions(dataset).setStartupPhases(startupPhases);
+            File ontologyFile = new File(dataset.get("ontology_filename"));
+            String key = "ontology:" + ontologyFile.getCanonicalPath() + "|" +
+                    ((options.getAboxFile() != null) ? options.getAboxFile().getCanonicalPath() : "") + "|" +
+                    options.getClassIndex() + "|" + options.getClassifier() + "|" + options.getReasonerCacheSize();
+
+            OntologyIndex ontologyIndex = sharedIndexes.get(key, OntologyIndex.class);
+            if (ontologyIndex == null) {
+                ontologyIndex = sharedIndexes.put(key, new OntologyIndex(ontologyFile, options));
+            }
+            corrupter = TripleCorrupter.create(ontologyIndex, corrupterType, options);
+        }
+
+        String knownTriplesFilename = dataset.get("known_triples_filename");
+        if (knownTriplesFilename != null) {
+            File knownTriplesFile = new File(knownTriplesFilename);
+            boolean bloomFilter = dataset.getBooleanWithDefault("known_triples_bloom_filter", false);
+            String key = "known_triples:" + knownTriplesFile.getCanonicalPath() + "|" + bloomFilter;
+
+            KnownTriples knownTriples = sharedIndexes.get(key, KnownTriples.class);
+            if (knownTriples == null) {
+                knownTriples = sharedIndexes.put(key, KnownTriples.load(knownTriplesFile, bloomFilter));
+            }
+            corrupter.setKnownTriples(knownTriples, dataset.getIntegerWithDefault("known_triples_max_retries", 10));
+        }
+
+        return corrupter;
+    }
+
+    /**
+     * Creates the options of the triple corrupters of the given dataset.
+     *
+     * @param dataset Configuration parameters of the dataset
+     * @return Options of the triple corrupters
+     */
+    static TripleCorrupterOptions createOptions(DatasetProperties dataset) {
+        TripleCorrupterOptions options = new TripleCorrupterOptions()
+                .setCandidatePools(dataset.getBooleanWithDefault("candidate_pools", false))
+                .setClassIndex(ClassIndexType.valueOf(dataset.getWithDefault("class_index", "MULTIMAP")))
+                .setClassifier(ClassifierType.valueOf(dataset.getWithDefault("classifier", "JFACT")))
+                .setReasonerCacheSize(Long.parseLong(dataset.getWithDefault("reasoner_cache_size", "1000000")))
+                .setSimilaritySampling(SimilaritySampling.valueOf(
+                        dataset.getWithDefault("similarity_sampling", "NEAREST")))
+                .setSimilarityWeightExponent(Double.parseDouble(
+                        dataset.getWithDefault("similarity_weight_exponent", "1")));
+        String aboxFilename = dataset.get("abox_filename");
+        if (aboxFilename != null && !aboxFilename.isEmpty()) {
+            options.setAboxFile(new File(aboxFilename));
         }
 
-        return null;
+        return options;
     }
 }
@@ -1,7 +1,8 @@
 package conf;
 
 import com.google.inject.Inject;
-import com.google.inject.Provider;
+import models.CorrupterSnapshot;
+import models.DictionaryType;
 import models.TripleIndexer;
 import ninja.utils.NinjaProperties;
 
@@ -9,16 +10,22 @@ import java.io.File;
 import java.io.IOException;
 
 /**
- * Class which represents a provider used to generate an instance of TripleIndexer.
+ * Class which represents a provider used by {@link GenerationHolderProvider} to create the TripleIndexer
+ * instances of the datasets.
  */
-public class TripleIndexerProvider implements Provider<TripleIndexer> {
+public class TripleIndexerProvider {
     private final NinjaProperties properties;
 
     /**
-     * Constructor which receives a NinjaProperties object which must contain the following parameters:
+     * Constructor which receives a NinjaProperties object which must contain the following parameters, which
+     * can be overridden for each dataset (see {@link DatasetProperties}):
      * <ul>
      * <li>application.entity_mappings_filename: filename of entity mappings</li>
      * <li>application.relation_mappings_filename: filename of relation mappings</li>
+     * <li>application.indexer_dictionary: dictionary implementation (HASH, COMPACT or COMPACT_OFF_HEAP,
+     * optional, default HASH)</li>
+     * <li>application.snapshot_filename: snapshot restored in place of the mapping files when it is up to date
+     * (optional)</li>
      * </ul>
      *
      * @param properties Configuration parameters
@@ -29,20 +36,28 @@ public class TripleIndexerProvider implements Provider<TripleIndexer> {
     }
 
     /**
-     * Creates a TripleIndexer instance using the given parameters.
+     * Creates the TripleIndexer instance of the given dataset, which is shared with the datasets having the same
+     * mapping files and dictionary implementation.
      *
-     * @return TripleIndexer instance if it was created correctly, null otherwise
+     * @param dataset Configuration parameters of the dataset
+     * @param sharedIndexes Indexes already created for the other datasets
+     * @return TripleIndexer instance
+     * @throws IOException Exception raised if the mappings or the snapshot cannot be read
      */
-    @Override
-    public TripleIndexer get() {
-        try {
-            return new TripleIndexer(
-                    new File(properties.get("application.entity_mappings_filename")),
-                    new File(properties.get("application.relation_mappings_filename")));
-        } catch (IOException e) {
-            e.printStackTrace();
+    public TripleIndexer create(DatasetProperties dataset, SharedIndexes sharedIndexes) throws IOException {
+        File entityMappingFile = new File(dataset.get("entity_mappings_filename"));
+        File relationMappingFile = new File(dataset.get("relation_mappings_filename"));
+        DictionaryType dictionaryType = DictionaryType.valueOf(dataset.getWithDefault("indexer_dictionary", "HASH"));
+        String key = "indexer:" + entityMappingFile.getCanonicalPath() + "|" +
+                relationMappingFile.getCanonicalPath() + "|" + dictionaryType;
+
+        TripleIndexer indexer = sharedIndexes.get(key, TripleIndexer.class);
+        if (indexer == null) {
+            CorrupterSnapshot snapshot = SnapshotConfiguration.create(dataset, dataset.getCorrupterTypes().get(0));
+            indexer = sharedIndexes.put(key, (snapshot != null && snapshot.isValid()) ? snapshot.readIndexer() :
+                    new TripleIndexer(entityMappingFile, relationMappingFile, dictionaryType));
         }
 
-        return null;
+        return indexer;
     }
 }
@@ -0,0 +1,36 @@
+package controllers;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import models.GenerationHolder;
+import ninja.Result;
+import ninja.Results;
+
+import java.util.logging.Logger;
+
+/**
+ * Class which defines the methods used by the router to administer the server.
+ */
+@Singleton
+public class AdminController {
+    @Inject
+    private GenerationHolder generationHolder;
+
+    private final Logger logger = Logger.getLogger(AdminController.class.getName());
+
+    /**
+     * Reloads the ontology and the mappings in background. Requests are served by the current triple corrupter
+     * and indexer until the new ones are ready, then the new ones replace them; the progress of the reload is
+     * reported by the readiness endpoint.
+     *
+     * @return 202 if the reload has started, 409 if another reload is running
+     */
+    public Result reload() {
+        if (!generationHolder.reload()) {
+            return Results.status(409).json().render("Reload already running");
+        }
+
+        logger.info("-- Reloading ontology and mappings");
+        return Results.status(202).json().render("Reload started");
+    }
+}
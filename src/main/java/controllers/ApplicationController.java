@@ -1,18 +1,37 @@
 package controllers;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import controllers.data.Request;
 import controllers.data.Triple;
+import models.CorruptedTriples;
+import models.CorruptionScheduler;
+import models.Dataset;
+import models.GenerationHolder;
+import models.ServerMetrics;
 import models.TripleCorrupter;
 import models.TripleIndexer;
+import ninja.Context;
 import ninja.Result;
 import ninja.Results;
 import ninja.params.Param;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
 /**
  * Class which defines methods used by the router to satisfy specific requests.
@@ -20,73 +39,517 @@ import java.util.stream.Collectors;
 @Singleton
 public class ApplicationController {
     @Inject
-    private TripleCorrupter tripleCorrupter;
+    private GenerationHolder generationHolder;
     @Inject
-    private TripleIndexer tripleIndexer;
+    private ObjectMapper objectMapper;
+    @Inject
+    private ServerMetrics serverMetrics;
+    @Inject
+    private CorruptionScheduler scheduler;
+
+    private static final String NDJSON_CONTENT_TYPE = "application/x-ndjson";
+    private static final int STREAM_BATCH_SIZE = 256;
+    private static final String JSON_CONTENT_TYPE = "application/json";
+    private static final String BINARY_CONTENT_TYPE = "application/octet-stream";
+    private static final String LAYOUT_FULL = "full";
+    private static final String LAYOUT_REPLACEMENTS = "replacements";
+    private static final int BINARY_BUFFER_SIZE = 1 << 16;
+    private static final String DEGRADED_HEADER = "X-Berlusca-Degraded";
 
     private final Logger logger = Logger.getLogger(ApplicationController.class.getName());
 
     /**
      * Generates a JSON structure containing a list of corrupted triples for each input triple.
+     * <p>
+     * When the Accept header of the request gives "application/octet-stream" a higher quality than
+     * "application/json", the corrupted triples are rather encoded as little-endian integer identifiers (see
+     * {@link #renderBinary}). Responses generated
+     * while the configured triple corrupter is not ready have the "X-Berlusca-Degraded: true" header.
+     * The dataset and the strategy default to the first configured ones, and the status is 404 when they
+     * are not configured. When the scheduler is enabled and overloaded, the status is 429 and the Retry-After
+     * header gives the number of seconds after which the request should be retried.
      *
+     * @param context Context of the request
      * @param request Request object for the triple corrupter
+     * @param idWidth Width in bits of the identifiers of the binary format, 32 or 64 (optional)
+     * @param layout Layout of the binary format, "full" or "replacements" (optional)
+     * @param datasetName Name of the dataset (optional)
+     * @param corrupterId Identifier of the triple corrupter of the dataset (optional)
      * @return JSON structure of corrupted triples
      */
-    public Result corrupted(Request request) {
+    public Result corrupted(Context context, Request request,
+                            @Param("id_width") Integer idWidth, @Param("layout") String layout,
+                            @Param("dataset") String datasetName, @Param("corrupter") String corrupterId) {
         logger.info("-- Received new request");
+        long startNanos = System.nanoTime();
+        Dataset dataset = generationHolder.get().getDataset(datasetName);
+        TripleCorrupter corrupter = (dataset != null) ? dataset.getCorrupter(corrupterId) : null;
+        if (corrupter == null) {
+            return notFound(dataset, datasetName, corrupterId);
+        }
+
+        String accept = context.getHeader("Accept");
+        if (accept != null && getQuality(accept, BINARY_CONTENT_TYPE) > getQuality(accept, JSON_CONTENT_TYPE)) {
+            return corruptedBinary(corrupter, dataset.getIndexer(), request, (idWidth != null) ? idWidth : 64,
+                    (layout != null) ? layout : LAYOUT_FULL, startNanos);
+        }
+
+        List<List<Triple>> corruptedTriples;
+        try {
+            corruptedTriples = scheduler.execute(
+                    () -> corrupter.corrupt(request.triples, request.size, dataset.getIndexer(), request.seed));
+        } catch (RejectedExecutionException e) {
+            return tooManyRequests(e);
+        }
+        serverMetrics.recordRequest("corrupted", startNanos, request.triples.size(),
+                (long) request.triples.size() * request.size);
+        return markDegraded(Results.json(), corrupter).render(corruptedTriples);
+    }
+
+    /**
+     * Returns the quality given by an Accept header to a media type, which is the one of the most specific media
+     * range matching it, 1 when the range has no "q" parameter.
+     *
+     * @param accept Value of the Accept header
+     * @param mediaType Media type, such as "application/json"
+     * @return Quality between 0 and 1, 0 if no media range matches the media type
+     */
+    private static double getQuality(String accept, String mediaType) {
+        String typeRange = mediaType.substring(0, mediaType.indexOf('/')) + "/*";
+        double quality = 0;
+        int specificity = -1;
+
+        for (String mediaRange : accept.split(",")) {
+            String[] parameters = mediaRange.split(";");
+            String range = parameters[0].trim().toLowerCase(Locale.ROOT);
+            int rangeSpecificity = range.equals(mediaType) ? 2 : range.equals(typeRange) ? 1 :
+                    range.equals("*/*") ? 0 : -1;
+            if (rangeSpecificity <= specificity) {
+                continue;
+            }
+
+            specificity = rangeSpecificity;
+            quality = 1;
+            for (int i = 1; i < parameters.length; i++) {
+                String parameter = parameters[i].trim().toLowerCase(Locale.ROOT);
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+        }
+
+        return quality;
+    }
+
+    /**
+     * Generates the binary encoding of the corrupted triples of a request.
+     *
+     * @param corrupter Triple corrupter of the request
+     * @param indexer Mapping between URIs and integer identifiers of the request
+     * @param request Request object for the triple corrupter
+     * @param idWidth Width in bits of the identifiers, 32 or 64
+     * @param layout Layout of the response, "full" or "replacements"
+     * @param startNanos Value of System.nanoTime() when the request was received
+     * @return Binary encoding of corrupted triples
+     */
+    private Result corruptedBinary(TripleCorrupter corrupter, TripleIndexer indexer, Request request, int idWidth,
+                                   String layout, long startNanos) {
+        if (idWidth != 32 && idWidth != 64) {
+            return Results.badRequest().json().render("\"id_width\" must be 32 or 64");
+        }
+        if (!LAYOUT_FULL.equals(layout) && !LAYOUT_REPLACEMENTS.equals(layout)) {
+            return Results.badRequest().json().render("\"layout\" must be \"" + LAYOUT_FULL + "\" or \"" +
+                    LAYOUT_REPLACEMENTS + "\"");
+        }
+
+        List<CorruptedTriples> corruptedTriples;
+        try {
+            corruptedTriples = scheduler.execute(() -> corrupter.corruptIds(request.triples, request.size, indexer,
+                    TripleCorrupter.createRandomGenerator(request.seed)));
+        } catch (RejectedExecutionException e) {
+            return tooManyRequests(e);
+        }
+        if (idWidth == 32 && !fitInt(corruptedTriples)) {
+            return Results.badRequest().json().render("Identifiers do not fit in 32 bits");
+        }
+
+        return markDegraded(Results.ok(), corrupter).
+                contentType(BINARY_CONTENT_TYPE).
+                addHeader("X-Berlusca-Triples", String.valueOf(corruptedTriples.size())).
+                addHeader("X-Berlusca-Size", String.valueOf(request.size)).
+                addHeader("X-Berlusca-Id-Width", String.valueOf(idWidth)).
+                addHeader("X-Berlusca-Layout", layout).
+                render((ctx, result) -> {
+                    try (OutputStream outputStream = ctx.finalizeHeaders(result).getOutputStream()) {
+                        renderBinary(corruptedTriples, outputStream, idWidth, LAYOUT_REPLACEMENTS.equals(layout));
+                        serverMetrics.recordRequest("corrupted_binary", startNanos, request.triples.size(),
+                                (long) request.triples.size() * request.size);
+                    } catch (IOException e) {
+                        logger.log(Level.WARNING, "Unable to write corrupted triples", e);
+                    }
+                });
+    }
+
+    /**
+     * Writes the corrupted triples as little-endian integer identifiers, -1 marking unknown identifiers.
+     * <p>
+     * The "full" layout writes subject, predicate and object of each corrupted triple, so that the response
+     * is a [triples, size, 3] array. The "replacements" layout only writes the identifier of the replaced
+     * entity of each corrupted triple, as a [triples, size] array, followed by a [triples, size] array of
+     * bytes which are 1 if the subject has been replaced and 0 if the object has been replaced: the
+     * predicate and the kept entity are the ones of the input triple.
+     *
+     * @param corruptedTriples Corrupted triples of each input triple
+     * @param outputStream Stream of the response body
+     * @param idWidth Width in bits of the identifiers, 32 or 64
+     * @param replacements True writes the "replacements" layout, False writes the "full" layout
+     * @throws IOException Exception raised if the stream cannot be written
+     */
+    private void renderBinary(List<CorruptedTriples> corruptedTriples, OutputStream outputStream, int idWidth,
+                              boolean replacements) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BINARY_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        int idBytes = idWidth / 8;
+
+        for (CorruptedTriples triples : corruptedTriples) {
+            for (int i = 0; i < triples.size(); i++) {
+                if (buffer.remaining() < 3 * idBytes) {
+                    flush(buffer, outputStream);
+                }
+                if (replacements) {
+                    putId(buffer, triples.getReplacement(i), idWidth);
+                } else {
+                    putId(buffer, triples.getSubject(i), idWidth);
+                    putId(buffer, triples.getPredicate(i), idWidth);
+                    putId(buffer, triples.getObject(i), idWidth);
+                }
+            }
+        }
 
-        List<List<Triple>> corruptedTriples = request.triples.stream().
-                map(triple ->
-                        tripleCorrupter.corrupt(
-                                triple,
-                                request.size, tripleIndexer)
-                )
-                .collect(Collectors.toList());
-        return Results.json().render(corruptedTriples);
+        if (replacements) {
+            for (CorruptedTriples triples : corruptedTriples) {
+                for (int i = 0; i < triples.size(); i++) {
+                    if (!buffer.hasRemaining()) {
+                        flush(buffer, outputStream);
+                    }
+                    buffer.put((byte) (triples.isSubjectCorrupted(i) ? 1 : 0));
+                }
+            }
+        }
+        flush(buffer, outputStream);
+    }
+
+    private static void putId(ByteBuffer buffer, long id, int idWidth) {
+        if (idWidth == 32) {
+            buffer.putInt((int) id);
+        } else {
+            buffer.putLong(id);
+        }
+    }
+
+    private static void flush(ByteBuffer buffer, OutputStream outputStream) throws IOException {
+        outputStream.write(buffer.array(), 0, buffer.position());
+        buffer.clear();
+    }
+
+    private static boolean fitInt(List<CorruptedTriples> corruptedTriples) {
+        for (CorruptedTriples triples : corruptedTriples) {
+            for (int i = 0; i < triples.size(); i++) {
+                if (triples.getSubject(i) > Integer.MAX_VALUE || triples.getPredicate(i) > Integer.MAX_VALUE ||
+                        triples.getObject(i) > Integer.MAX_VALUE) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Generates a stream of corrupted triples, encoded as newline-delimited JSON.
+     * <p>
+     * The request body has the same structure of the one of
+     * {@link #corrupted(Context, Request, Integer, String, String, String)}, but triples are
+     * parsed, corrupted and written in batches, so that memory does not depend on the number of triples.
+     * Each line of the response is the JSON list of corrupted triples of an input triple, in the same order.
+     * Since triples are corrupted as soon as they are read, "size" and "seed" have to precede "triples" in
+     * the body, or they have to be given as query parameters.
+     * <p>
+     * The body is read up to the start of "triples" before the response is committed, so that a body which is
+     * not an object, which lacks "size" before "triples" or whose "triples" is not an array gets a 400 status.
+     * When an error occurs once the stream has started, the last line of the response is a JSON object whose
+     * "error" field describes it, instead of a list of corrupted triples.
+     * <p>
+     * Each batch of triples is corrupted through the scheduler, like a request of its own. When the scheduler is
+     * enabled and its queue is full, the status is 429 and the Retry-After header gives the number of seconds
+     * after which the request should be retried; a batch rejected once the stream has started ends the stream
+     * with an error line.
+     *
+     * @param context Context of the request
+     * @param size Number of corrupted triples for each input triple (optional)
+     * @param seed Seed of the random generators (optional)
+     * @param datasetName Name of the dataset (optional)
+     * @param corrupterId Identifier of the triple corrupter of the dataset (optional)
+     * @return Stream of corrupted triples
+     */
+    public Result corruptedStream(Context context, @Param("size") Integer size, @Param("seed") Long seed,
+                                  @Param("dataset") String datasetName, @Param("corrupter") String corrupterId) {
+        logger.info("-- Received new streaming request");
+        long startNanos = System.nanoTime();
+        Dataset dataset = generationHolder.get().getDataset(datasetName);
+        TripleCorrupter corrupter = (dataset != null) ? dataset.getCorrupter(corrupterId) : null;
+        if (corrupter == null) {
+            return notFound(dataset, datasetName, corrupterId);
+        }
+
+        StreamRequest streamRequest;
+        try {
+            streamRequest = readStreamRequest(context.getInputStream(), size, seed);
+        } catch (IOException e) {
+            logger.info("-- Rejected streaming request: " + e.getMessage());
+            return Results.badRequest().json().render(e.getMessage());
+        }
+        try {
+            scheduler.admit();
+        } catch (RejectedExecutionException e) {
+            closeQuietly(streamRequest.parser);
+            return tooManyRequests(e);
+        }
+
+        return markDegraded(Results.ok(), corrupter).contentType(NDJSON_CONTENT_TYPE).render((ctx, result) -> {
+            try (JsonParser parser = streamRequest.parser;
+                 OutputStream outputStream = ctx.finalizeHeaders(result).getOutputStream()) {
+                try {
+                    streamCorrupted(corrupter, dataset.getIndexer(), streamRequest, outputStream, startNanos);
+                } catch (IOException | RuntimeException e) {
+                    logger.log(Level.WARNING, "Unable to stream corrupted triples", e);
+                    outputStream.write(objectMapper.writeValueAsBytes(
+                            Collections.singletonMap("error", String.valueOf(e.getMessage()))));
+                    outputStream.write('\n');
+                }
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Unable to write the stream of corrupted triples", e);
+            }
+        });
+    }
+
+    /**
+     * Reads the fields of a streaming request which precede its triples, leaving the parser positioned on the
+     * start of the array of triples.
+     *
+     * @param inputStream Stream of the request body
+     * @param size Number of corrupted triples for each input triple, null to read it from the body
+     * @param seed Seed of the random generators, null to read it from the body
+     * @return Parser and parameters of the request
+     * @throws IOException Exception raised if the body cannot be read or is not a valid request
+     */
+    private StreamRequest readStreamRequest(InputStream inputStream, Integer size, Long seed) throws IOException {
+        JsonParser parser = objectMapper.getFactory().createParser(inputStream);
+        try {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Request body must be a JSON object");
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                parser.nextToken();
+
+                if ("size".equals(fieldName) && size == null) {
+                    size = parser.getIntValue();
+                } else if ("seed".equals(fieldName) && seed == null &&
+                        parser.getCurrentToken() != JsonToken.VALUE_NULL) {
+                    seed = parser.getLongValue();
+                } else if ("triples".equals(fieldName)) {
+                    if (size == null) {
+                        throw new IOException("\"size\" must precede \"triples\"");
+                    }
+                    if (parser.getCurrentToken() != JsonToken.START_ARRAY) {
+                        throw new IOException("\"triples\" must be a JSON array");
+                    }
+                    return new StreamRequest(parser, size, seed);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+
+            throw new IOException("Request body must contain \"triples\"");
+        } catch (IOException | RuntimeException e) {
+            parser.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the triples of a request from its parser and writes their corrupted triples to the output stream,
+     * one line for each input triple.
+     *
+     * @param corrupter Triple corrupter of the request
+     * @param indexer Mapping between URIs and integer identifiers of the request
+     * @param streamRequest Request whose parser is positioned on the start of the array of triples
+     * @param outputStream Stream of the response body
+     * @param startNanos Value of System.nanoTime() when the request was received
+     * @throws IOException Exception raised if the streams cannot be read or written
+     */
+    private void streamCorrupted(TripleCorrupter corrupter, TripleIndexer indexer, StreamRequest streamRequest,
+                                 OutputStream outputStream, long startNanos) throws IOException {
+        JsonParser parser = streamRequest.parser;
+        long numTriples = streamCorruptedTriples(corrupter, indexer, parser, outputStream, streamRequest.size,
+                TripleCorrupter.createRandomGenerator(streamRequest.seed));
+        serverMetrics.recordRequest("corrupted_stream", startNanos, numTriples, numTriples * streamRequest.size);
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            parser.nextToken();
+            parser.skipChildren();
+        }
+    }
+
+    /**
+     * Corrupts the triples of the JSON array the parser is positioned on, in batches of STREAM_BATCH_SIZE
+     * triples, flushing the output stream after each batch.
+     *
+     * @param corrupter Triple corrupter of the request
+     * @param indexer Mapping between URIs and integer identifiers of the request
+     * @param parser Parser positioned on the start of the array of triples
+     * @param outputStream Stream of the response body
+     * @param size Number of corrupted triples for each input triple
+     * @param random Random generator of the request
+     * @return Number of corrupted input triples
+     * @throws IOException Exception raised if the streams cannot be read or written
+     */
+    private long streamCorruptedTriples(TripleCorrupter corrupter, TripleIndexer indexer, JsonParser parser,
+                                        OutputStream outputStream, int size, SplittableRandom random)
+            throws IOException {
+        if (parser.getCurrentToken() != JsonToken.START_ARRAY) {
+            throw new IOException("\"triples\" must be a JSON array");
+        }
+
+        List<Triple> batch = new ArrayList<>(STREAM_BATCH_SIZE);
+        long numTriples = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            batch.add(objectMapper.readValue(parser, Triple.class));
+            numTriples++;
+            if (batch.size() == STREAM_BATCH_SIZE) {
+                writeCorruptedBatch(corrupter, indexer, batch, outputStream, size, random);
+            }
+        }
+        writeCorruptedBatch(corrupter, indexer, batch, outputStream, size, random);
+
+        return numTriples;
+    }
+
+    private void writeCorruptedBatch(TripleCorrupter corrupter, TripleIndexer indexer, List<Triple> batch,
+                                     OutputStream outputStream, int size, SplittableRandom random)
+            throws IOException {
+        for (List<Triple> corruptedTriples : scheduler.execute(() -> corrupter.corrupt(batch, size, indexer, random))) {
+            outputStream.write(objectMapper.writeValueAsBytes(corruptedTriples));
+            outputStream.write('\n');
+        }
+        outputStream.flush();
+        batch.clear();
+    }
+
+    private void closeQuietly(JsonParser parser) {
+        try {
+            parser.close();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Unable to close the streaming request", e);
+        }
+    }
+
+    private static Result markDegraded(Result result, TripleCorrupter corrupter) {
+        return corrupter.isDegraded() ? result.addHeader(DEGRADED_HEADER, "true") : result;
+    }
+
+    /**
+     * Generates the response of a request rejected by the scheduler.
+     *
+     * @param e Cause of the rejection
+     * @return Too many requests response
+     */
+    private Result tooManyRequests(RejectedExecutionException e) {
+        return Results.status(429).
+                addHeader("Retry-After", String.valueOf(scheduler.getRetryAfterSeconds())).
+                json().render(e.getMessage());
+    }
+
+    /**
+     * Generates the response of a request selecting a dataset or a triple corrupter which is not configured.
+     *
+     * @param dataset Selected dataset, null if it is not configured
+     * @param datasetName Name of the selected dataset
+     * @param corrupterId Identifier of the selected triple corrupter
+     * @return Not found response
+     */
+    private static Result notFound(Dataset dataset, String datasetName, String corrupterId) {
+        return Results.notFound().json().render((dataset == null) ?
+                "Unknown dataset: " + datasetName : "Unknown corrupter: " + corrupterId);
     }
 
     /**
      * Converts a given entity URI to its integer identifier.
      *
      * @param uri URI to be converted
+     * @param datasetName Name of the dataset (optional)
      * @return Integer identifier of the given URI
      */
-    public Result entityURI2id(@Param("uri") String uri) {
+    public Result entityURI2id(@Param("uri") String uri, @Param("dataset") String datasetName) {
         logger.info("-- Looking up for entity ID with URI " + uri);
-        return Results.json().render(tripleIndexer.getEntity2id().get(uri));
+        Dataset dataset = generationHolder.get().getDataset(datasetName);
+        if (dataset == null) {
+            return notFound(null, datasetName, null);
+        }
+        return Results.json().render(dataset.getIndexer().getEntity2id().get(uri));
     }
 
     /**
      * Converts a given relation URI to its integer identifier.
      *
      * @param uri URI to be converted
+     * @param datasetName Name of the dataset (optional)
      * @return Integer identifier of the given URI
      */
-    public Result relationURI2id(@Param("uri") String uri) {
+    public Result relationURI2id(@Param("uri") String uri, @Param("dataset") String datasetName) {
         logger.info("-- Looking up for relation ID with URI " + uri);
-        return Results.json().render(tripleIndexer.getRelation2id().get(uri));
+        Dataset dataset = generationHolder.get().getDataset(datasetName);
+        if (dataset == null) {
+            return notFound(null, datasetName, null);
+        }
+        return Results.json().render(dataset.getIndexer().getRelation2id().get(uri));
     }
 
     /**
      * Converts a given entity identifier to its URI.
      *
      * @param id Integer identifier to be converted
+     * @param datasetName Name of the dataset (optional)
      * @return Entity URI of the given integer identifier
      */
-    public Result entityId2URI(@Param("id") Long id) {
+    public Result entityId2URI(@Param("id") Long id, @Param("dataset") String datasetName) {
         logger.info("-- Looking up for entity URI with ID " + id);
-        return Results.json().render(tripleIndexer.getId2entity().get(id));
+        Dataset dataset = generationHolder.get().getDataset(datasetName);
+        if (dataset == null) {
+            return notFound(null, datasetName, null);
+        }
+        return Results.json().render(dataset.getIndexer().getId2entity().get(id));
     }
 
     /**
      * Converts a given relation identifier to its URI.
      *
      * @param id Integer identifier to be converted
+     * @param datasetName Name of the dataset (optional)
      * @return Entity URI of the given integer identifier
      */
-    public Result relationId2URI(@Param("id") Long id) {
+    public Result relationId2URI(@Param("id") Long id, @Param("dataset") String datasetName) {
         logger.info("-- Looking up for relation URI with ID " + id);
-        return Results.json().render(tripleIndexer.getId2relation().get(id));
+        Dataset dataset = generationHolder.get().getDataset(datasetName);
+        if (dataset == null) {
+            return notFound(null, datasetName, null);
+        }
+        return Results.json().render(dataset.getIndexer().getId2relation().get(id));
     }
 
 
@@ -98,4 +561,19 @@ public class ApplicationController {
     public Result index() {
         return Results.html();
     }
+
+    /**
+     * Class which represents a streaming request whose fields preceding the triples have been read.
+     */
+    private static final class StreamRequest {
+        private final JsonParser parser;
+        private final int size;
+        private final Long seed;
+
+        StreamRequest(JsonParser parser, int size, Long seed) {
+            this.parser = parser;
+            this.size = size;
+            this.seed = seed;
+        }
+    }
 }
@@ -0,0 +1,37 @@
+package controllers;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import models.CorruptionScheduler;
+import models.GenerationHolder;
+import models.ServerMetrics;
+import ninja.Result;
+import ninja.Results;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Class which defines the methods used by the router to export the metrics of the server.
+ */
+@Singleton
+public class MetricsController {
+    private static final String PROMETHEUS_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    @Inject
+    private GenerationHolder generationHolder;
+    @Inject
+    private ServerMetrics serverMetrics;
+    @Inject
+    private CorruptionScheduler scheduler;
+
+    /**
+     * Exports the metrics of the server in the Prometheus text format.
+     *
+     * @return Metrics of the server
+     */
+    public Result metrics() {
+        return Results.ok().
+                contentType(PROMETHEUS_CONTENT_TYPE).
+                renderRaw(serverMetrics.toPrometheus(generationHolder.get(), scheduler).getBytes(StandardCharsets.UTF_8));
+    }
+}
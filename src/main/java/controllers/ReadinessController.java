@@ -0,0 +1,64 @@
+package controllers;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import models.Dataset;
+import models.Generation;
+import models.GenerationHolder;
+import models.StartupPhases;
+import ninja.Result;
+import ninja.Results;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Class which defines the methods used by the router to report whether the server is ready.
+ */
+@Singleton
+public class ReadinessController {
+    @Inject
+    private GenerationHolder generationHolder;
+
+    /**
+     * Reports the progress of the startup of the server. The status is 200 when requests are served by the
+     * configured triple corrupters, 503 while they are served by random sampling. The JSON body contains the
+     * number of published generations, the startup phases of the triple corrupter of each strategy of each
+     * dataset with their duration in seconds, and, for the generation being created by a startup or a reload,
+     * its completed phases and its running phase, together with the cause of the last failed creation.
+     *
+     * @return Startup progress of the server
+     */
+    public Result ready() {
+        Generation generation = generationHolder.get();
+        boolean ready = !generation.isDegraded();
+
+        Map<String, Object> progress = new LinkedHashMap<>();
+        progress.put("ready", ready);
+        progress.put("generation", generationHolder.getNumPublished());
+        Map<String, Object> datasets = new LinkedHashMap<>();
+        for (Dataset dataset : generation.getDatasets()) {
+            Map<String, Object> corrupters = new LinkedHashMap<>();
+            dataset.getCorrupters().forEach((corrupterId, corrupter) ->
+                    corrupters.put(corrupterId, getPhases(corrupter.getMetrics().getStartupPhases())));
+            datasets.put(dataset.getName(), corrupters);
+        }
+        progress.put("datasets", datasets);
+        StartupPhases pendingPhases = generationHolder.getPendingPhases();
+        progress.put("creating", pendingPhases != null);
+        progress.put("phases", (pendingPhases != null) ? getPhases(pendingPhases) : Collections.emptyMap());
+        progress.put("running_phase", (pendingPhases != null) ? pendingPhases.getRunningPhase() : null);
+        progress.put("running_phase_seconds",
+                (pendingPhases != null) ? pendingPhases.getRunningPhaseElapsed() / 1e9 : 0);
+        progress.put("failure", generationHolder.getFailure());
+
+        return (ready ? Results.ok() : Results.status(503)).json().render(progress);
+    }
+
+    private static Map<String, Double> getPhases(StartupPhases startupPhases) {
+        Map<String, Double> phases = new LinkedHashMap<>();
+        startupPhases.getDurations().forEach((phase, nanos) -> phases.put(phase, nanos / 1e9));
+        return phases;
+    }
+}
@@ -0,0 +1,281 @@
+package controllers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import models.Dataset;
+import models.GenerationHolder;
+import models.TripleIndexer;
+import models.UriDictionary;
+import ninja.Context;
+import ninja.Result;
+import ninja.Results;
+import ninja.params.Param;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Class which defines the methods used by the router to translate lists of URIs and identifiers.
+ * <p>
+ * The request body is either a JSON array of values, when its content type is "application/json" or missing,
+ * or one value for each line when its content type is "application/x-ndjson" or "text/plain", the parameters
+ * of the content type being ignored. The response has the same format of the request and contains
+ * the translation of each value in the same order, null when the value is unknown. Values are read,
+ * translated and written one at a time, so that memory does not depend on the size of the request. The
+ * dataset defaults to the first configured one, and the status is 404 when it is not configured.
+ * <p>
+ * The status is 415 for other content types, and 400 when a JSON body does not start with an array. An invalid
+ * value found once the response has started leaves the JSON array of the response unterminated.
+ */
+@Singleton
+public class TranslationController {
+    private static final String NDJSON_CONTENT_TYPE = "application/x-ndjson";
+    private static final String TEXT_CONTENT_TYPE = "text/plain";
+    private static final String JSON_CONTENT_TYPE = "application/json";
+
+    @Inject
+    private GenerationHolder generationHolder;
+    @Inject
+    private ObjectMapper objectMapper;
+
+    private final Logger logger = Logger.getLogger(TranslationController.class.getName());
+
+    /**
+     * Converts a list of entity URIs to their integer identifiers.
+     *
+     * @param context Context of the request
+     * @param datasetName Name of the dataset (optional)
+     * @return Integer identifiers of the given URIs
+     */
+    public Result entityURIs2ids(Context context, @Param("dataset") String datasetName) {
+        TripleIndexer indexer = getIndexer(datasetName);
+        return (indexer != null) ? translate(context, uris2ids(indexer.getEntities())) : unknownDataset(datasetName);
+    }
+
+    /**
+     * Converts a list of relation URIs to their integer identifiers.
+     *
+     * @param context Context of the request
+     * @param datasetName Name of the dataset (optional)
+     * @return Integer identifiers of the given URIs
+     */
+    public Result relationURIs2ids(Context context, @Param("dataset") String datasetName) {
+        TripleIndexer indexer = getIndexer(datasetName);
+        return (indexer != null) ? translate(context, uris2ids(indexer.getRelations())) : unknownDataset(datasetName);
+    }
+
+    /**
+     * Converts a list of entity identifiers to their URIs.
+     *
+     * @param context Context of the request
+     * @param datasetName Name of the dataset (optional)
+     * @return Entity URIs of the given integer identifiers
+     */
+    public Result entityIds2URIs(Context context, @Param("dataset") String datasetName) {
+        TripleIndexer indexer = getIndexer(datasetName);
+        return (indexer != null) ? translate(context, ids2uris(indexer.getEntities())) : unknownDataset(datasetName);
+    }
+
+    /**
+     * Converts a list of relation identifiers to their URIs.
+     *
+     * @param context Context of the request
+     * @param datasetName Name of the dataset (optional)
+     * @return Relation URIs of the given integer identifiers
+     */
+    public Result relationIds2URIs(Context context, @Param("dataset") String datasetName) {
+        TripleIndexer indexer = getIndexer(datasetName);
+        return (indexer != null) ? translate(context, ids2uris(indexer.getRelations())) : unknownDataset(datasetName);
+    }
+
+    private TripleIndexer getIndexer(String datasetName) {
+        Dataset dataset = generationHolder.get().getDataset(datasetName);
+        return (dataset != null) ? dataset.getIndexer() : null;
+    }
+
+    private static Result unknownDataset(String datasetName) {
+        return Results.notFound().json().render("Unknown dataset: " + datasetName);
+    }
+
+    private static Translator uris2ids(UriDictionary dictionary) {
+        return (uri, generator) -> {
+            long id = dictionary.getId(uri);
+            if (id == UriDictionary.NOT_FOUND) {
+                generator.writeNull();
+            } else {
+                generator.writeNumber(id);
+            }
+        };
+    }
+
+    private static Translator ids2uris(UriDictionary dictionary) {
+        return (id, generator) -> {
+            String uri = null;
+            try {
+                uri = dictionary.getURI(Long.parseLong(id));
+            } catch (NumberFormatException e) {
+                // Values which are not identifiers are unknown
+            }
+
+            if (uri == null) {
+                generator.writeNull();
+            } else {
+                generator.writeString(uri);
+            }
+        };
+    }
+
+    /**
+     * Translates the values of the request body, choosing the format according to its content type.
+     *
+     * @param context Context of the request
+     * @param translator Translation of a single value
+     * @return Stream of translated values
+     */
+    private Result translate(Context context, Translator translator) {
+        String mediaType = getMediaType(context.getRequestContentType());
+        boolean lines = NDJSON_CONTENT_TYPE.equals(mediaType) || TEXT_CONTENT_TYPE.equals(mediaType);
+        if (!lines && mediaType != null && !JSON_CONTENT_TYPE.equals(mediaType)) {
+            return Results.status(415).json().render("Unsupported content type: " + context.getRequestContentType());
+        }
+
+        JsonParser arrayParser = null;
+        if (!lines) {
+            try {
+                arrayParser = openArray(context.getInputStream());
+            } catch (IOException e) {
+                return Results.badRequest().json().render(e.getMessage());
+            }
+        }
+        JsonParser parser = arrayParser;
+
+        return Results.ok().contentType(lines ? NDJSON_CONTENT_TYPE : JSON_CONTENT_TYPE).render((ctx, result) -> {
+            try (InputStream inputStream = ctx.getInputStream();
+                 OutputStream outputStream = ctx.finalizeHeaders(result).getOutputStream();
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                if (lines) {
+                    translateLines(inputStream, generator, translator);
+                } else {
+                    // A failed translation must not be closed as a complete, shorter array
+                    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+                    translateArray(parser, generator, translator);
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.log(Level.WARNING, "Unable to translate values", e);
+            } finally {
+                if (parser != null) {
+                    try {
+                        parser.close();
+                    } catch (IOException e) {
+                        logger.log(Level.WARNING, "Unable to close the request body", e);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the media type of the given content type, without its parameters.
+     *
+     * @param contentType Content type of the request
+     * @return Lower case media type, null if the content type is missing
+     */
+    private static String getMediaType(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+
+        int parametersStart = contentType.indexOf(';');
+        String mediaType = ((parametersStart >= 0) ? contentType.substring(0, parametersStart) : contentType).trim();
+        return mediaType.isEmpty() ? null : mediaType.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Creates the parser of a JSON body, positioned on the start of its array of values.
+     *
+     * @param inputStream Stream of the request body
+     * @return Parser of the request body
+     * @throws IOException Exception raised if the body cannot be read or is not a JSON array
+     */
+    private JsonParser openArray(InputStream inputStream) throws IOException {
+        JsonParser parser = objectMapper.getFactory().createParser(inputStream);
+        try {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Request body must be a JSON array");
+            }
+        } catch (IOException e) {
+            parser.close();
+            throw e;
+        }
+
+        return parser;
+    }
+
+    /**
+     * Translates a body made of one value for each line, writing one translation for each line.
+     *
+     * @param inputStream Stream of the request body
+     * @param generator Generator of the response body
+     * @param translator Translation of a single value
+     * @throws IOException Exception raised if the streams cannot be read or written
+     */
+    private static void translateLines(InputStream inputStream, JsonGenerator generator, Translator translator)
+            throws IOException {
+        generator.setRootValueSeparator(null);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            translator.translate(line.trim(), generator);
+            generator.writeRaw('\n');
+        }
+    }
+
+    /**
+     * Translates a body made of a JSON array of strings or numbers, writing a JSON array of translations.
+     *
+     * @param parser Parser positioned on the start of the array of values
+     * @param generator Generator of the response body
+     * @param translator Translation of a single value
+     * @throws IOException Exception raised if the streams cannot be read or written
+     */
+    private static void translateArray(JsonParser parser, JsonGenerator generator, Translator translator)
+            throws IOException {
+        generator.writeStartArray();
+        for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+            if (token == JsonToken.VALUE_STRING || token == JsonToken.VALUE_NUMBER_INT) {
+                translator.translate(parser.getText(), generator);
+            } else if (token == JsonToken.VALUE_NULL) {
+                generator.writeNull();
+            } else {
+                throw new IOException("Request body must be an array of strings or integers");
+            }
+        }
+        generator.writeEndArray();
+    }
+
+    /**
+     * Interface which represents the translation of a single value of a request.
+     */
+    private interface Translator {
+        /**
+         * Writes the translation of the given value.
+         *
+         * @param value Value to be translated
+         * @param generator Generator of the response body
+         * @throws IOException Exception raised if the translation cannot be written
+         */
+        void translate(String value, JsonGenerator generator) throws IOException;
+    }
+}
@@ -9,17 +9,20 @@ import java.util.List;
  * <ul>
  * <li>List of triples to be corrupted</li>
  * <li>Number of corrupted triples for each input triple</li>
+ * <li>Seed of the random generators (optional), which makes the response reproducible</li>
  * </ul>
  */
 public class Request {
     public List<Triple> triples;
     public int size;
+    public Long seed;
 
     @Override
     public String toString() {
         StringBuilder builder = new StringBuilder("");
 
         builder.append("Number of corrupted triples: ").append(size).append("\n");
+        builder.append("Seed: ").append(seed).append("\n");
         builder.append("Triples: ").append("\n");
 
         for (Triple t : triples) {
@@ -0,0 +1,96 @@
+package models;
+
+import java.util.SplittableRandom;
+
+/**
+ * Class which represents a discrete distribution sampled in constant time with the alias method
+ * (Vose's variant of Walker's method).
+ * <p>
+ * Each outcome owns a column of the table, which is split between the outcome itself and an alias outcome:
+ * a sample draws a column uniformly, then keeps the outcome or takes its alias according to the
+ * probability of the column.
+ */
+public class AliasTable {
+    private final double[] probabilities;
+    private final int[] aliases;
+
+    /**
+     * Constructor which receives the weights of the outcomes, which do not have to sum to 1.
+     *
+     * @param weights Non-negative weight of each outcome, at least one of them greater than 0
+     */
+    public AliasTable(double[] weights) {
+        int n = weights.length;
+        double totalWeight = 0;
+        for (double weight : weights) {
+            if (weight < 0 || Double.isNaN(weight) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("Invalid weight: " + weight);
+            }
+            totalWeight += weight;
+        }
+        if (totalWeight <= 0) {
+            throw new IllegalArgumentException("Weights must not be all 0!");
+        }
+
+        this.probabilities = new double[n];
+        this.aliases = new int[n];
+        double[] scaledWeights = new double[n];
+        int[] small = new int[n], large = new int[n];
+        int numSmall = 0, numLarge = 0;
+        for (int i = 0; i < n; i++) {
+            scaledWeights[i] = weights[i] * n / totalWeight;
+            if (scaledWeights[i] < 1) {
+                small[numSmall++] = i;
+            } else {
+                large[numLarge++] = i;
+            }
+        }
+
+        while (numSmall > 0 && numLarge > 0) {
+            int s = small[--numSmall], l = large[--numLarge];
+            probabilities[s] = scaledWeights[s];
+            aliases[s] = l;
+            scaledWeights[l] = (scaledWeights[l] + scaledWeights[s]) - 1;
+            if (scaledWeights[l] < 1) {
+                small[numSmall++] = l;
+            } else {
+                large[numLarge++] = l;
+            }
+        }
+        // Outcomes left over because of rounding errors own their whole column
+        while (numLarge > 0) {
+            int l = large[--numLarge];
+            probabilities[l] = 1;
+            aliases[l] = l;
+        }
+        while (numSmall > 0) {
+            int s = small[--numSmall];
+            probabilities[s] = 1;
+            aliases[s] = s;
+        }
+    }
+
+    /**
+     * Draws an outcome according to the weights of the table.
+     *
+     * @param random Random generator
+     * @return Index of the outcome
+     */
+    public int sample(SplittableRandom random) {
+        int column = random.nextInt(probabilities.length);
+        return (random.nextDouble() < probabilities[column]) ? column : aliases[column];
+    }
+
+    public int size() {
+        return probabilities.length;
+    }
+
+    /**
+     * Returns the number of bytes used by the table.
+     *
+     * @return Size in bytes of the table
+     */
+    public long getFootprint() {
+        return 12L * probabilities.length + 32;
+    }
+}
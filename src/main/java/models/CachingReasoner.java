@@ -0,0 +1,247 @@
+package models;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.model.OWLObject;
+import org.semanticweb.owlapi.reasoner.Node;
+import org.semanticweb.owlapi.reasoner.NodeSet;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+
+import java.util.Objects;
+
+/**
+ * Class which represents a thread-safe facade of an OWLReasoner, or of another {@link Classifier}, which
+ * memoizes the results of its queries.
+ * <p>
+ * The cache is bounded by the total number of entities of the cached results, and the least recently used
+ * results are evicted first. Concurrent callers of the same query wait for a single computation, and the
+ * wrapped classifier, which may not be thread-safe, is never queried by two threads at the same time.
+ * <p>
+ * The indexes are built with a single query per class, so the cache only serves the queries repeated while
+ * the indexes are being built, such as the domains and ranges shared by several relations, and it is
+ * invalidated once they have been built.
+ */
+public class CachingReasoner {
+    private final Classifier classifier;
+    private final LoadingCache<Query, Object> cache;
+
+    /**
+     * Constructor which receives the wrapped reasoner and the size of the cache.
+     *
+     * @param reasoner Reasoner answering the queries which are not cached
+     * @param maxEntities Maximum number of entities of the cached results
+     */
+    public CachingReasoner(OWLReasoner reasoner, long maxEntities) {
+        this(Classifier.of(reasoner), maxEntities);
+    }
+
+    /**
+     * Constructor which receives the wrapped classifier and the size of the cache.
+     *
+     * @param classifier Classifier answering the queries which are not cached
+     * @param maxEntities Maximum number of entities of the cached results
+     */
+    public CachingReasoner(Classifier classifier, long maxEntities) {
+        this.classifier = classifier;
+        this.cache = CacheBuilder.newBuilder().
+                maximumWeight(maxEntities).
+                weigher(CachingReasoner::weigh).
+                recordStats().
+                build(new CacheLoader<Query, Object>() {
+                    @Override
+                    public Object load(Query query) {
+                        synchronized (classifier) {
+                            return query.execute(classifier);
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Returns the individuals which are instances of the given class expression.
+     *
+     * @param classExpression Class expression
+     * @param direct True returns only the direct instances
+     * @return Instances of the class expression
+     */
+    @SuppressWarnings("unchecked")
+    public NodeSet<OWLNamedIndividual> getInstances(OWLClassExpression classExpression, boolean direct) {
+        return (NodeSet<OWLNamedIndividual>) get(new Query(QueryType.INSTANCES, classExpression, direct));
+    }
+
+    /**
+     * Returns all the superclasses of the given class expression.
+     *
+     * @param classExpression Class expression
+     * @return Superclasses of the class expression
+     */
+    public NodeSet<OWLClass> getSuperClasses(OWLClassExpression classExpression) {
+        return getSuperClasses(classExpression, false);
+    }
+
+    /**
+     * Returns the superclasses of the given class expression.
+     *
+     * @param classExpression Class expression
+     * @param direct True returns only the direct superclasses
+     * @return Superclasses of the class expression
+     */
+    @SuppressWarnings("unchecked")
+    public NodeSet<OWLClass> getSuperClasses(OWLClassExpression classExpression, boolean direct) {
+        return (NodeSet<OWLClass>) get(new Query(QueryType.SUPER_CLASSES, classExpression, direct));
+    }
+
+    /**
+     * Returns the subclasses of the given class expression.
+     *
+     * @param classExpression Class expression
+     * @param direct True returns only the direct subclasses
+     * @return Subclasses of the class expression
+     */
+    @SuppressWarnings("unchecked")
+    public NodeSet<OWLClass> getSubClasses(OWLClassExpression classExpression, boolean direct) {
+        return (NodeSet<OWLClass>) get(new Query(QueryType.SUB_CLASSES, classExpression, direct));
+    }
+
+    /**
+     * Returns the node of the classes equivalent to the given class expression.
+     *
+     * @param classExpression Class expression
+     * @return Equivalent classes, including the class expression itself if it is a named class
+     */
+    @SuppressWarnings("unchecked")
+    public Node<OWLClass> getEquivalentClasses(OWLClassExpression classExpression) {
+        return (Node<OWLClass>) get(new Query(QueryType.EQUIVALENT_CLASSES, classExpression, false));
+    }
+
+    /**
+     * Returns the classes of the given individual.
+     *
+     * @param individual Named individual
+     * @param direct True returns only the direct classes
+     * @return Classes of the individual
+     */
+    @SuppressWarnings("unchecked")
+    public NodeSet<OWLClass> getTypes(OWLNamedIndividual individual, boolean direct) {
+        return (NodeSet<OWLClass>) get(new Query(QueryType.TYPES, individual, direct));
+    }
+
+    /**
+     * Returns the node of the classes equivalent to owl:Thing.
+     *
+     * @return Top class node
+     */
+    @SuppressWarnings("unchecked")
+    public Node<OWLClass> getTopClassNode() {
+        return (Node<OWLClass>) get(new Query(QueryType.TOP_CLASS_NODE, null, false));
+    }
+
+    /**
+     * Discards all the cached results, which are not queried again once the indexes have been built. The
+     * statistics of the cache are kept.
+     */
+    public void invalidate() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Returns the statistics of the cache.
+     *
+     * @return Hits, misses and evictions of the cache
+     */
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    private Object get(Query query) {
+        try {
+            return cache.getUnchecked(query);
+        } catch (UncheckedExecutionException | ExecutionError e) {
+            // Raises the exception of the reasoner, so that callers can handle it as if it was not cached
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static int weigh(Query query, Object result) {
+        if (result instanceof NodeSet) {
+            int weight = 1;
+            for (Node<?> node : ((NodeSet<?>) result).getNodes()) {
+                weight += node.getSize();
+            }
+            return weight;
+        }
+        if (result instanceof Node) {
+            return 1 + ((Node<?>) result).getSize();
+        }
+
+        return 1;
+    }
+
+    private enum QueryType {
+        INSTANCES, SUPER_CLASSES, SUB_CLASSES, EQUIVALENT_CLASSES, TYPES, TOP_CLASS_NODE
+    }
+
+    /**
+     * Class which represents a query of the reasoner, used as key of the cache.
+     */
+    private static final class Query {
+        private final QueryType type;
+        private final OWLObject argument;
+        private final boolean direct;
+
+        Query(QueryType type, OWLObject argument, boolean direct) {
+            this.type = type;
+            this.argument = argument;
+            this.direct = direct;
+        }
+
+        Object execute(Classifier classifier) {
+            switch (type) {
+                case INSTANCES:
+                    return classifier.getInstances((OWLClassExpression) argument, direct);
+                case SUPER_CLASSES:
+                    return classifier.getSuperClasses((OWLClassExpression) argument, direct);
+                case SUB_CLASSES:
+                    return classifier.getSubClasses((OWLClassExpression) argument, direct);
+                case EQUIVALENT_CLASSES:
+                    return classifier.getEquivalentClasses((OWLClassExpression) argument);
+                case TYPES:
+                    return classifier.getTypes((OWLNamedIndividual) argument, direct);
+                case TOP_CLASS_NODE:
+                    return classifier.getTopClassNode();
+                default:
+                    throw new IllegalStateException("Unknown query type: " + type);
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Query)) {
+                return false;
+            }
+            Query query = (Query) o;
+            return type == query.type && direct == query.direct && Objects.equals(argument, query.argument);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, argument, direct);
+        }
+    }
+}
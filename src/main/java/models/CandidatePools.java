@@ -0,0 +1,71 @@
+package models;
+
+/**
+ * Class which represents the precomputed candidate entities used to corrupt each individual.
+ * <p>
+ * Candidates are stored as pools of dense individual identifiers. Individuals which share the same
+ * candidates refer to the same pool, so that the number of pools only depends on the number of
+ * distinct candidate sets.
+ */
+public class CandidatePools {
+    /**
+     * Pool index of the individuals which do not have any candidate pool.
+     */
+    public static final int NO_POOL = -1;
+
+    private final int[][] pools;
+    private final int[] individualsPools;
+
+    /**
+     * Constructor which receives the distinct pools and the pool associated to each individual.
+     *
+     * @param pools Distinct pools of individual identifiers
+     * @param individualsPools Pool index of each individual, NO_POOL if the individual does not have a pool
+     */
+    public CandidatePools(int[][] pools, int[] individualsPools) {
+        this.pools = pools;
+        this.individualsPools = individualsPools;
+    }
+
+    /**
+     * Returns the candidate pool of the given individual.
+     *
+     * @param individualId Identifier of the individual
+     * @return Identifiers of the candidate individuals, null if the individual does not have a pool
+     */
+    public int[] getPool(int individualId) {
+        int poolIndex = individualsPools[individualId];
+        return (poolIndex == NO_POOL) ? null : pools[poolIndex];
+    }
+
+    /**
+     * Returns the number of distinct pools.
+     *
+     * @return Number of pools
+     */
+    public int getNumPools() {
+        return pools.length;
+    }
+
+    /**
+     * Returns the approximate number of bytes used by the pools.
+     *
+     * @return Size in bytes of the pools
+     */
+    public long getFootprint() {
+        long footprint = 4L * individualsPools.length;
+        for (int[] pool : pools) {
+            footprint += 16 + 4L * pool.length;
+        }
+
+        return footprint;
+    }
+
+    int[][] getPools() {
+        return pools;
+    }
+
+    int[] getIndividualsPools() {
+        return individualsPools;
+    }
+}
@@ -0,0 +1,141 @@
+package models;
+
+import org.semanticweb.owlapi.model.OWLClass;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Class which represents the classified hierarchy of the named classes of an ontology.
+ * <p>
+ * Classes have dense integer identifiers, following the IRI order, and the superclasses of each class are
+ * stored as a bitset of identifiers, so that the hierarchy can be read by several threads without querying
+ * the reasoner.
+ */
+public class ClassHierarchy {
+    private final OWLClass[] classes;
+    private final Map<OWLClass, Integer> classesIds;
+    private final BitSet[] superClasses;
+
+    /**
+     * Constructor which receives the classes and their superclasses.
+     *
+     * @param classes Classes, indexed by class identifier
+     * @param classesIds Identifier of each class
+     * @param superClasses Identifiers of the superclasses of each class, excluding the class itself
+     */
+    public ClassHierarchy(OWLClass[] classes, Map<OWLClass, Integer> classesIds, BitSet[] superClasses) {
+        this.classes = classes;
+        this.classesIds = classesIds;
+        this.superClasses = superClasses;
+    }
+
+    /**
+     * Assigns the identifiers of the given classes.
+     *
+     * @param classes Classes, indexed by class identifier
+     * @return Identifier of each class
+     */
+    public static Map<OWLClass, Integer> buildClassesIds(OWLClass[] classes) {
+        Map<OWLClass, Integer> classesIds = new HashMap<>();
+        for (int c = 0; c < classes.length; c++) {
+            classesIds.put(classes[c], c);
+        }
+
+        return classesIds;
+    }
+
+    /**
+     * Returns the number of classes.
+     *
+     * @return Number of classes
+     */
+    public int getNumClasses() {
+        return classes.length;
+    }
+
+    /**
+     * Returns the class having the given identifier.
+     *
+     * @param classId Identifier of the class
+     * @return Class of the ontology
+     */
+    public OWLClass getOWLClass(int classId) {
+        return classes[classId];
+    }
+
+    /**
+     * Returns the identifier of the given class.
+     *
+     * @param owlClass Class of the ontology
+     * @return Identifier of the class, null if the class is unknown
+     */
+    public Integer getClassId(OWLClass owlClass) {
+        return classesIds.get(owlClass);
+    }
+
+    /**
+     * Returns the superclasses of the given class. The bitset is shared and must not be modified.
+     *
+     * @param classId Identifier of the class
+     * @return Identifiers of the superclasses, excluding the class itself
+     */
+    public BitSet getSuperClasses(int classId) {
+        return superClasses[classId];
+    }
+
+    /**
+     * Returns the classes which are neither the given class nor one of its superclasses.
+     *
+     * @param classId Identifier of the class
+     * @return Identifiers of the classes
+     */
+    public BitSet getNotSuperClasses(int classId) {
+        BitSet notSuperClasses = new BitSet(classes.length);
+        notSuperClasses.set(0, classes.length);
+        notSuperClasses.andNot(superClasses[classId]);
+        notSuperClasses.clear(classId);
+
+        return notSuperClasses;
+    }
+
+    /**
+     * Returns the most specific classes among the given ones, the ones which are not a superclass of any
+     * other given class.
+     *
+     * @param classIds Identifiers of the classes
+     * @return Identifiers of the most specific classes, in the order of the given ones
+     */
+    public int[] getMostSpecificClasses(int[] classIds) {
+        BitSet excludedClasses = new BitSet(classes.length);
+        for (int classId : classIds) {
+            excludedClasses.or(superClasses[classId]);
+        }
+
+        int numClasses = 0;
+        int[] mostSpecificClasses = new int[classIds.length];
+        for (int classId : classIds) {
+            if (!excludedClasses.get(classId)) {
+                mostSpecificClasses[numClasses++] = classId;
+            }
+        }
+
+        return Arrays.copyOf(mostSpecificClasses, numClasses);
+    }
+
+    /**
+     * Returns the number of bytes used by the superclasses bitsets.
+     *
+     * @return Approximate footprint in bytes
+     */
+    public long getFootprint() {
+        long footprint = 48L * classes.length;
+        for (BitSet classSuperClasses : superClasses) {
+            footprint += 16 + classSuperClasses.size() / 8;
+        }
+
+        return footprint;
+    }
+}
@@ -0,0 +1,15 @@
+package models;
+
+/**
+ * Identifiers of the index implementations of the classes of the individuals used by TripleCorrupter.
+ */
+public enum ClassIndexType {
+    /**
+     * Hash multimaps between OWLAPI individuals and classes.
+     */
+    MULTIMAP,
+    /**
+     * Compressed bitmaps of dense individual identifiers for each class (see {@link ClassMembership}).
+     */
+    BITMAP
+}
@@ -0,0 +1,112 @@
+package models;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Class which represents the classes of the individuals as compressed bitmaps.
+ * <p>
+ * Classes, numbered as in {@link ClassHierarchy}, and individuals have dense integer identifiers. The extension of each class is a Roaring bitmap of
+ * individual identifiers, so that unions and differences of classes are computed directly on the compressed
+ * bitmaps, and the classes of each individual are packed in a single array of class identifiers.
+ */
+public class ClassMembership {
+    private final RoaringBitmap[] extensions;
+    private final int[] individualsOffsets;
+    private final int[] individualsClasses;
+
+    /**
+     * Constructor which receives the extensions of the classes.
+     *
+     * @param extensions Identifiers of the individuals of each class, indexed by class identifier
+     * @param numIndividuals Number of individuals
+     */
+    public ClassMembership(RoaringBitmap[] extensions, int numIndividuals) {
+        this.extensions = extensions;
+
+        this.individualsOffsets = new int[numIndividuals + 1];
+        for (RoaringBitmap extension : extensions) {
+            for (int i : extension.toArray()) {
+                individualsOffsets[i + 1]++;
+            }
+        }
+        for (int i = 0; i < numIndividuals; i++) {
+            individualsOffsets[i + 1] += individualsOffsets[i];
+        }
+
+        this.individualsClasses = new int[individualsOffsets[numIndividuals]];
+        int[] positions = Arrays.copyOf(individualsOffsets, numIndividuals);
+        for (int c = 0; c < extensions.length; c++) {
+            for (int i : extensions[c].toArray()) {
+                individualsClasses[positions[i]++] = c;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of classes.
+     *
+     * @return Number of classes
+     */
+    public int getNumClasses() {
+        return extensions.length;
+    }
+
+    /**
+     * Returns the individuals of the given class. The bitmap is shared and must not be modified.
+     *
+     * @param classId Identifier of the class
+     * @return Identifiers of the individuals of the class
+     */
+    public RoaringBitmap getExtension(int classId) {
+        return extensions[classId];
+    }
+
+    /**
+     * Returns the classes of the given individual.
+     *
+     * @param individualId Identifier of the individual
+     * @return Identifiers of the classes of the individual, in increasing order
+     */
+    public int[] getClasses(int individualId) {
+        return Arrays.copyOfRange(individualsClasses, individualsOffsets[individualId],
+                individualsOffsets[individualId + 1]);
+    }
+
+    /**
+     * Computes the individuals belonging to at least one of the classes which are not in the given set.
+     *
+     * @param excludedClasses Identifiers of the excluded classes
+     * @return Identifiers of the individuals
+     */
+    public RoaringBitmap unionExcept(BitSet excludedClasses) {
+        List<RoaringBitmap> includedExtensions = new ArrayList<>();
+        for (int c = 0; c < extensions.length; c++) {
+            if (!excludedClasses.get(c)) {
+                includedExtensions.add(extensions[c]);
+            }
+        }
+
+        return (!includedExtensions.isEmpty()) ?
+                FastAggregation.or(includedExtensions.toArray(new RoaringBitmap[0])) : new RoaringBitmap();
+    }
+
+    /**
+     * Returns the number of bytes used by the bitmaps and the packed classes of the individuals.
+     *
+     * @return Size in bytes of the index
+     */
+    public long getFootprint() {
+        long footprint = 4L * (individualsOffsets.length + individualsClasses.length);
+        for (RoaringBitmap extension : extensions) {
+            footprint += extension.getSizeInBytes();
+        }
+
+        return footprint;
+    }
+}
@@ -0,0 +1,66 @@
+package models;
+
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.reasoner.Node;
+import org.semanticweb.owlapi.reasoner.NodeSet;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+
+/**
+ * Interface of the hierarchy and instance queries answered by the classifier of an ontology, with the same
+ * semantics as the corresponding methods of OWLReasoner.
+ */
+public interface Classifier {
+    NodeSet<OWLNamedIndividual> getInstances(OWLClassExpression classExpression, boolean direct);
+
+    NodeSet<OWLClass> getSuperClasses(OWLClassExpression classExpression, boolean direct);
+
+    NodeSet<OWLClass> getSubClasses(OWLClassExpression classExpression, boolean direct);
+
+    Node<OWLClass> getEquivalentClasses(OWLClassExpression classExpression);
+
+    NodeSet<OWLClass> getTypes(OWLNamedIndividual individual, boolean direct);
+
+    Node<OWLClass> getTopClassNode();
+
+    /**
+     * Returns a classifier which forwards the queries to the given reasoner.
+     *
+     * @param reasoner Reasoner answering the queries
+     * @return Classifier backed by the reasoner
+     */
+    static Classifier of(OWLReasoner reasoner) {
+        return new Classifier() {
+            @Override
+            public NodeSet<OWLNamedIndividual> getInstances(OWLClassExpression classExpression, boolean direct) {
+                return reasoner.getInstances(classExpression, direct);
+            }
+
+            @Override
+            public NodeSet<OWLClass> getSuperClasses(OWLClassExpression classExpression, boolean direct) {
+                return reasoner.getSuperClasses(classExpression, direct);
+            }
+
+            @Override
+            public NodeSet<OWLClass> getSubClasses(OWLClassExpression classExpression, boolean direct) {
+                return reasoner.getSubClasses(classExpression, direct);
+            }
+
+            @Override
+            public Node<OWLClass> getEquivalentClasses(OWLClassExpression classExpression) {
+                return reasoner.getEquivalentClasses(classExpression);
+            }
+
+            @Override
+            public NodeSet<OWLClass> getTypes(OWLNamedIndividual individual, boolean direct) {
+                return reasoner.getTypes(individual, direct);
+            }
+
+            @Override
+            public Node<OWLClass> getTopClassNode() {
+                return reasoner.getTopClassNode();
+            }
+        };
+    }
+}
@@ -0,0 +1,17 @@
+package models;
+
+/**
+ * Identifiers of the classifiers which compute the class hierarchy and the instances of the classes used by
+ * TripleCorrupter.
+ */
+public enum ClassifierType {
+    /**
+     * JFact tableau reasoner.
+     */
+    JFACT,
+    /**
+     * Transitive closure of the told axioms when the ontology is a plain class hierarchy, JFact otherwise
+     * (see {@link StructuralClassifier}).
+     */
+    STRUCTURAL
+}
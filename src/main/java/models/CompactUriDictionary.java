@@ -0,0 +1,299 @@
+package models;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Class which represents a memory efficient dictionary for contiguous integer identifiers.
+ * <p>
+ * The UTF-8 bytes of all the URIs are concatenated in a single buffer, ordered by identifier, so that
+ * the identifier to URI mapping only requires an array of offsets. The URI to identifier mapping is an
+ * open addressing hash table of primitive integers which refers to the same buffer. The buffer can be
+ * allocated either on the heap or off-heap.
+ */
+public class CompactUriDictionary implements UriDictionary {
+    private static final int EMPTY_SLOT = 0;
+    private static final double MAX_LOAD_FACTOR = 0.7;
+
+    private final ByteBuffer uriBytes;
+    private final int[] offsets;
+    private final int[] slots;
+    private final int size;
+
+    /**
+     * Constructor which receives the internal structures of the dictionary.
+     *
+     * @param uriBytes UTF-8 bytes of the URIs ordered by identifier
+     * @param offsets Offset of the URI of each identifier, the last element is the end of the buffer
+     * @param slots Hash table of identifiers incremented by one, zero marks an empty slot
+     * @param size Number of mappings
+     */
+    CompactUriDictionary(ByteBuffer uriBytes, int[] offsets, int[] slots, int size) {
+        this.uriBytes = uriBytes;
+        this.offsets = offsets;
+        this.slots = slots;
+        this.size = size;
+    }
+
+    @Override
+    public long getId(String uri) {
+        if (uri == null) {
+            return NOT_FOUND;
+        }
+
+        byte[] encodedURI = isASCII(uri) ? null : uri.getBytes(StandardCharsets.UTF_8);
+        int mask = slots.length - 1;
+        for (int slot = hash(uri) & mask; slots[slot] != EMPTY_SLOT; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+            if ((encodedURI == null) ? equalsASCII(id, uri) : equalsBytes(id, encodedURI)) {
+                return id;
+            }
+        }
+
+        return NOT_FOUND;
+    }
+
+    @Override
+    public String getURI(long id) {
+        if (id < 0 || id >= offsets.length - 1 || offsets[(int) id] == offsets[(int) id + 1]) {
+            return null;
+        }
+
+        int start = offsets[(int) id], length = offsets[(int) id + 1] - start;
+        if (uriBytes.hasArray()) {
+            return new String(uriBytes.array(), uriBytes.arrayOffset() + start, length, StandardCharsets.UTF_8);
+        }
+
+        byte[] bytes = new byte[length];
+        ByteBuffer view = uriBytes.duplicate();
+        view.position(start);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void forEach(ObjLongConsumer<String> action) {
+        for (int id = 0; id < offsets.length - 1; id++) {
+            if (offsets[id] != offsets[id + 1]) {
+                action.accept(getURI(id), id);
+            }
+        }
+    }
+
+    @Override
+    public long getFootprint() {
+        return uriBytes.capacity() + 4L * offsets.length + 4L * slots.length;
+    }
+
+    /**
+     * Creates a compact copy of the given dictionary.
+     *
+     * @param dictionary Dictionary to be copied
+     * @return The dictionary itself if it is already compact, a compact copy otherwise
+     */
+    static CompactUriDictionary copyOf(UriDictionary dictionary) {
+        if (dictionary instanceof CompactUriDictionary) {
+            return (CompactUriDictionary) dictionary;
+        }
+
+        Builder builder = new Builder(false);
+        dictionary.forEach(builder::add);
+        return (CompactUriDictionary) builder.build();
+    }
+
+    ByteBuffer getURIBytes() {
+        return uriBytes;
+    }
+
+    int[] getOffsets() {
+        return offsets;
+    }
+
+    int[] getSlots() {
+        return slots;
+    }
+
+    /**
+     * Compares the URI of the given identifier with a URI made of ASCII characters.
+     * URIs usually share long prefixes, so they are compared starting from the end.
+     *
+     * @param id Identifier of the stored URI
+     * @param uri ASCII URI to be compared
+     * @return True if the URIs are equal, False otherwise
+     */
+    private boolean equalsASCII(int id, String uri) {
+        int start = offsets[id];
+        if (offsets[id + 1] - start != uri.length()) {
+            return false;
+        }
+
+        for (int i = uri.length() - 1; i >= 0; i--) {
+            if (uriBytes.get(start + i) != uri.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Compares the URI of the given identifier with an encoded URI.
+     *
+     * @param id Identifier of the stored URI
+     * @param encodedURI UTF-8 bytes of the URI to be compared
+     * @return True if the URIs are equal, False otherwise
+     */
+    private boolean equalsBytes(int id, byte[] encodedURI) {
+        int start = offsets[id];
+        if (offsets[id + 1] - start != encodedURI.length) {
+            return false;
+        }
+
+        for (int i = encodedURI.length - 1; i >= 0; i--) {
+            if (uriBytes.get(start + i) != encodedURI[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Inserts the URI of the given identifier into the hash table.
+     *
+     * @param id Identifier whose URI has to be inserted
+     * @throws IllegalArgumentException Exception raised if the URI has already been inserted with another identifier
+     */
+    private void insert(int id) {
+        String uri = getURI(id);
+        if (getId(uri) != NOT_FOUND) {
+            throw new IllegalArgumentException("Duplicate URI: " + uri);
+        }
+
+        int mask = slots.length - 1;
+        int slot = hash(uri) & mask;
+        while (slots[slot] != EMPTY_SLOT) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = id + 1;
+    }
+
+    private static boolean isASCII(String uri) {
+        for (int i = 0; i < uri.length(); i++) {
+            if (uri.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Spreads the bits of the String hash code, since slots are selected using its lowest bits.
+     *
+     * @param uri URI to be hashed
+     * @return Hash of the URI
+     */
+    static int hash(String uri) {
+        int h = uri.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Class which represents a builder of CompactUriDictionary objects.
+     */
+    static class Builder implements UriDictionary.Builder {
+        private final boolean offHeap;
+        private byte[] entriesBytes = new byte[1 << 16];
+        private int entriesBytesSize;
+        private int[] entriesOffsets = new int[1 << 10];
+        private long[] entriesIds = new long[1 << 10];
+        private int numEntries;
+        private long maxId = -1;
+
+        /**
+         * Constructor which receives where the URI bytes have to be allocated.
+         *
+         * @param offHeap True allocates URI bytes off-heap, False allocates them on the heap
+         */
+        Builder(boolean offHeap) {
+            this.offHeap = offHeap;
+        }
+
+        @Override
+        public void add(String uri, long id) {
+            if (id < 0 || id >= Integer.MAX_VALUE - 1) {
+                throw new IllegalArgumentException("Invalid identifier for a compact dictionary: " + id);
+            }
+
+            byte[] bytes = uri.getBytes(StandardCharsets.UTF_8);
+            if ((long) entriesBytesSize + bytes.length > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("URIs are too large for a compact dictionary!");
+            }
+            if (entriesBytesSize + bytes.length > entriesBytes.length) {
+                entriesBytes = Arrays.copyOf(entriesBytes, (int) Math.min(Integer.MAX_VALUE - 8,
+                        Math.max(2L * entriesBytes.length, entriesBytesSize + bytes.length)));
+            }
+            if (numEntries + 1 >= entriesOffsets.length) {
+                entriesOffsets = Arrays.copyOf(entriesOffsets, 2 * entriesOffsets.length);
+                entriesIds = Arrays.copyOf(entriesIds, 2 * entriesIds.length);
+            }
+
+            System.arraycopy(bytes, 0, entriesBytes, entriesBytesSize, bytes.length);
+            entriesOffsets[numEntries] = entriesBytesSize;
+            entriesIds[numEntries] = id;
+            entriesBytesSize += bytes.length;
+            entriesOffsets[++numEntries] = entriesBytesSize;
+            maxId = Math.max(maxId, id);
+        }
+
+        @Override
+        public UriDictionary build() {
+            int[] idsEntries = new int[(int) maxId + 1];
+            Arrays.fill(idsEntries, -1);
+            for (int entry = 0; entry < numEntries; entry++) {
+                if (idsEntries[(int) entriesIds[entry]] != -1) {
+                    throw new IllegalArgumentException("Duplicate identifier: " + entriesIds[entry]);
+                }
+                idsEntries[(int) entriesIds[entry]] = entry;
+            }
+
+            int[] offsets = new int[idsEntries.length + 1];
+            int totalBytes = 0, size = 0;
+            for (int id = 0; id < idsEntries.length; id++) {
+                offsets[id] = totalBytes;
+                if (idsEntries[id] != -1) {
+                    totalBytes += entriesOffsets[idsEntries[id] + 1] - entriesOffsets[idsEntries[id]];
+                    size++;
+                }
+            }
+            offsets[idsEntries.length] = totalBytes;
+
+            ByteBuffer uriBytes = offHeap ? ByteBuffer.allocateDirect(totalBytes) : ByteBuffer.allocate(totalBytes);
+            for (int id = 0; id < idsEntries.length; id++) {
+                if (idsEntries[id] != -1) {
+                    int entry = idsEntries[id];
+                    uriBytes.put(entriesBytes, entriesOffsets[entry],
+                            entriesOffsets[entry + 1] - entriesOffsets[entry]);
+                }
+            }
+            entriesBytes = null;
+
+            int capacity = Integer.highestOneBit((int) Math.max(2, Math.ceil(size / MAX_LOAD_FACTOR)) - 1) << 1;
+            int[] slots = new int[capacity];
+            CompactUriDictionary dictionary = new CompactUriDictionary(uriBytes, offsets, slots, size);
+            for (int entry = 0; entry < numEntries; entry++) {
+                dictionary.insert((int) entriesIds[entry]);
+            }
+
+            return dictionary;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package models;
+
+import controllers.data.Triple;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class which represents the corrupted triples generated from an input triple, as integer identifiers.
+ * <p>
+ * Identifiers which cannot be found in the indexer are represented by {@link UriDictionary#NOT_FOUND}.
+ */
+public class CorruptedTriples {
+    private final long[] ids;
+    private final boolean[] corruptedSubjects;
+
+    /**
+     * Constructor which receives the number of corrupted triples.
+     *
+     * @param size Number of corrupted triples
+     */
+    public CorruptedTriples(int size) {
+        this.ids = new long[3 * size];
+        this.corruptedSubjects = new boolean[size];
+    }
+
+    /**
+     * Sets the corrupted triple at the given position.
+     *
+     * @param index Position of the corrupted triple
+     * @param subject Identifier of the subject
+     * @param predicate Identifier of the predicate
+     * @param object Identifier of the object
+     * @param corruptedSubject True if the subject has been replaced, False if the object has been replaced
+     */
+    void set(int index, long subject, long predicate, long object, boolean corruptedSubject) {
+        ids[3 * index] = subject;
+        ids[3 * index + 1] = predicate;
+        ids[3 * index + 2] = object;
+        corruptedSubjects[index] = corruptedSubject;
+    }
+
+    public int size() {
+        return corruptedSubjects.length;
+    }
+
+    public long getSubject(int index) {
+        return ids[3 * index];
+    }
+
+    public long getPredicate(int index) {
+        return ids[3 * index + 1];
+    }
+
+    public long getObject(int index) {
+        return ids[3 * index + 2];
+    }
+
+    /**
+     * Returns whether the subject of the corrupted triple at the given position has been replaced.
+     *
+     * @param index Position of the corrupted triple
+     * @return True if the subject has been replaced, False if the object has been replaced
+     */
+    public boolean isSubjectCorrupted(int index) {
+        return corruptedSubjects[index];
+    }
+
+    /**
+     * Returns the identifier of the entity which replaced the subject or the object.
+     *
+     * @param index Position of the corrupted triple
+     * @return Identifier of the replacement entity
+     */
+    public long getReplacement(int index) {
+        return corruptedSubjects[index] ? getSubject(index) : getObject(index);
+    }
+
+    /**
+     * Converts the corrupted triples to Triple objects whose parts are identifiers encoded as strings.
+     *
+     * @return List of corrupted triples
+     */
+    public List<Triple> toTriples() {
+        List<Triple> triples = new ArrayList<>(size());
+        for (int i = 0; i < size(); i++) {
+            Triple t_id = new Triple();
+            t_id.subject = idToString(getSubject(i));
+            t_id.predicate = idToString(getPredicate(i));
+            t_id.object = idToString(getObject(i));
+            triples.add(t_id);
+        }
+
+        return triples;
+    }
+
+    /**
+     * Converts an identifier returned by a dictionary to its textual representation.
+     *
+     * @param id Integer identifier
+     * @return Identifier as string, "null" if the identifier was not found
+     */
+    private static String idToString(long id) {
+        return (id == UriDictionary.NOT_FOUND) ? "null" : String.valueOf(id);
+    }
+}
@@ -0,0 +1,98 @@
+package models;
+
+import com.google.common.cache.CacheStats;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Class which represents the counters of the events of a TripleCorrupter.
+ * <p>
+ * Counters are LongAdder objects, so that concurrent corruptions do not contend on the same memory location.
+ */
+public class CorrupterMetrics {
+    private final LongAdder randomFallbacks = new LongAdder();
+    private final LongAdder reasonerErrors = new LongAdder();
+    private final LongAdder unknownIds = new LongAdder();
+    private final LongAdder exhaustedRetries = new LongAdder();
+    private final StartupPhases startupPhases;
+    private CachingReasoner reasoner;
+
+    /**
+     * Constructor which receives the object recording the startup phases of the triple corrupter.
+     *
+     * @param startupPhases Startup phases of the triple corrupter
+     */
+    public CorrupterMetrics(StartupPhases startupPhases) {
+        this.startupPhases = startupPhases;
+    }
+
+    void incrementRandomFallbacks() {
+        randomFallbacks.increment();
+    }
+
+    void incrementReasonerErrors() {
+        reasonerErrors.increment();
+    }
+
+    void addUnknownIds(long numUnknownIds) {
+        unknownIds.add(numUnknownIds);
+    }
+
+    void incrementExhaustedRetries() {
+        exhaustedRetries.increment();
+    }
+
+    void setReasoner(CachingReasoner reasoner) {
+        this.reasoner = reasoner;
+    }
+
+    /**
+     * Returns the number of corrupted triples generated by random sampling, because the corrupted entity
+     * does not have any candidate.
+     *
+     * @return Number of random fallbacks
+     */
+    public long getRandomFallbacks() {
+        return randomFallbacks.sum();
+    }
+
+    /**
+     * Returns the number of reasoner queries which raised an exception.
+     *
+     * @return Number of reasoner errors
+     */
+    public long getReasonerErrors() {
+        return reasonerErrors.sum();
+    }
+
+    /**
+     * Returns the number of identifiers and URIs which were not found in the indexer while corrupting triples.
+     *
+     * @return Number of unknown identifiers
+     */
+    public long getUnknownIds() {
+        return unknownIds.sum();
+    }
+
+    /**
+     * Returns the number of corrupted triples which are known triples because all their retries failed.
+     *
+     * @return Number of exhausted retries
+     */
+    public long getExhaustedRetries() {
+        return exhaustedRetries.sum();
+    }
+
+    /**
+     * Returns the statistics of the cache of the reasoner queries.
+     *
+     * @return Statistics of the reasoner cache, null if the triple corrupter does not use a reasoner
+     */
+    public CacheStats getReasonerCacheStats() {
+        return (reasoner != null) ? reasoner.getStats() : null;
+    }
+
+    public StartupPhases getStartupPhases() {
+        return startupPhases;
+    }
+}
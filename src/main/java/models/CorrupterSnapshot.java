@@ -0,0 +1,489 @@
+package models;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Logger;
+
+/**
+ * Class which represents a binary snapshot of the precomputed state of a TripleCorrupter and a TripleIndexer.
+ * <p>
+ * The snapshot contains the entity, relation and individual dictionaries together with the candidate pools
+ * of the corrupter, which embed the type, disjointness and similarity tables they are derived from, and the
+ * entity identifiers of the individuals. Restoring it does not require parsing the ontology nor running the
+ * reasoner, nor decoding the URIs: URI bytes are memory-mapped from the file, while integer arrays are
+ * bulk-copied from it.
+ * <p>
+ * The file starts with a versioned header which records the corrupter type together with size and last
+ * modification time of the ontology and mapping files, and of the ABox file if the class assertions are
+ * streamed from one, and the options the candidate pools depend on: class index, similarity sampling and
+ * similarity weight exponent. The snapshot is stale, and therefore ignored, as soon as one of them changes.
+ * The WEIGHTED similarity sampling, whose alias tables are not stored, cannot be snapshotted.
+ */
+public class CorrupterSnapshot {
+    private static final long MAGIC = 0x4245524C55534341L;
+    private static final int VERSION = 3;
+    private static final int NUM_SECTIONS = 5;
+    private static final int INDIVIDUALS_SECTION = 0;
+    private static final int POOLS_SECTION = 1;
+    private static final int ENTITIES_SECTION = 2;
+    private static final int RELATIONS_SECTION = 3;
+    private static final int ENTITY_IDS_SECTION = 4;
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final File snapshotFile;
+    private final TripleCorrupterType corrupterType;
+    private final File[] sourceFiles;
+    private final ClassIndexType classIndex;
+    private final SimilaritySampling similaritySampling;
+    private final double similarityWeightExponent;
+    private final int headerSize;
+
+    private final Logger logger = Logger.getLogger(CorrupterSnapshot.class.getName());
+
+    /**
+     * Constructor which receives the snapshot file and the source files it is compiled from, with the default
+     * options of the triple corrupters.
+     *
+     * @param snapshotFile        Snapshot file
+     * @param ontologyFile        Ontology file
+     * @param corrupterType       Identifier of the triple corrupter
+     * @param entityMappingFile   Entity mapping file
+     * @param relationMappingFile Relation mapping file
+     */
+    public CorrupterSnapshot(File snapshotFile, File ontologyFile, TripleCorrupterType corrupterType,
+                             File entityMappingFile, File relationMappingFile) {
+        this(snapshotFile, ontologyFile, corrupterType, entityMappingFile, relationMappingFile,
+                new TripleCorrupterOptions());
+    }
+
+    /**
+     * Constructor which receives the snapshot file, the source files it is compiled from, including the ABox
+     * file of the options whose class assertions are streamed, and the options of the triple corrupter.
+     *
+     * @param snapshotFile        Snapshot file
+     * @param ontologyFile        Ontology file
+     * @param corrupterType       Identifier of the triple corrupter
+     * @param entityMappingFile   Entity mapping file
+     * @param relationMappingFile Relation mapping file
+     * @param options             Options of the triple corrupter
+     */
+    public CorrupterSnapshot(File snapshotFile, File ontologyFile, TripleCorrupterType corrupterType,
+                             File entityMappingFile, File relationMappingFile, TripleCorrupterOptions options) {
+        File aboxFile = options.getAboxFile();
+        this.snapshotFile = snapshotFile;
+        this.corrupterType = corrupterType;
+        this.sourceFiles = (aboxFile != null) ?
+                new File[]{ontologyFile, entityMappingFile, relationMappingFile, aboxFile} :
+                new File[]{ontologyFile, entityMappingFile, relationMappingFile};
+        this.classIndex = options.getClassIndex();
+        this.similaritySampling = options.getSimilaritySampling();
+        this.similarityWeightExponent = options.getSimilarityWeightExponent();
+        this.headerSize = 8 + 4 + 4 + 4 + sourceFiles.length * 16 + 4 + 4 + 8 + 4 + NUM_SECTIONS * 16;
+    }
+
+    /**
+     * Checks whether the snapshot exists and has been compiled from the current version of the source files.
+     *
+     * @return True if the snapshot can be restored, False otherwise
+     */
+    public boolean isValid() {
+        if (!snapshotFile.isFile()) {
+            return false;
+        }
+        if (!isSupported()) {
+            logger.warning("-- Snapshot " + snapshotFile.getAbsolutePath() + " ignored: the WEIGHTED similarity " +
+                    "sampling cannot be snapshotted, the triple corrupter is built from the ontology");
+            return false;
+        }
+
+        try (FileChannel channel = FileChannel.open(snapshotFile.toPath(), StandardOpenOption.READ)) {
+            readHeader(channel);
+            return true;
+        } catch (IOException e) {
+            logger.warning("-- Snapshot " + snapshotFile.getAbsolutePath() + " cannot be used, the triple " +
+                    "corrupter is built from the ontology: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Checks whether the candidate pools contain the whole state of the triple corrupter, which is not the
+     * case of the alias tables of the WEIGHTED similarity sampling.
+     *
+     * @return True if the triple corrupter can be snapshotted, False otherwise
+     */
+    private boolean isSupported() {
+        return corrupterType != TripleCorrupterType.SIMILARITY || similaritySampling != SimilaritySampling.WEIGHTED;
+    }
+
+    /**
+     * Compiles the state of the given corrupter and indexer into the snapshot file.
+     * The snapshot is written to a temporary file which then atomically replaces the previous one.
+     *
+     * @param corrupter Triple corrupter having precomputed candidate pools
+     * @param indexer   Triple indexer
+     * @throws IOException Exception raised if the snapshot cannot be written
+     */
+    public void write(TripleCorrupter corrupter, TripleIndexer indexer) throws IOException {
+        if (!isSupported()) {
+            throw new IllegalArgumentException("Snapshots do not support the WEIGHTED similarity sampling!");
+        }
+        if (corrupter.getCandidatePools() == null) {
+            throw new IllegalArgumentException("Snapshots require a triple corrupter with candidate pools!");
+        }
+
+        logger.info("-- Writing snapshot: " + snapshotFile.getAbsolutePath());
+        File temporaryFile = new File(snapshotFile.getAbsoluteFile().getParentFile(), snapshotFile.getName() + ".tmp");
+        long[] sections = new long[2 * NUM_SECTIONS];
+
+        try (FileChannel channel = FileChannel.open(temporaryFile.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            SectionWriter writer = new SectionWriter(channel, headerSize);
+
+            writeSection(writer, sections, INDIVIDUALS_SECTION, () ->
+                    writeDictionary(writer, CompactUriDictionary.copyOf(corrupter.getIndividualsDictionary())));
+            writeSection(writer, sections, POOLS_SECTION, () -> writePools(writer, corrupter.getCandidatePools()));
+            writeSection(writer, sections, ENTITIES_SECTION, () ->
+                    writeDictionary(writer, CompactUriDictionary.copyOf(indexer.getEntities())));
+            writeSection(writer, sections, RELATIONS_SECTION, () ->
+                    writeDictionary(writer, CompactUriDictionary.copyOf(indexer.getRelations())));
+            writeSection(writer, sections, ENTITY_IDS_SECTION, () -> writeEntityIds(writer,
+                    corrupter.getIndividualEntityIds().get(indexer.getEntities()), indexer.getEntities().size()));
+
+            ByteBuffer header = ByteBuffer.allocate(headerSize).order(ByteOrder.LITTLE_ENDIAN);
+            header.putLong(MAGIC).putInt(VERSION).putInt(corrupterType.ordinal()).putInt(sourceFiles.length);
+            for (File sourceFile : sourceFiles) {
+                header.putLong(sourceFile.length()).putLong(sourceFile.lastModified());
+            }
+            header.putInt(classIndex.ordinal()).putInt(similaritySampling.ordinal())
+                    .putDouble(similarityWeightExponent);
+            header.putInt(NUM_SECTIONS);
+            for (long sectionValue : sections) {
+                header.putLong(sectionValue);
+            }
+            header.flip();
+            channel.write(header, 0);
+            channel.force(true);
+        }
+
+        Files.move(temporaryFile.toPath(), snapshotFile.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Restores the triple corrupter stored in the snapshot.
+     *
+     * @return Triple corrupter which samples from the stored candidate pools
+     * @throws IOException Exception raised if the snapshot cannot be read or is stale
+     */
+    public TripleCorrupter readCorrupter() throws IOException {
+        logger.info("-- Loading triple corrupter from snapshot: " + snapshotFile.getAbsolutePath());
+        try (FileChannel channel = FileChannel.open(snapshotFile.toPath(), StandardOpenOption.READ)) {
+            long[] sections = readHeader(channel);
+            UriDictionary individualsDictionary = readDictionary(
+                    new SectionReader(channel, sections[2 * INDIVIDUALS_SECTION]));
+            CandidatePools candidatePools = readPools(new SectionReader(channel, sections[2 * POOLS_SECTION]));
+            IndividualEntityIds individualEntityIds = readEntityIds(
+                    new SectionReader(channel, sections[2 * ENTITY_IDS_SECTION]), individualsDictionary);
+
+            return new SnapshotTripleCorrupter(individualsDictionary, candidatePools, individualEntityIds);
+        }
+    }
+
+    /**
+     * Restores the triple indexer stored in the snapshot.
+     *
+     * @return Triple indexer backed by compact dictionaries
+     * @throws IOException Exception raised if the snapshot cannot be read or is stale
+     */
+    public TripleIndexer readIndexer() throws IOException {
+        logger.info("-- Loading triple indexer from snapshot: " + snapshotFile.getAbsolutePath());
+        try (FileChannel channel = FileChannel.open(snapshotFile.toPath(), StandardOpenOption.READ)) {
+            long[] sections = readHeader(channel);
+            UriDictionary entities = readDictionary(new SectionReader(channel, sections[2 * ENTITIES_SECTION]));
+            UriDictionary relations = readDictionary(new SectionReader(channel, sections[2 * RELATIONS_SECTION]));
+
+            return new TripleIndexer(entities, relations);
+        }
+    }
+
+    /**
+     * Reads and validates the header of the snapshot.
+     *
+     * @param channel Channel of the snapshot file
+     * @return Offset and length of each section
+     * @throws IOException Exception raised if the snapshot is invalid or stale
+     */
+    private long[] readHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(headerSize).order(ByteOrder.LITTLE_ENDIAN);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                throw new EOFException("Truncated snapshot header");
+            }
+        }
+        header.flip();
+
+        if (header.getLong() != MAGIC) {
+            throw new IOException("Not a snapshot file");
+        }
+        if (header.getInt() != VERSION) {
+            throw new IOException("Unsupported snapshot version");
+        }
+        if (header.getInt() != corrupterType.ordinal()) {
+            throw new IOException("Snapshot compiled for a different triple corrupter");
+        }
+        if (header.getInt() != sourceFiles.length) {
+            throw new IOException("Snapshot compiled from different source files");
+        }
+        for (File sourceFile : sourceFiles) {
+            if (header.getLong() != sourceFile.length() || header.getLong() != sourceFile.lastModified()) {
+                throw new IOException("Source file changed: " + sourceFile.getAbsolutePath());
+            }
+        }
+        int snapshotClassIndex = header.getInt(), snapshotSimilaritySampling = header.getInt();
+        double snapshotWeightExponent = header.getDouble();
+        if (snapshotClassIndex != classIndex.ordinal() ||
+                snapshotSimilaritySampling != similaritySampling.ordinal() ||
+                Double.compare(snapshotWeightExponent, similarityWeightExponent) != 0) {
+            throw new IOException("Snapshot compiled with different options than class_index=" + classIndex +
+                    ", similarity_sampling=" + similaritySampling + ", similarity_weight_exponent=" +
+                    similarityWeightExponent);
+        }
+        if (header.getInt() != NUM_SECTIONS) {
+            throw new IOException("Invalid snapshot header");
+        }
+
+        long[] sections = new long[2 * NUM_SECTIONS];
+        for (int i = 0; i < sections.length; i++) {
+            sections[i] = header.getLong();
+        }
+        if (sections[sections.length - 2] + sections[sections.length - 1] > channel.size()) {
+            throw new EOFException("Truncated snapshot");
+        }
+
+        return sections;
+    }
+
+    private static void writeSection(SectionWriter writer, long[] sections, int section, SectionContent content)
+            throws IOException {
+        sections[2 * section] = writer.position();
+        content.write();
+        writer.flush();
+        sections[2 * section + 1] = writer.position() - sections[2 * section];
+    }
+
+    private static void writeDictionary(SectionWriter writer, CompactUriDictionary dictionary) throws IOException {
+        ByteBuffer uriBytes = dictionary.getURIBytes().duplicate();
+        uriBytes.clear();
+
+        writer.putInt(dictionary.size());
+        writer.putInt(dictionary.getOffsets().length);
+        writer.putInt(dictionary.getSlots().length);
+        writer.putInt(uriBytes.remaining());
+        writer.putInts(dictionary.getOffsets());
+        writer.putInts(dictionary.getSlots());
+        writer.putBytes(uriBytes);
+    }
+
+    private static UriDictionary readDictionary(SectionReader reader) throws IOException {
+        int size = reader.getInt();
+        int numOffsets = reader.getInt();
+        int numSlots = reader.getInt();
+        int numBytes = reader.getInt();
+        int[] offsets = reader.getInts(numOffsets);
+        int[] slots = reader.getInts(numSlots);
+        ByteBuffer uriBytes = reader.mapBytes(numBytes);
+
+        return new CompactUriDictionary(uriBytes, offsets, slots, size);
+    }
+
+    private static void writePools(SectionWriter writer, CandidatePools candidatePools) throws IOException {
+        int[][] pools = candidatePools.getPools();
+        int[] individualsPools = candidatePools.getIndividualsPools();
+
+        writer.putInt(individualsPools.length);
+        writer.putInt(pools.length);
+        writer.putInts(individualsPools);
+        for (int[] pool : pools) {
+            writer.putInt(pool.length);
+            writer.putInts(pool);
+        }
+    }
+
+    private static CandidatePools readPools(SectionReader reader) throws IOException {
+        int numIndividuals = reader.getInt();
+        int[][] pools = new int[reader.getInt()][];
+        int[] individualsPools = reader.getInts(numIndividuals);
+        for (int i = 0; i < pools.length; i++) {
+            pools[i] = reader.getInts(reader.getInt());
+        }
+
+        return new CandidatePools(pools, individualsPools);
+    }
+
+    private static void writeEntityIds(SectionWriter writer, long[] entityIds, int numEntities)
+            throws IOException {
+        writer.putInt(numEntities);
+        writer.putInt(entityIds.length);
+        writer.putLongs(entityIds);
+    }
+
+    private static IndividualEntityIds readEntityIds(SectionReader reader, UriDictionary individualsDictionary)
+            throws IOException {
+        int numEntities = reader.getInt();
+        long[] entityIds = reader.getLongs(reader.getInt());
+
+        return new IndividualEntityIds(individualsDictionary, entityIds, numEntities);
+    }
+
+    /**
+     * Interface which represents the content of a section.
+     */
+    private interface SectionContent {
+        void write() throws IOException;
+    }
+
+    /**
+     * Class which represents a buffered little-endian writer of snapshot sections.
+     */
+    private static class SectionWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        private long position;
+
+        SectionWriter(FileChannel channel, long position) {
+            this.channel = channel;
+            this.position = position;
+        }
+
+        long position() {
+            return position + buffer.position();
+        }
+
+        void putInt(int value) throws IOException {
+            ensureRemaining(4);
+            buffer.putInt(value);
+        }
+
+        void putInts(int[] values) throws IOException {
+            int written = 0;
+            while (written < values.length) {
+                ensureRemaining(4);
+                int count = Math.min(values.length - written, buffer.remaining() / 4);
+                buffer.asIntBuffer().put(values, written, count);
+                buffer.position(buffer.position() + 4 * count);
+                written += count;
+            }
+        }
+
+        void putLongs(long[] values) throws IOException {
+            int written = 0;
+            while (written < values.length) {
+                ensureRemaining(8);
+                int count = Math.min(values.length - written, buffer.remaining() / 8);
+                buffer.asLongBuffer().put(values, written, count);
+                buffer.position(buffer.position() + 8 * count);
+                written += count;
+            }
+        }
+
+        void putBytes(ByteBuffer bytes) throws IOException {
+            flush();
+            while (bytes.hasRemaining()) {
+                position += channel.write(bytes, position);
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            buffer.clear();
+        }
+
+        private void ensureRemaining(int size) throws IOException {
+            if (buffer.remaining() < size) {
+                flush();
+            }
+        }
+    }
+
+    /**
+     * Class which represents a buffered little-endian reader of snapshot sections.
+     */
+    private static class SectionReader {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        private long position;
+
+        SectionReader(FileChannel channel, long position) {
+            this.channel = channel;
+            this.position = position;
+            buffer.limit(0);
+        }
+
+        int getInt() throws IOException {
+            ensureAvailable(4);
+            return buffer.getInt();
+        }
+
+        int[] getInts(int count) throws IOException {
+            int[] values = new int[count];
+            int read = 0;
+            while (read < count) {
+                ensureAvailable(4);
+                int available = Math.min(count - read, buffer.remaining() / 4);
+                buffer.asIntBuffer().get(values, read, available);
+                buffer.position(buffer.position() + 4 * available);
+                read += available;
+            }
+
+            return values;
+        }
+
+        long[] getLongs(int count) throws IOException {
+            long[] values = new long[count];
+            int read = 0;
+            while (read < count) {
+                ensureAvailable(8);
+                int available = Math.min(count - read, buffer.remaining() / 8);
+                buffer.asLongBuffer().get(values, read, available);
+                buffer.position(buffer.position() + 8 * available);
+                read += available;
+            }
+
+            return values;
+        }
+
+        ByteBuffer mapBytes(int count) throws IOException {
+            long start = position - buffer.remaining();
+            ByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, start, count);
+            position = start + count;
+            buffer.limit(0);
+
+            return bytes;
+        }
+
+        private void ensureAvailable(int size) throws IOException {
+            if (buffer.remaining() < size) {
+                buffer.compact();
+                while (buffer.position() < size) {
+                    int read = channel.read(buffer, position);
+                    if (read < 0) {
+                        throw new EOFException("Truncated snapshot section");
+                    }
+                    position += read;
+                }
+                buffer.flip();
+            }
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package models;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Class which represents the admission control of the corruption requests.
+ * <p>
+ * Requests are queued in a bounded queue and executed one at a time by each thread of a fixed pool of workers, so
+ * that bursts of requests do not contend for the cores. A request is rejected as soon as it is submitted when
+ * the queue is full, and when it is taken by a worker after waiting longer than the queue timeout, so that the
+ * latency of the admitted requests does not grow with the load. Without workers, requests are executed by the
+ * calling thread and never rejected.
+ */
+public class CorruptionScheduler {
+    private final int numWorkers;
+    private final long queueTimeoutNanos;
+    private final BlockingQueue<Job<?>> queue;
+    private final AtomicInteger busyWorkers = new AtomicInteger();
+    private final LongAdder rejectedRequests = new LongAdder();
+    private final LongAdder expiredRequests = new LongAdder();
+    private final LongAdder executedRequests = new LongAdder();
+    private final LongAdder executionNanos = new LongAdder();
+
+    /**
+     * Constructor which receives the size of the worker pool and the limits of the queue.
+     *
+     * @param numWorkers Number of worker threads, 0 executes the requests on the calling thread
+     * @param queueCapacity Maximum number of queued requests
+     * @param queueTimeoutMillis Maximum time spent by a request in the queue, 0 for no limit
+     */
+    public CorruptionScheduler(int numWorkers, int queueCapacity, long queueTimeoutMillis) {
+        this.numWorkers = numWorkers;
+        this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(queueTimeoutMillis);
+        this.queue = new ArrayBlockingQueue<>(Math.max(queueCapacity, 1));
+
+        for (int i = 0; i < numWorkers; i++) {
+            Thread worker = new Thread(this::work, "berlusca-corruption-" + i);
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    /**
+     * Executes a corruption on a worker thread and waits for its result.
+     *
+     * @param corruption Corruption of the triples of a request
+     * @param <T> Type of the corrupted triples
+     * @return Result of the corruption
+     * @throws RejectedExecutionException Exception raised if the queue is full or the request has waited
+     * longer than the queue timeout
+     */
+    public <T> T execute(Supplier<T> corruption) {
+        if (numWorkers == 0) {
+            return corruption.get();
+        }
+
+        Job<T> job = new Job<>(corruption);
+        if (!queue.offer(job)) {
+            rejectedRequests.increment();
+            throw new RejectedExecutionException("Queue of the corruption requests is full");
+        }
+
+        try {
+            return job.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the corrupted triples", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Checks that a request executing several corruptions, such as a streaming request, can be admitted before
+     * its response is committed, since its later corruptions can only be rejected once the response has started.
+     *
+     * @throws RejectedExecutionException Exception raised if the queue is full
+     */
+    public void admit() {
+        if (numWorkers > 0 && queue.remainingCapacity() == 0) {
+            rejectedRequests.increment();
+            throw new RejectedExecutionException("Queue of the corruption requests is full");
+        }
+    }
+
+    private void work() {
+        while (true) {
+            Job<?> job;
+            try {
+                job = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            if (queueTimeoutNanos > 0 && System.nanoTime() - job.queuedNanos > queueTimeoutNanos) {
+                expiredRequests.increment();
+                job.result.completeExceptionally(new RejectedExecutionException(
+                        "Corruption request has waited longer than the queue timeout"));
+                continue;
+            }
+
+            busyWorkers.incrementAndGet();
+            run(job);
+            busyWorkers.decrementAndGet();
+        }
+    }
+
+    private <T> void run(Job<T> job) {
+        long startNanos = System.nanoTime();
+        try {
+            job.result.complete(job.corruption.get());
+        } catch (RuntimeException | Error e) {
+            job.result.completeExceptionally(e);
+        }
+        executionNanos.add(System.nanoTime() - startNanos);
+        executedRequests.increment();
+    }
+
+    /**
+     * Estimates after how many seconds a rejected request should be retried, the time needed by the workers to
+     * execute the queued requests.
+     *
+     * @return Number of seconds, at least 1
+     */
+    public long getRetryAfterSeconds() {
+        long numExecuted = executedRequests.sum();
+        double requestNanos = (numExecuted > 0) ? (double) executionNanos.sum() / numExecuted : 0;
+        double waitNanos = requestNanos * queue.size() / Math.max(numWorkers, 1);
+
+        return Math.max(1, (long) Math.ceil(waitNanos / 1e9));
+    }
+
+    /**
+     * Returns whether requests are executed by the worker threads.
+     *
+     * @return True if the scheduler has workers, False if requests are executed by the calling thread
+     */
+    public boolean isEnabled() {
+        return numWorkers > 0;
+    }
+
+    public int getNumWorkers() {
+        return numWorkers;
+    }
+
+    /**
+     * Returns the number of requests waiting for a worker.
+     *
+     * @return Number of queued requests
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Returns the number of workers which are executing a request.
+     *
+     * @return Number of busy workers
+     */
+    public int getBusyWorkers() {
+        return busyWorkers.get();
+    }
+
+    /**
+     * Returns the number of requests rejected because the queue was full.
+     *
+     * @return Number of rejected requests
+     */
+    public long getRejectedRequests() {
+        return rejectedRequests.sum();
+    }
+
+    /**
+     * Returns the number of requests rejected because they waited longer than the queue timeout.
+     *
+     * @return Number of expired requests
+     */
+    public long getExpiredRequests() {
+        return expiredRequests.sum();
+    }
+
+    /**
+     * Returns the number of requests executed by the workers.
+     *
+     * @return Number of executed requests
+     */
+    public long getExecutedRequests() {
+        return executedRequests.sum();
+    }
+
+    /**
+     * Class which represents a queued corruption request.
+     *
+     * @param <T> Type of the corrupted triples
+     */
+    private static final class Job<T> {
+        private final Supplier<T> corruption;
+        private final long queuedNanos = System.nanoTime();
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        Job(Supplier<T> corruption) {
+            this.corruption = corruption;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package models;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Class which represents a named dataset served by the server: its indexer and the triple corrupters of the
+ * strategies configured for it.
+ * <p>
+ * The first triple corrupter is the default one, used by the requests which do not select a strategy.
+ */
+public class Dataset {
+    private final String name;
+    private final TripleIndexer indexer;
+    private final Map<String, TripleCorrupter> corrupters;
+
+    /**
+     * Constructor which receives the name of the dataset, its indexer and its triple corrupters.
+     *
+     * @param name Name of the dataset
+     * @param indexer Mapping between URIs and integer identifiers
+     * @param corrupters Triple corrupter of each strategy, the first one being the default
+     */
+    public Dataset(String name, TripleIndexer indexer, Map<String, TripleCorrupter> corrupters) {
+        if (corrupters.isEmpty()) {
+            throw new IllegalArgumentException("Dataset " + name + " has no triple corrupter");
+        }
+
+        this.name = name;
+        this.indexer = indexer;
+        this.corrupters = Collections.unmodifiableMap(new LinkedHashMap<>(corrupters));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public TripleIndexer getIndexer() {
+        return indexer;
+    }
+
+    /**
+     * Returns the triple corrupter of the given strategy.
+     *
+     * @param corrupterId Identifier of the strategy, null selects the default triple corrupter
+     * @return Triple corrupter, null if the strategy is not configured for the dataset
+     */
+    public TripleCorrupter getCorrupter(String corrupterId) {
+        return (corrupterId != null) ? corrupters.get(corrupterId) : corrupters.values().iterator().next();
+    }
+
+    /**
+     * Returns the triple corrupters of the dataset.
+     *
+     * @return Triple corrupter of each strategy, in configuration order
+     */
+    public Map<String, TripleCorrupter> getCorrupters() {
+        return corrupters;
+    }
+}
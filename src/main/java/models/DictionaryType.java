@@ -0,0 +1,37 @@
+package models;
+
+/**
+ * Identifiers of the dictionary implementations used by TripleIndexer.
+ */
+public enum DictionaryType {
+    /**
+     * Boxed hash maps.
+     */
+    HASH,
+    /**
+     * Dense primitive arrays with URI bytes held on the heap.
+     */
+    COMPACT,
+    /**
+     * Dense primitive arrays with URI bytes held off-heap.
+     */
+    COMPACT_OFF_HEAP;
+
+    /**
+     * Creates a builder for a dictionary of this type.
+     *
+     * @return Empty dictionary builder
+     */
+    public UriDictionary.Builder newBuilder() {
+        switch (this) {
+            case HASH:
+                return new HashUriDictionary.Builder();
+            case COMPACT:
+                return new CompactUriDictionary.Builder(false);
+            case COMPACT_OFF_HEAP:
+                return new CompactUriDictionary.Builder(true);
+            default:
+                throw new IllegalArgumentException("Invalid dictionary type!");
+        }
+    }
+}
@@ -1,76 +1,269 @@
 package models;
 
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Multimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.primitives.Ints;
 import controllers.data.Triple;
-import org.semanticweb.owlapi.model.IRI;
 import org.semanticweb.owlapi.model.OWLClass;
 import org.semanticweb.owlapi.model.OWLNamedIndividual;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
-import uk.ac.manchester.cs.owl.owlapi.OWLNamedIndividualImpl;
+import org.roaringbitmap.RoaringBitmap;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
 
 /**
  * Class which represents a TripleCorrupter using Disjoint strategy.
+ * <p>
+ * With the BITMAP class index, the candidates of each distinct set of classes of the individuals are
+ * precomputed as a compressed bitmap, the union of the extensions of the classes disjoint from the set, and
+ * an entity is drawn by selecting a random position of the bitmap. Each candidate is then drawn with the same
+ * probability, while the MULTIMAP class index draws candidates proportionally to the number of disjoint classes
+ * they belong to.
  */
 public class DisjointTripleCorrupter extends TripleCorrupter {
-    private Multimap<OWLClass, OWLClass> disjointClasses;
+    private BitSet[] disjointClasses;
+    private RoaringBitmap[] signaturesCandidates;
+    private int[] signaturesCardinalities;
+    private int[] individualsSignatures;
 
     DisjointTripleCorrupter(File ontologyFile) throws OWLOntologyCreationException, IOException {
-        super(ontologyFile);
+        this(ontologyFile, new TripleCorrupterOptions());
+    }
+
+    DisjointTripleCorrupter(File ontologyFile, TripleCorrupterOptions options)
+            throws OWLOntologyCreationException, IOException {
+        this(new OntologyIndex(ontologyFile, options), options);
+    }
+
+    DisjointTripleCorrupter(OntologyIndex ontologyIndex, TripleCorrupterOptions options) {
+        super(ontologyIndex, options);
+        StartupPhases startupPhases = metrics.getStartupPhases();
 
-        logger.info("-- Building disjoint classes index");
-        buildDisjointClasses();
+        if (classMembership != null) {
+            logger.info("-- Building disjoint candidates bitmaps");
+            startupPhases.start("disjoint_candidates");
+            buildDisjointCandidates();
+            startupPhases.end("disjoint_candidates");
+        } else {
+            logger.info("-- Building disjoint classes index");
+            startupPhases.start("disjoint_classes");
+            buildDisjointClasses();
+            startupPhases.end("disjoint_classes");
+        }
+
+        if (options.isCandidatePools()) {
+            logger.info("-- Building disjoint candidate pools");
+            startupPhases.start("candidate_pools");
+            buildCandidatePools();
+            startupPhases.end("candidate_pools");
+        }
     }
 
-    protected Triple corrupt(Triple triple, boolean corruptSubject) {
-        OWLNamedIndividual iriIndividual = (corruptSubject) ?
-                new OWLNamedIndividualImpl(IRI.create(triple.subject)) :
-                new OWLNamedIndividualImpl(IRI.create(triple.object));
-        Triple corruptedTriple = null;
-        Collection<OWLClass> iriClasses = individualsClasses.get(iriIndividual);
+    @Override
+    protected int corruptEntity(Triple triple, int individualId, boolean corruptSubject, SplittableRandom random) {
+        if (candidatePools != null) {
+            return corruptFromPools(individualId, random);
+        }
+        if (signaturesCandidates != null) {
+            return corruptFromBitmaps(individualId, random);
+        }
+
+        Collection<OWLClass> iriClasses = (individualId != -1) ?
+                individualsClasses.get(individuals[individualId]) : null;
 
         if (iriClasses != null) {
             List<OWLNamedIndividual> notIriIndividuals = new ArrayList<>();
             for (OWLClass iriClass : iriClasses) {
-                Collection<OWLClass> notIriClasses = disjointClasses.get(iriClass);
+                BitSet notIriClasses = disjointClasses[classHierarchy.getClassId(iriClass)];
 
-                for (OWLClass currentClass : notIriClasses) {
-                    classesIndividuals.get(currentClass).forEach(notIriIndividuals::add);
+                for (int c = notIriClasses.nextSetBit(0); c >= 0; c = notIriClasses.nextSetBit(c + 1)) {
+                    classesIndividuals.get(classHierarchy.getOWLClass(c)).forEach(notIriIndividuals::add);
                 }
             }
 
             if (!notIriIndividuals.isEmpty()) {
-                OWLNamedIndividual corruptedEntity = notIriIndividuals.get(
-                        randomEntityGenerator.nextInt(notIriIndividuals.size()));
-                corruptedTriple = new Triple();
-                if (corruptSubject) {
-                    corruptedTriple.subject = corruptedEntity.getIRI().toString();
-                    corruptedTriple.predicate = triple.predicate;
-                    corruptedTriple.object = triple.object;
-                } else {
-                    corruptedTriple.subject = triple.subject;
-                    corruptedTriple.predicate = triple.predicate;
-                    corruptedTriple.object = corruptedEntity.getIRI().toString();
+                return getIndividualId(notIriIndividuals.get(random.nextInt(notIriIndividuals.size())));
+            }
+        }
+
+        metrics.incrementRandomFallbacks();
+        return generateRandomEntity(individualId, random);
+    }
+
+    /**
+     * Draws the corrupted entity from the candidates bitmap of the classes of the original entity.
+     *
+     * @param individualId Identifier of the entity to be replaced, -1 if it is not an individual
+     * @param random Random generator
+     * @return Identifier of the replacing individual
+     */
+    private int corruptFromBitmaps(int individualId, SplittableRandom random) {
+        int signature = (individualId != -1) ? individualsSignatures[individualId] : -1;
+
+        if (signature == -1 || signaturesCardinalities[signature] == 0) {
+            metrics.incrementRandomFallbacks();
+            return generateRandomEntity(individualId, random);
+        }
+
+        return signaturesCandidates[signature].select(random.nextInt(signaturesCardinalities[signature]));
+    }
+
+    @Override
+    public Map<String, Long> getIndexFootprints() {
+        Map<String, Long> footprints = super.getIndexFootprints();
+        if (signaturesCandidates != null) {
+            long footprint = 4L * (individualsSignatures.length + signaturesCardinalities.length);
+            for (RoaringBitmap candidates : signaturesCandidates) {
+                footprint += candidates.getSizeInBytes();
+            }
+            footprints.put("disjoint_candidates", footprint);
+        }
+
+        return footprints;
+    }
+
+    /**
+     * Builds the candidates bitmap of each distinct set of classes of the individuals. The union of the
+     * extensions of the classes disjoint from each class, as defined by {@link #buildDisjointClasses()}, is
+     * computed once, then the bitmaps of the classes and of the sets of classes are computed in parallel.
+     */
+    void buildDisjointCandidates() {
+        Map<List<Integer>, Integer> signaturesIndexes = new HashMap<>();
+        List<int[]> signatures = new ArrayList<>();
+        BitSet signaturesClasses = new BitSet(classHierarchy.getNumClasses());
+        individualsSignatures = new int[individuals.length];
+
+        for (int i = 0; i < individuals.length; i++) {
+            int[] classIds = classMembership.getClasses(i);
+            Integer signatureIndex = signaturesIndexes.get(Ints.asList(classIds));
+
+            if (signatureIndex == null) {
+                signatureIndex = signatures.size();
+                signatures.add(classIds);
+                signaturesIndexes.put(Ints.asList(classIds), signatureIndex);
+                for (int classId : classIds) {
+                    signaturesClasses.set(classId);
                 }
             }
+
+            individualsSignatures[i] = signatureIndex;
+        }
+
+        RoaringBitmap[] disjointExtensions = new RoaringBitmap[classHierarchy.getNumClasses()];
+        signaturesClasses.stream().parallel().forEach(c -> disjointExtensions[c] = buildDisjointExtension(c));
+
+        signaturesCandidates = new RoaringBitmap[signatures.size()];
+        Arrays.parallelSetAll(signaturesCandidates, s -> {
+            RoaringBitmap signatureCandidates = new RoaringBitmap();
+            for (int classId : signatures.get(s)) {
+                signatureCandidates.or(disjointExtensions[classId]);
+            }
+            return signatureCandidates;
+        });
+        signaturesCardinalities = new int[signaturesCandidates.length];
+        for (int s = 0; s < signaturesCandidates.length; s++) {
+            signaturesCardinalities[s] = signaturesCandidates[s].getCardinality();
+        }
+        logger.info("-- Built " + signaturesCandidates.length + " candidates bitmaps for " + individuals.length +
+                " individuals");
+    }
+
+    private RoaringBitmap buildDisjointExtension(int classId) {
+        BitSet excludedClasses = (BitSet) classHierarchy.getSuperClasses(classId).clone();
+        excludedClasses.set(classId);
+
+        return classMembership.unionExcept(excludedClasses);
+    }
+
+    /**
+     * Builds the classes disjoint from each class, the ones which are neither the class itself nor one of its
+     * superclasses, computing them in parallel from the class hierarchy.
+     */
+    void buildDisjointClasses() {
+        disjointClasses = new BitSet[classHierarchy.getNumClasses()];
+        Arrays.parallelSetAll(disjointClasses, classHierarchy::getNotSuperClasses);
+    }
+
+    /**
+     * Builds a pool of candidate individuals for each distinct set of classes (class signature)
+     * shared by the individuals of the ontology, so that candidates are drawn as without pools.
+     * <p>
+     * With the BITMAP class index, each pool is the content of the candidates bitmap of the signature, whose
+     * individuals appear once, so that each candidate is drawn with the same probability. With the MULTIMAP
+     * class index, each pool contains the identifiers of the individuals belonging to classes disjoint from the
+     * classes of the signature, an individual appearing once for each pair of a class of the signature and a
+     * disjoint class it belongs to, in the order used by the non-precomputed strategy, so that candidates are
+     * drawn proportionally to this number of pairs.
+     */
+    void buildCandidatePools() {
+        if (signaturesCandidates != null) {
+            int[][] pools = new int[signaturesCandidates.length][];
+            for (int s = 0; s < pools.length; s++) {
+                pools[s] = signaturesCandidates[s].toArray();
+            }
+            candidatePools = new CandidatePools(pools, individualsSignatures);
+            return;
+        }
+
+        Map<Set<OWLClass>, Integer> signaturesPools = new HashMap<>();
+        List<Set<OWLClass>> signatures = new ArrayList<>();
+        int[] individualsPools = new int[individuals.length];
+
+        for (int i = 0; i < individuals.length; i++) {
+            Set<OWLClass> signature = ImmutableSet.copyOf(individualsClasses.get(individuals[i]));
+            Integer poolIndex = signaturesPools.get(signature);
+
+            if (poolIndex == null) {
+                poolIndex = signatures.size();
+                signatures.add(signature);
+                signaturesPools.put(signature, poolIndex);
+            }
+
+            individualsPools[i] = poolIndex;
         }
 
-        return (corruptedTriple == null) ? generateRandomTriple(triple, iriIndividual, corruptSubject) : corruptedTriple;
+        int[][] pools = new int[signatures.size()][];
+        Arrays.parallelSetAll(pools, s -> buildCandidatePool(signatures.get(s)));
+        candidatePools = new CandidatePools(pools, individualsPools);
+        logger.info("-- Built " + candidatePools.getNumPools() + " candidate pools for " + individuals.length +
+                " individuals");
     }
 
-    private void buildDisjointClasses() {
-        disjointClasses = HashMultimap.create();
-        for (OWLClass currentClass : ontology.getClassesInSignature()) {
-            disjointClasses.putAll(currentClass, ontology.classesInSignature().
-                    filter(c -> !reasoner.getSuperClasses(currentClass).getFlattened().contains(c) && !currentClass.equals(c)).
-                    collect(Collectors.toList()));
+    /**
+     * Builds the pool of candidate individuals for the given class signature.
+     *
+     * @param signature Classes of an individual
+     * @return Identifiers of the individuals belonging to classes disjoint from the signature
+     */
+    private int[] buildCandidatePool(Set<OWLClass> signature) {
+        int poolSize = 0;
+        for (OWLClass iriClass : signature) {
+            BitSet notIriClasses = disjointClasses[classHierarchy.getClassId(iriClass)];
+            for (int c = notIriClasses.nextSetBit(0); c >= 0; c = notIriClasses.nextSetBit(c + 1)) {
+                poolSize += classesIndividuals.get(classHierarchy.getOWLClass(c)).size();
+            }
+        }
+
+        int[] pool = new int[poolSize];
+        int position = 0;
+        for (OWLClass iriClass : signature) {
+            BitSet notIriClasses = disjointClasses[classHierarchy.getClassId(iriClass)];
+            for (int c = notIriClasses.nextSetBit(0); c >= 0; c = notIriClasses.nextSetBit(c + 1)) {
+                for (OWLNamedIndividual individual : classesIndividuals.get(classHierarchy.getOWLClass(c))) {
+                    pool[position++] = getIndividualId(individual);
+                }
+            }
         }
+
+        return pool;
     }
 }
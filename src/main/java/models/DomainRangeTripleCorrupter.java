@@ -0,0 +1,249 @@
+package models;
+
+import controllers.data.Triple;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.model.OWLObjectIntersectionOf;
+import org.semanticweb.owlapi.model.OWLObjectUnionOf;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Class which represents a TripleCorrupter using Domain/Range strategy: the subject is replaced by an
+ * individual of the domain of the predicate, and the object is replaced by an individual of its range.
+ * <p>
+ * Domains and ranges are read both from rdfs:domain/rdfs:range axioms, whose classes are intersected, and from
+ * the schema:domainIncludes/schema:rangeIncludes annotations of schema.org, whose classes are joined. The
+ * candidates of each relation are precomputed at startup as pools of dense individual identifiers, shared by
+ * the relations having the same candidates, so that a corruption only draws a random index.
+ */
+public class DomainRangeTripleCorrupter extends TripleCorrupter {
+    private static final IRI DOMAIN_INCLUDES = IRI.create("http://schema.org/domainIncludes");
+    private static final IRI RANGE_INCLUDES = IRI.create("http://schema.org/rangeIncludes");
+
+    private final boolean aboxStreamed;
+    private Map<String, int[]> domainPools;
+    private Map<String, int[]> rangePools;
+
+    DomainRangeTripleCorrupter(File ontologyFile) throws OWLOntologyCreationException, IOException {
+        this(ontologyFile, new TripleCorrupterOptions());
+    }
+
+    DomainRangeTripleCorrupter(File ontologyFile, TripleCorrupterOptions options)
+            throws OWLOntologyCreationException, IOException {
+        this(new OntologyIndex(ontologyFile, options), options);
+    }
+
+    DomainRangeTripleCorrupter(OntologyIndex ontologyIndex, TripleCorrupterOptions options) {
+        super(ontologyIndex, options);
+        aboxStreamed = ontologyIndex.isAboxStreamed();
+        StartupPhases startupPhases = metrics.getStartupPhases();
+
+        logger.info("-- Building domain and range candidate pools");
+        startupPhases.start("relation_pools");
+        buildRelationPools();
+        startupPhases.end("relation_pools");
+    }
+
+    @Override
+    protected int corruptEntity(Triple triple, int individualId, boolean corruptSubject, SplittableRandom random) {
+        int[] pool = (triple.predicate != null) ?
+                ((corruptSubject) ? domainPools : rangePools).get(triple.predicate) : null;
+
+        if (pool == null) {
+            metrics.incrementRandomFallbacks();
+            return generateRandomEntity(individualId, random);
+        }
+
+        int corruptedEntity;
+        do {
+            corruptedEntity = pool[random.nextInt(pool.length)];
+        } while (pool.length > 1 && corruptedEntity == individualId);
+
+        return corruptedEntity;
+    }
+
+    @Override
+    public Map<String, Long> getIndexFootprints() {
+        Map<String, Long> footprints = super.getIndexFootprints();
+        Map<int[], Boolean> pools = new IdentityHashMap<>();
+        domainPools.values().forEach(pool -> pools.put(pool, true));
+        rangePools.values().forEach(pool -> pools.put(pool, true));
+
+        long footprint = 64L * (domainPools.size() + rangePools.size());
+        for (int[] pool : pools.keySet()) {
+            footprint += 16 + 4L * pool.length;
+        }
+        footprints.put("relation_pools", footprint);
+
+        return footprints;
+    }
+
+    /**
+     * Builds the domain and range candidate pools of the relations of the ontology.
+     */
+    void buildRelationPools() {
+        Map<String, List<OWLClassExpression>> domains = new HashMap<>(), ranges = new HashMap<>();
+        ontology.axioms(AxiomType.OBJECT_PROPERTY_DOMAIN).
+                filter(axiom -> !axiom.getProperty().isAnonymous()).
+                forEach(axiom -> addClassExpression(domains,
+                        axiom.getProperty().asOWLObjectProperty().getIRI(), axiom.getDomain()));
+        ontology.axioms(AxiomType.DATA_PROPERTY_DOMAIN).
+                filter(axiom -> !axiom.getProperty().isAnonymous()).
+                forEach(axiom -> addClassExpression(domains,
+                        axiom.getProperty().asOWLDataProperty().getIRI(), axiom.getDomain()));
+        ontology.axioms(AxiomType.OBJECT_PROPERTY_RANGE).
+                filter(axiom -> !axiom.getProperty().isAnonymous()).
+                forEach(axiom -> addClassExpression(ranges,
+                        axiom.getProperty().asOWLObjectProperty().getIRI(), axiom.getRange()));
+
+        Map<String, List<OWLClassExpression>> domainIncludes = new HashMap<>(), rangeIncludes = new HashMap<>();
+        ontology.axioms(AxiomType.ANNOTATION_ASSERTION).
+                filter(axiom -> axiom.getSubject() instanceof IRI && axiom.getValue() instanceof IRI).
+                forEach(axiom -> {
+                    IRI annotationProperty = axiom.getProperty().getIRI();
+                    OWLClassExpression includedClass = ontology.getOWLOntologyManager().getOWLDataFactory().
+                            getOWLClass((IRI) axiom.getValue());
+                    if (annotationProperty.equals(DOMAIN_INCLUDES)) {
+                        addClassExpression(domainIncludes, (IRI) axiom.getSubject(), includedClass);
+                    } else if (annotationProperty.equals(RANGE_INCLUDES)) {
+                        addClassExpression(rangeIncludes, (IRI) axiom.getSubject(), includedClass);
+                    }
+                });
+
+        Map<BitSet, int[]> distinctPools = new HashMap<>();
+        Map<OWLClassExpression, BitSet> classesInstances = new HashMap<>();
+        domainPools = buildPools(domains, domainIncludes, distinctPools, classesInstances);
+        rangePools = buildPools(ranges, rangeIncludes, distinctPools, classesInstances);
+        logger.info("-- Built " + distinctPools.size() + " distinct pools for " + domainPools.size() +
+                " domains and " + rangePools.size() + " ranges");
+    }
+
+    private static void addClassExpression(Map<String, List<OWLClassExpression>> relationsClasses, IRI relation,
+                                           OWLClassExpression classExpression) {
+        relationsClasses.computeIfAbsent(relation.toString(), r -> new ArrayList<>()).add(classExpression);
+    }
+
+    /**
+     * Builds the candidate pools of one side of the relations.
+     *
+     * @param axiomClasses Classes of the rdfs:domain or rdfs:range axioms of each relation, which are intersected
+     * @param includedClasses Classes of the schema.org annotations of each relation, which are joined
+     * @param distinctPools Pools built so far, indexed by their individuals
+     * @param classesInstances Individuals of the class expressions resolved so far
+     * @return Candidate pool of each relation having at least one candidate
+     */
+    private Map<String, int[]> buildPools(Map<String, List<OWLClassExpression>> axiomClasses,
+                                          Map<String, List<OWLClassExpression>> includedClasses,
+                                          Map<BitSet, int[]> distinctPools,
+                                          Map<OWLClassExpression, BitSet> classesInstances) {
+        Set<String> relations = new HashSet<>(axiomClasses.keySet());
+        relations.addAll(includedClasses.keySet());
+
+        Map<String, int[]> pools = new HashMap<>();
+        for (String relation : relations) {
+            BitSet candidates = null;
+            for (OWLClassExpression classExpression : axiomClasses.getOrDefault(relation, new ArrayList<>())) {
+                BitSet instances = classesInstances.computeIfAbsent(classExpression, this::getInstances);
+                if (candidates == null) {
+                    candidates = (BitSet) instances.clone();
+                } else {
+                    candidates.and(instances);
+                }
+            }
+
+            if (includedClasses.containsKey(relation)) {
+                BitSet instances = new BitSet(individuals.length);
+                includedClasses.get(relation).forEach(includedClass ->
+                        instances.or(classesInstances.computeIfAbsent(includedClass, this::getInstances)));
+                if (candidates == null) {
+                    candidates = instances;
+                } else {
+                    candidates.and(instances);
+                }
+            }
+
+            if (candidates != null && !candidates.isEmpty()) {
+                pools.put(relation, distinctPools.computeIfAbsent(candidates, c -> c.stream().toArray()));
+            }
+        }
+
+        return pools;
+    }
+
+    /**
+     * Returns the individuals of the given class expression.
+     *
+     * @param classExpression Class expression of a domain or a range
+     * @return Identifiers of the individuals
+     */
+    private BitSet getInstances(OWLClassExpression classExpression) {
+        BitSet instances = new BitSet(individuals.length);
+        if (!classExpression.isAnonymous()) {
+            for (int individualId : getClassIndividualIds(classExpression.asOWLClass())) {
+                instances.set(individualId);
+            }
+            return instances;
+        }
+        if (aboxStreamed) {
+            return getStreamedInstances(classExpression);
+        }
+
+        Collection<OWLNamedIndividual> classIndividuals;
+        try {
+            classIndividuals = reasoner.getInstances(classExpression, false).getFlattened();
+        } catch (Exception e) {
+            metrics.incrementReasonerErrors();
+            logger.warning("Reasoner error: unable to execute getInstances for " + classExpression + "!");
+            return instances;
+        }
+
+        for (OWLNamedIndividual individual : classIndividuals) {
+            if (individualsDictionary.getId(individual.getIRI().toString()) != UriDictionary.NOT_FOUND) {
+                instances.set(getIndividualId(individual));
+            }
+        }
+
+        return instances;
+    }
+
+    /**
+     * Returns the individuals of the given anonymous class expression when the class assertions have been
+     * streamed, so that the reasoner does not know the individuals: unions and intersections are resolved from
+     * the individuals of their operands, while the other class expressions have no candidate.
+     *
+     * @param classExpression Anonymous class expression of a domain or a range
+     * @return Identifiers of the individuals
+     */
+    private BitSet getStreamedInstances(OWLClassExpression classExpression) {
+        if (classExpression instanceof OWLObjectUnionOf) {
+            BitSet instances = new BitSet(individuals.length);
+            ((OWLObjectUnionOf) classExpression).operands().forEach(operand -> instances.or(getInstances(operand)));
+            return instances;
+        }
+        if (classExpression instanceof OWLObjectIntersectionOf) {
+            BitSet instances = new BitSet(individuals.length);
+            instances.set(0, individuals.length);
+            ((OWLObjectIntersectionOf) classExpression).operands().
+                    forEach(operand -> instances.and(getInstances(operand)));
+            return instances;
+        }
+
+        logger.warning("Unable to resolve " + classExpression + " without the individuals of the reasoner!");
+        return new BitSet(individuals.length);
+    }
+}
@@ -0,0 +1,90 @@
+package models;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Logger;
+
+/**
+ * Class which represents a watcher of a set of files, which runs an action once the files have changed.
+ * <p>
+ * Files are usually replaced by several writes, or by several moves when more files are updated together,
+ * so the action only runs once no file has changed for a quiet period. When the action cannot run, for
+ * instance because the previous change is still being processed, it is retried after another quiet period.
+ */
+public class FilesWatcher {
+    private final WatchService watchService;
+    private final Set<Path> files = new HashSet<>();
+    private final long quietMillis;
+    private final BooleanSupplier action;
+
+    private final Logger logger = Logger.getLogger(FilesWatcher.class.getName());
+
+    /**
+     * Constructor which receives the files to be watched and the action run when they change.
+     *
+     * @param files Files to be watched
+     * @param quietMillis Milliseconds without changes after which the action runs
+     * @param action Action run when the files have changed, which returns False if it has to be retried
+     * @throws IOException Exception raised if the directories of the files cannot be watched
+     */
+    public FilesWatcher(List<File> files, long quietMillis, BooleanSupplier action) throws IOException {
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.quietMillis = quietMillis;
+        this.action = action;
+
+        Set<Path> directories = new HashSet<>();
+        for (File file : files) {
+            Path path = file.getAbsoluteFile().toPath();
+            this.files.add(path);
+            if (directories.add(path.getParent())) {
+                path.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY);
+            }
+        }
+    }
+
+    /**
+     * Starts watching the files on a daemon thread.
+     */
+    public void start() {
+        Thread watcherThread = new Thread(this::watch, "berlusca-files-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+    }
+
+    private void watch() {
+        try {
+            boolean changed = false;
+            while (true) {
+                WatchKey key = changed ? watchService.poll(quietMillis, TimeUnit.MILLISECONDS) : watchService.take();
+                if (key == null) {
+                    logger.info("-- Watched files have changed");
+                    changed = !action.getAsBoolean();
+                    continue;
+                }
+
+                Path directory = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.context() instanceof Path && files.contains(directory.resolve((Path) event.context()))) {
+                        changed = true;
+                    }
+                }
+                key.reset();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // The watcher has been stopped
+        }
+    }
+}
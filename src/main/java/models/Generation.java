@@ -0,0 +1,87 @@
+package models;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class which represents the datasets, with their triple corrupters and indexers, used together to serve
+ * requests.
+ * <p>
+ * The first dataset is the default one, used by the requests which do not select a dataset.
+ */
+public class Generation {
+    private final Map<String, Dataset> datasets = new LinkedHashMap<>();
+
+    /**
+     * Constructor which receives the datasets of the generation.
+     *
+     * @param datasets Datasets, the first one being the default
+     */
+    public Generation(List<Dataset> datasets) {
+        if (datasets.isEmpty()) {
+            throw new IllegalArgumentException("Generation has no dataset");
+        }
+
+        for (Dataset dataset : datasets) {
+            this.datasets.put(dataset.getName(), dataset);
+        }
+    }
+
+    /**
+     * Returns the given dataset.
+     *
+     * @param name Name of the dataset, null selects the default dataset
+     * @return Dataset, null if it is not configured
+     */
+    public Dataset getDataset(String name) {
+        return (name != null) ? datasets.get(name) : datasets.values().iterator().next();
+    }
+
+    /**
+     * Returns the datasets of the generation.
+     *
+     * @return Datasets, in configuration order
+     */
+    public Collection<Dataset> getDatasets() {
+        return Collections.unmodifiableCollection(datasets.values());
+    }
+
+    /**
+     * Returns the default triple corrupter of the default dataset.
+     *
+     * @return Triple corrupter
+     */
+    public TripleCorrupter getCorrupter() {
+        return getDataset(null).getCorrupter(null);
+    }
+
+    /**
+     * Returns the indexer of the default dataset.
+     *
+     * @return Mapping between URIs and integer identifiers
+     */
+    public TripleIndexer getIndexer() {
+        return getDataset(null).getIndexer();
+    }
+
+    /**
+     * Returns whether any triple corrupter of the generation serves requests by random sampling until the
+     * configured one is ready.
+     *
+     * @return True if the generation is degraded
+     */
+    public boolean isDegraded() {
+        for (Dataset dataset : datasets.values()) {
+            for (TripleCorrupter corrupter : dataset.getCorrupters().values()) {
+                if (corrupter.isDegraded()) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+}
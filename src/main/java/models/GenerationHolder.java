@@ -0,0 +1,140 @@
+package models;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Class which represents the generation currently used to serve requests.
+ * <p>
+ * Requests read the generation once and use it until they end, so that a new generation can be published
+ * with a single atomic swap while requests are running: the previous generation is released when its last
+ * request ends. New generations are created in background by a single thread, and at most one creation
+ * can be running at any time.
+ */
+public class GenerationHolder {
+    private final AtomicReference<Generation> generation;
+    private final GenerationFactory factory;
+    private final AtomicLong numPublished = new AtomicLong(1);
+    private final AtomicBoolean creating = new AtomicBoolean();
+    private final ExecutorService creationExecutor;
+    private volatile StartupPhases pendingPhases;
+    private volatile String failure;
+
+    private final Logger logger = Logger.getLogger(GenerationHolder.class.getName());
+
+    /**
+     * Constructor which receives the initial generation and the factory of the reloaded generations.
+     *
+     * @param generation Generation used to serve requests
+     * @param factory Factory of the generations created by {@link #reload()}
+     */
+    public GenerationHolder(Generation generation, GenerationFactory factory) {
+        this.generation = new AtomicReference<>(generation);
+        this.factory = factory;
+        this.creationExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "berlusca-generation");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the generation currently used to serve requests.
+     *
+     * @return Current generation
+     */
+    public Generation get() {
+        return generation.get();
+    }
+
+    /**
+     * Creates a new generation in background using the factory of the holder, then publishes it.
+     *
+     * @return True if the creation has started, False if another creation is running
+     */
+    public boolean reload() {
+        return reload(factory);
+    }
+
+    /**
+     * Creates a new generation in background using the given factory, then publishes it. When the creation
+     * fails, the current generation is kept and the failure is reported by {@link #getFailure()}.
+     *
+     * @param generationFactory Factory of the new generation
+     * @return True if the creation has started, False if another creation is running
+     */
+    public boolean reload(GenerationFactory generationFactory) {
+        if (!creating.compareAndSet(false, true)) {
+            return false;
+        }
+
+        StartupPhases startupPhases = new StartupPhases();
+        this.failure = null;
+        this.pendingPhases = startupPhases;
+        creationExecutor.execute(() -> create(generationFactory, startupPhases));
+
+        return true;
+    }
+
+    private void create(GenerationFactory generationFactory, StartupPhases startupPhases) {
+        try {
+            Generation newGeneration = generationFactory.create(startupPhases);
+            generation.set(newGeneration);
+            numPublished.incrementAndGet();
+            logger.info("-- Published generation " + numPublished.get() + " (" +
+                    newGeneration.getCorrupter().getClass().getSimpleName() + ")");
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Unable to create a new generation, keeping the current one", e);
+            this.failure = String.valueOf(e);
+        } finally {
+            this.pendingPhases = null;
+            creating.set(false);
+        }
+    }
+
+    /**
+     * Returns the number of generations published since the server started, including the initial one.
+     *
+     * @return Number of published generations
+     */
+    public long getNumPublished() {
+        return numPublished.get();
+    }
+
+    /**
+     * Returns the startup phases of the generation which is being created.
+     *
+     * @return Startup phases, null if no generation is being created
+     */
+    public StartupPhases getPendingPhases() {
+        return pendingPhases;
+    }
+
+    /**
+     * Returns the cause of the last failed creation.
+     *
+     * @return Description of the failure, null if the last creation did not fail
+     */
+    public String getFailure() {
+        return failure;
+    }
+
+    /**
+     * Interface which represents the creation of a generation.
+     */
+    public interface GenerationFactory {
+        /**
+         * Creates a new generation.
+         *
+         * @param startupPhases Startup phases of the generation, which can be read while it is being created
+         * @return New generation
+         * @throws Exception Exception raised if the generation cannot be created
+         */
+        Generation create(StartupPhases startupPhases) throws Exception;
+    }
+}
@@ -0,0 +1,90 @@
+package models;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Class which represents a dictionary backed by two boxed hash maps.
+ */
+public class HashUriDictionary implements UriDictionary {
+    // Approximate size of the objects of a mapping on a 64-bit JVM with compressed references:
+    // String and array headers, two boxed Long, two HashMap nodes and two table slots
+    private static final int MAPPING_OVERHEAD = 40 + 2 * 16 + 2 * 32 + 2 * 8;
+    private final Map<String, Long> uri2id;
+    private final Map<Long, String> id2uri;
+    private final long footprint;
+
+    private HashUriDictionary(Map<String, Long> uri2id, Map<Long, String> id2uri) {
+        this.uri2id = uri2id;
+        this.id2uri = id2uri;
+
+        long footprint = (long) MAPPING_OVERHEAD * uri2id.size();
+        for (String uri : uri2id.keySet()) {
+            footprint += uri.length();
+        }
+        this.footprint = footprint;
+    }
+
+    @Override
+    public long getId(String uri) {
+        Long id = uri2id.get(uri);
+        return (id == null) ? NOT_FOUND : id;
+    }
+
+    @Override
+    public String getURI(long id) {
+        return id2uri.get(id);
+    }
+
+    @Override
+    public int size() {
+        return uri2id.size();
+    }
+
+    @Override
+    public void forEach(ObjLongConsumer<String> action) {
+        uri2id.forEach(action::accept);
+    }
+
+    @Override
+    public long getFootprint() {
+        return footprint;
+    }
+
+    @Override
+    public Map<String, Long> asURIMap() {
+        return uri2id;
+    }
+
+    @Override
+    public Map<Long, String> asIdMap() {
+        return id2uri;
+    }
+
+    /**
+     * Class which represents a builder of HashUriDictionary objects.
+     */
+    static class Builder implements UriDictionary.Builder {
+        private final Map<String, Long> uri2id = new HashMap<>();
+        private final Map<Long, String> id2uri = new HashMap<>();
+
+        @Override
+        public void add(String uri, long id) {
+            if (uri2id.containsKey(uri)) {
+                throw new IllegalArgumentException("Duplicate URI: " + uri);
+            }
+            if (id2uri.containsKey(id)) {
+                throw new IllegalArgumentException("Duplicate identifier: " + id);
+            }
+
+            uri2id.put(uri, id);
+            id2uri.put(id, uri);
+        }
+
+        @Override
+        public UriDictionary build() {
+            return new HashUriDictionary(uri2id, id2uri);
+        }
+    }
+}
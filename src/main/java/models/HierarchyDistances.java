@@ -0,0 +1,154 @@
+package models;
+
+import org.jgrapht.Graph;
+import org.jgrapht.Graphs;
+import org.jgrapht.graph.DefaultEdge;
+import org.semanticweb.owlapi.model.OWLClass;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Class which represents the shortest path distances between all the classes of a concept hierarchy.
+ * <p>
+ * Each class is associated to a dense integer identifier and distances are stored in primitive arrays
+ * indexed by such identifiers. Since the hierarchy is unweighted, distances are computed by running a
+ * breadth-first search from every class; searches are executed in parallel on the available cores.
+ */
+public class HierarchyDistances {
+    /**
+     * Distance between two classes which are not connected in the hierarchy.
+     */
+    public static final int UNREACHABLE = -1;
+
+    private final OWLClass[] classes;
+    private final Map<OWLClass, Integer> classIds;
+    private final short[][] distances;
+
+    /**
+     * Constructor which computes the distances between all the classes of the given concept hierarchy.
+     *
+     * @param conceptHierarchy Undirected graph of the concept hierarchy
+     */
+    public HierarchyDistances(Graph<OWLClass, DefaultEdge> conceptHierarchy) {
+        classes = conceptHierarchy.vertexSet().toArray(new OWLClass[0]);
+        classIds = new HashMap<>(classes.length * 2);
+        for (int i = 0; i < classes.length; i++) {
+            classIds.put(classes[i], i);
+        }
+
+        int[][] neighbours = new int[classes.length][];
+        for (int i = 0; i < classes.length; i++) {
+            List<OWLClass> classNeighbours = Graphs.neighborListOf(conceptHierarchy, classes[i]);
+            neighbours[i] = classNeighbours.stream().mapToInt(classIds::get).toArray();
+        }
+
+        distances = new short[classes.length][];
+        IntStream.range(0, classes.length).parallel().forEach(i -> distances[i] = breadthFirstSearch(i, neighbours));
+    }
+
+    /**
+     * Returns the number of classes of the hierarchy.
+     *
+     * @return Number of classes
+     */
+    public int size() {
+        return classes.length;
+    }
+
+    /**
+     * Returns the class associated to the given identifier.
+     *
+     * @param classId Identifier of the class
+     * @return Class associated to the identifier
+     */
+    public OWLClass getOWLClass(int classId) {
+        return classes[classId];
+    }
+
+    /**
+     * Returns the identifier of the given class.
+     *
+     * @param owlClass Class of the hierarchy
+     * @return Identifier of the class, null if the class does not belong to the hierarchy
+     */
+    public Integer getId(OWLClass owlClass) {
+        return classIds.get(owlClass);
+    }
+
+    /**
+     * Returns the length of the shortest path between two classes.
+     *
+     * @param source Identifier of the first class
+     * @param target Identifier of the second class
+     * @return Number of edges of the shortest path, UNREACHABLE if the classes are not connected
+     */
+    public int getDistance(int source, int target) {
+        return distances[source][target];
+    }
+
+    /**
+     * Returns the length of the longest shortest path starting from the given class.
+     *
+     * @param source Identifier of the class
+     * @return Maximum distance between the class and any other class of the hierarchy
+     */
+    public int getMaxDistance(int source) {
+        int maxDistance = 0;
+        for (short distance : distances[source]) {
+            maxDistance = Math.max(maxDistance, distance);
+        }
+
+        return maxDistance;
+    }
+
+    /**
+     * Returns the approximate number of bytes used by the distances.
+     *
+     * @return Size in bytes of the distances
+     */
+    public long getFootprint() {
+        long footprint = 0;
+        for (short[] classDistances : distances) {
+            footprint += 16 + 2L * classDistances.length;
+        }
+
+        return footprint;
+    }
+
+    /**
+     * Computes the distances between the given class and all the other classes.
+     *
+     * @param source Identifier of the source class
+     * @param neighbours Adjacency lists of the hierarchy
+     * @return Distances from the source class
+     */
+    private static short[] breadthFirstSearch(int source, int[][] neighbours) {
+        short[] sourceDistances = new short[neighbours.length];
+        Arrays.fill(sourceDistances, (short) UNREACHABLE);
+        int[] queue = new int[neighbours.length];
+        int head = 0, tail = 0;
+
+        sourceDistances[source] = 0;
+        queue[tail++] = source;
+        while (head < tail) {
+            int current = queue[head++];
+            int nextDistance = sourceDistances[current] + 1;
+            if (nextDistance > Short.MAX_VALUE) {
+                throw new IllegalStateException("Concept hierarchy is too deep!");
+            }
+
+            for (int neighbour : neighbours[current]) {
+                if (sourceDistances[neighbour] == UNREACHABLE) {
+                    sourceDistances[neighbour] = (short) nextDistance;
+                    queue[tail++] = neighbour;
+                }
+            }
+        }
+
+        return sourceDistances;
+    }
+}
@@ -0,0 +1,102 @@
+package models;
+
+import java.util.Arrays;
+
+/**
+ * Class which represents the identifiers, in the entities dictionary of an indexer, of the individuals of an
+ * individuals dictionary, so that corrupted triples of identifiers are built from the drawn individuals
+ * without decoding nor hashing their URIs.
+ * <p>
+ * The identifiers are resolved once for an entities dictionary and shared by the triple corrupters of the
+ * individuals dictionary. The identifiers of the last entities dictionary are kept, since the triple corrupters
+ * of a dataset are always used with the indexer of the dataset.
+ */
+public class IndividualEntityIds {
+    private final UriDictionary individualsDictionary;
+    private volatile Resolution resolution;
+
+    /**
+     * Constructor which receives the individuals dictionary, whose identifiers are resolved on demand.
+     *
+     * @param individualsDictionary Mapping between individual IRIs and identifiers
+     */
+    public IndividualEntityIds(UriDictionary individualsDictionary) {
+        this.individualsDictionary = individualsDictionary;
+    }
+
+    /**
+     * Constructor which receives identifiers which have already been resolved, such as the ones restored from a
+     * snapshot. They are used for the entities dictionaries having the given number of entities, which are
+     * read from the entity mapping file the snapshot has been compiled from.
+     *
+     * @param individualsDictionary Mapping between individual IRIs and identifiers
+     * @param entityIds Entity identifier of each individual, indexed by individual identifier
+     * @param numEntities Number of entities of the entities dictionary of the identifiers
+     */
+    IndividualEntityIds(UriDictionary individualsDictionary, long[] entityIds, int numEntities) {
+        this.individualsDictionary = individualsDictionary;
+        this.resolution = new Resolution(null, numEntities, entityIds);
+    }
+
+    /**
+     * Returns the identifiers of the individuals in the given entities dictionary, resolving them if they have
+     * not been resolved for it yet.
+     *
+     * @param entities Entities dictionary of an indexer
+     * @return Entity identifier of each individual, indexed by individual identifier, NOT_FOUND for the
+     * individuals which are not entities of the indexer
+     */
+    public long[] get(UriDictionary entities) {
+        Resolution current = resolution;
+        if (current == null || !current.matches(entities)) {
+            synchronized (this) {
+                current = resolution;
+                if (current == null || !current.matches(entities)) {
+                    current = new Resolution(entities, entities.size(), resolve(entities));
+                    resolution = current;
+                }
+            }
+        }
+
+        return current.entityIds;
+    }
+
+    private long[] resolve(UriDictionary entities) {
+        long[] maxId = {-1};
+        individualsDictionary.forEach((uri, id) -> maxId[0] = Math.max(maxId[0], id));
+        long[] entityIds = new long[(int) (maxId[0] + 1)];
+        Arrays.fill(entityIds, UriDictionary.NOT_FOUND);
+        individualsDictionary.forEach((uri, id) -> entityIds[(int) id] = entities.getId(uri));
+
+        return entityIds;
+    }
+
+    /**
+     * Returns the number of bytes used by the resolved identifiers.
+     *
+     * @return Size in bytes of the identifiers, 0 if they have not been resolved
+     */
+    public long getFootprint() {
+        Resolution current = resolution;
+        return (current != null) ? 16L + 8L * current.entityIds.length : 0;
+    }
+
+    /**
+     * Class which represents the identifiers resolved for an entities dictionary.
+     */
+    private static final class Resolution {
+        private final UriDictionary entities;
+        private final int numEntities;
+        private final long[] entityIds;
+
+        Resolution(UriDictionary entities, int numEntities, long[] entityIds) {
+            this.entities = entities;
+            this.numEntities = numEntities;
+            this.entityIds = entityIds;
+        }
+
+        boolean matches(UriDictionary dictionary) {
+            return (entities != null) ? entities == dictionary : numEntities == dictionary.size();
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package models;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+/**
+ * Class which represents the set of known triples of identifiers, used to discard corrupted triples
+ * which are actually true.
+ * <p>
+ * Each triple is packed in a single long, using the number of bits required by the greatest subject,
+ * predicate and object identifiers, and stored in an open addressing hash table of primitive longs.
+ * An optional Bloom filter, which is several times smaller than the table, can be checked first so that
+ * most of the lookups of unknown triples do not access the table.
+ */
+public class KnownTriples {
+    private static final long EMPTY_SLOT = -1;
+    private static final double MAX_LOAD_FACTOR = 0.7;
+    private static final int BLOOM_FILTER_BITS = 8;
+    private static final int BLOOM_FILTER_HASHES = 3;
+
+    private final int predicateBits;
+    private final int objectBits;
+    private final long maxSubject;
+    private final long maxPredicate;
+    private final long maxObject;
+    private final long[] slots;
+    private final long[] bloomFilter;
+    private final int size;
+
+    /**
+     * Constructor which receives the known triples as parallel arrays of identifiers.
+     *
+     * @param subjects Subject identifiers
+     * @param predicates Predicate identifiers
+     * @param objects Object identifiers
+     * @param numTriples Number of triples stored in the arrays
+     * @param bloomFilter True to check a Bloom filter before the hash table
+     */
+    public KnownTriples(long[] subjects, long[] predicates, long[] objects, int numTriples, boolean bloomFilter) {
+        long maxSubject = 0, maxPredicate = 0, maxObject = 0;
+        for (int i = 0; i < numTriples; i++) {
+            if (subjects[i] < 0 || predicates[i] < 0 || objects[i] < 0) {
+                throw new IllegalArgumentException("Invalid known triple: " + subjects[i] + " " +
+                        predicates[i] + " " + objects[i]);
+            }
+            maxSubject = Math.max(maxSubject, subjects[i]);
+            maxPredicate = Math.max(maxPredicate, predicates[i]);
+            maxObject = Math.max(maxObject, objects[i]);
+        }
+
+        int subjectBits = bits(maxSubject);
+        this.predicateBits = bits(maxPredicate);
+        this.objectBits = bits(maxObject);
+        if (subjectBits + predicateBits + objectBits > 63) {
+            throw new IllegalArgumentException("Identifiers of known triples do not fit in 63 bits!");
+        }
+        this.maxSubject = maxSubject;
+        this.maxPredicate = maxPredicate;
+        this.maxObject = maxObject;
+
+        int capacity = Integer.highestOneBit((int) Math.max(2, Math.ceil(numTriples / MAX_LOAD_FACTOR)) - 1) << 1;
+        this.slots = new long[capacity];
+        Arrays.fill(slots, EMPTY_SLOT);
+        this.bloomFilter = bloomFilter ?
+                new long[Math.max(1, (int) (((long) numTriples * BLOOM_FILTER_BITS + 63) >>> 6))] : null;
+
+        int size = 0;
+        for (int i = 0; i < numTriples; i++) {
+            if (insert(pack(subjects[i], predicates[i], objects[i]))) {
+                size++;
+            }
+        }
+        this.size = size;
+    }
+
+    /**
+     * Loads the known triples from a TSV file whose lines are "subject TAB predicate TAB object" identifiers.
+     *
+     * @param triplesFile TSV file of triples of identifiers
+     * @param bloomFilter True to check a Bloom filter before the hash table
+     * @return Known triples
+     * @throws IOException Exception raised if the file cannot be read
+     */
+    public static KnownTriples load(File triplesFile, boolean bloomFilter) throws IOException {
+        long[] subjects = new long[1 << 16], predicates = new long[1 << 16], objects = new long[1 << 16];
+        int numTriples = 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(triplesFile.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String trimmedLine = line.trim();
+                if (trimmedLine.isEmpty()) {
+                    continue;
+                }
+
+                String[] fields = trimmedLine.split("\\s+");
+                if (fields.length != 3) {
+                    throw new IOException("Invalid known triple: " + line);
+                }
+                if (numTriples == subjects.length) {
+                    subjects = Arrays.copyOf(subjects, 2 * numTriples);
+                    predicates = Arrays.copyOf(predicates, 2 * numTriples);
+                    objects = Arrays.copyOf(objects, 2 * numTriples);
+                }
+
+                try {
+                    subjects[numTriples] = Long.parseLong(fields[0]);
+                    predicates[numTriples] = Long.parseLong(fields[1]);
+                    objects[numTriples] = Long.parseLong(fields[2]);
+                } catch (NumberFormatException e) {
+                    throw new IOException("Invalid known triple: " + line, e);
+                }
+                numTriples++;
+            }
+        }
+
+        return new KnownTriples(subjects, predicates, objects, numTriples, bloomFilter);
+    }
+
+    /**
+     * Checks whether the given triple is known.
+     *
+     * @param subject Subject identifier
+     * @param predicate Predicate identifier
+     * @param object Object identifier
+     * @return True if the triple is known, False otherwise
+     */
+    public boolean contains(long subject, long predicate, long object) {
+        if (subject < 0 || subject > maxSubject || predicate < 0 || predicate > maxPredicate ||
+                object < 0 || object > maxObject) {
+            return false;
+        }
+
+        long key = pack(subject, predicate, object);
+        long hash = hash(key);
+        if (bloomFilter != null && !mightContain(hash)) {
+            return false;
+        }
+
+        int mask = slots.length - 1;
+        for (int slot = (int) hash & mask; slots[slot] != EMPTY_SLOT; slot = (slot + 1) & mask) {
+            if (slots[slot] == key) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of bytes used by the hash table and the Bloom filter.
+     *
+     * @return Size in bytes of the index
+     */
+    public long getFootprint() {
+        return 8L * slots.length + ((bloomFilter != null) ? 8L * bloomFilter.length : 0);
+    }
+
+    private long pack(long subject, long predicate, long object) {
+        return (((subject << predicateBits) | predicate) << objectBits) | object;
+    }
+
+    /**
+     * Inserts a packed triple into the hash table and the Bloom filter.
+     *
+     * @param key Packed triple
+     * @return True if the triple has been inserted, False if it was already present
+     */
+    private boolean insert(long key) {
+        long hash = hash(key);
+        int mask = slots.length - 1;
+        int slot = (int) hash & mask;
+
+        while (slots[slot] != EMPTY_SLOT) {
+            if (slots[slot] == key) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = key;
+
+        if (bloomFilter != null) {
+            long numBits = 64L * bloomFilter.length;
+            for (int i = 0; i < BLOOM_FILTER_HASHES; i++) {
+                long bit = Long.remainderUnsigned(bloomHash(hash, i), numBits);
+                bloomFilter[(int) (bit >>> 6)] |= 1L << bit;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean mightContain(long hash) {
+        long numBits = 64L * bloomFilter.length;
+        for (int i = 0; i < BLOOM_FILTER_HASHES; i++) {
+            long bit = Long.remainderUnsigned(bloomHash(hash, i), numBits);
+            if ((bloomFilter[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Derives the hashes of the Bloom filter from the two halves of the triple hash (double hashing).
+     *
+     * @param hash Hash of the triple
+     * @param i Index of the Bloom filter hash
+     * @return Bloom filter hash
+     */
+    private static long bloomHash(long hash, int i) {
+        return (hash >>> 32) + i * ((hash & 0xFFFFFFFFL) | 1);
+    }
+
+    /**
+     * Mixes the bits of a packed triple, since slots are selected using the lowest bits of the hash.
+     *
+     * @param key Packed triple
+     * @return Hash of the packed triple
+     */
+    private static long hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+        h *= 0xBF58476D1CE4E5B9L;
+        return h ^ (h >>> 29);
+    }
+
+    private static int bits(long maxId) {
+        return Math.max(1, 64 - Long.numberOfLeadingZeros(maxId));
+    }
+}
@@ -0,0 +1,65 @@
+package models;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Class which represents a histogram of latencies with fixed buckets.
+ * <p>
+ * Each bucket counts the observations falling between its upper bound and the one of the previous bucket;
+ * counts are accumulated when the histogram is exported.
+ */
+public class LatencyHistogram {
+    private static final double[] BUCKETS_SECONDS =
+            {0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+
+    private final long[] bucketsNanos = new long[BUCKETS_SECONDS.length];
+    private final LongAdder[] counts = new LongAdder[BUCKETS_SECONDS.length + 1];
+    private final LongAdder sumNanos = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS_SECONDS.length; i++) {
+            bucketsNanos[i] = (long) (BUCKETS_SECONDS[i] * 1e9);
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records the latency of an operation which has just ended.
+     *
+     * @param startNanos Value of System.nanoTime() when the operation started
+     */
+    public void observe(long startNanos) {
+        long latencyNanos = System.nanoTime() - startNanos;
+        int bucket = 0;
+        while (bucket < bucketsNanos.length && latencyNanos > bucketsNanos[bucket]) {
+            bucket++;
+        }
+
+        counts[bucket].increment();
+        sumNanos.add(latencyNanos);
+    }
+
+    /**
+     * Appends the histogram to a Prometheus text exposition.
+     *
+     * @param builder Builder of the exposition
+     * @param name Name of the histogram
+     * @param labels Labels of the histogram, formatted as "name=\"value\"", or an empty string
+     */
+    public void writePrometheus(StringBuilder builder, String name, String labels) {
+        String separator = labels.isEmpty() ? "" : ",";
+        long cumulativeCount = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulativeCount += counts[i].sum();
+            builder.append(name).append("_bucket{").append(labels).append(separator).append("le=\"").
+                    append((i < BUCKETS_SECONDS.length) ? String.valueOf(BUCKETS_SECONDS[i]) : "+Inf").
+                    append("\"} ").append(cumulativeCount).append('\n');
+        }
+
+        String suffix = labels.isEmpty() ? " " : "{" + labels + "} ";
+        builder.append(name).append("_sum").append(suffix).append(sumNanos.sum() / 1e9).append('\n');
+        builder.append(name).append("_count").append(suffix).append(cumulativeCount).append('\n');
+    }
+}
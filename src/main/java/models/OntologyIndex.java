@@ -0,0 +1,360 @@
+package models;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
+import org.roaringbitmap.RoaringBitmap;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+import org.semanticweb.owlapi.reasoner.OWLReasonerConfiguration;
+import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
+import org.semanticweb.owlapi.reasoner.SimpleConfiguration;
+import uk.ac.manchester.cs.jfact.JFactFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.logging.Logger;
+
+/**
+ * Class which represents the indexes derived from an ontology by the reasoner, which do not depend on the
+ * corruption strategy.
+ * <p>
+ * The indexes are read-only once they are built, so that a single instance can be shared by the triple
+ * corrupters of all the strategies and datasets using the same ontology.
+ */
+public class OntologyIndex {
+    private OWLOntology ontology;
+    private CachingReasoner reasoner;
+    private Multimap<OWLNamedIndividual, OWLClass> individualsClasses;
+    private Multimap<OWLClass, OWLNamedIndividual> classesIndividuals;
+    private ClassHierarchy classHierarchy;
+    private ClassMembership classMembership;
+    private OWLNamedIndividual[] individuals;
+    private UriDictionary individualsDictionary;
+    private IndividualEntityIds individualEntityIds;
+    private boolean aboxStreamed;
+    private final Logger logger = Logger.getLogger(OntologyIndex.class.getName());
+
+    /**
+     * Constructor which receives an ontology file to read the ontology, instantiate the reasoner and build
+     * the indexes, and the options of the triple corrupters. Only the class index, the classifier, the reasoner
+     * cache size, the ABox file and the startup phases are read from the options.
+     * <p>
+     * When an ABox file is given, the ontology file only has to contain the schema: the class assertions of the
+     * ABox file are streamed into the class index without being loaded by OWLAPI nor classified by the reasoner
+     * (see {@link #buildClassIndex(ClassIndexType, File)}).
+     *
+     * @param ontologyFile Ontology file to be read
+     * @param options Optional settings of the triple corrupters
+     * @throws OWLOntologyCreationException Exception raised if the ontology cannot be parsed
+     * @throws IOException Exception raised if the file cannot be read
+     */
+    public OntologyIndex(File ontologyFile, TripleCorrupterOptions options)
+            throws OWLOntologyCreationException, IOException {
+        StartupPhases startupPhases = (options.getStartupPhases() != null) ?
+                options.getStartupPhases() : new StartupPhases();
+
+        logger.info("-- Loading ontology: " + ontologyFile.getAbsolutePath());
+        startupPhases.start("load_ontology");
+        ontology = OWLManager.createOWLOntologyManager().loadOntology(
+                IRI.create(ontologyFile));
+        startupPhases.end("load_ontology");
+
+        startupPhases.start("precompute_reasoner");
+        reasoner = new CachingReasoner(createClassifier(options.getClassifier()), options.getReasonerCacheSize());
+        startupPhases.end("precompute_reasoner");
+
+        startupPhases.start("class_index");
+        if (options.getAboxFile() != null) {
+            logger.info("-- Building class hierarchy and streaming class assertions: " +
+                    options.getAboxFile().getAbsolutePath());
+            buildClassIndex(options.getClassIndex(), options.getAboxFile());
+        } else {
+            logger.info("-- Building class hierarchy and class index");
+            buildClassIndex(options.getClassIndex());
+        }
+        startupPhases.end("class_index");
+
+        logger.info("-- Building individuals identifiers");
+        startupPhases.start("individuals_dictionary");
+        buildIndividualsDictionary();
+        startupPhases.end("individuals_dictionary");
+
+        reasoner.invalidate();
+    }
+
+    /**
+     * Creates the classifier of the ontology. The structural classifier is used only if the ontology is a plain
+     * class hierarchy, otherwise JFact precomputes the class hierarchy.
+     *
+     * @param classifierType Classifier to be used when the ontology allows it
+     * @return Classifier of the ontology
+     */
+    private Classifier createClassifier(ClassifierType classifierType) {
+        if (classifierType == ClassifierType.STRUCTURAL) {
+            logger.info("-- Classifying told axioms");
+            try {
+                return new StructuralClassifier(ontology);
+            } catch (IllegalArgumentException e) {
+                logger.info("-- Falling back to JFact, ontology is not a plain class hierarchy: " + e.getMessage());
+            }
+        }
+
+        logger.info("-- Initializing reasoner");
+        OWLReasonerConfiguration config = new SimpleConfiguration(50000);
+        OWLReasonerFactory reasonerFactory = new JFactFactory();
+        OWLReasoner owlReasoner = reasonerFactory.createReasoner(ontology, config);
+        owlReasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        return Classifier.of(owlReasoner);
+    }
+
+    public OWLOntology getOntology() {
+        return ontology;
+    }
+
+    /**
+     * Returns whether the class assertions have been streamed from an ABox file, in which case the individuals
+     * are not known by the reasoner.
+     *
+     * @return True if the ABox has been streamed, False if the reasoner has classified the individuals
+     */
+    public boolean isAboxStreamed() {
+        return aboxStreamed;
+    }
+
+    public CachingReasoner getReasoner() {
+        return reasoner;
+    }
+
+    /**
+     * Returns the index of the classes of each individual.
+     *
+     * @return Classes of each individual, null with the BITMAP class index
+     */
+    public Multimap<OWLNamedIndividual, OWLClass> getIndividualsClasses() {
+        return individualsClasses;
+    }
+
+    /**
+     * Returns the index of the individuals of each class.
+     *
+     * @return Individuals of each class, null with the BITMAP class index
+     */
+    public Multimap<OWLClass, OWLNamedIndividual> getClassesIndividuals() {
+        return classesIndividuals;
+    }
+
+    public ClassHierarchy getClassHierarchy() {
+        return classHierarchy;
+    }
+
+    /**
+     * Returns the compressed bitmaps of the individuals of each class.
+     *
+     * @return Class membership, null with the MULTIMAP class index
+     */
+    public ClassMembership getClassMembership() {
+        return classMembership;
+    }
+
+    /**
+     * Returns the individuals of the ontology, indexed by their dense identifier.
+     *
+     * @return Individuals of the ontology
+     */
+    public OWLNamedIndividual[] getIndividuals() {
+        return individuals;
+    }
+
+    /**
+     * Returns the mapping between individual IRIs and their dense identifiers.
+     *
+     * @return Individuals dictionary
+     */
+    public UriDictionary getIndividualsDictionary() {
+        return individualsDictionary;
+    }
+
+    /**
+     * Returns the identifiers of the individuals in the entities of the indexers, shared by the triple
+     * corrupters of the ontology.
+     *
+     * @return Entity identifiers of the individuals
+     */
+    public IndividualEntityIds getIndividualEntityIds() {
+        return individualEntityIds;
+    }
+
+    /**
+     * Extracts the classified hierarchy and the individuals of each class with a single pass over the classes
+     * of the ontology, which are visited in IRI order and queried only once. With the BITMAP class index,
+     * individuals are numbered in order of first appearance.
+     *
+     * @param classIndexType Implementation of the index of the classes of the individuals
+     */
+    void buildClassIndex(ClassIndexType classIndexType) {
+        OWLClass[] classes = ontology.classesInSignature().sorted().toArray(OWLClass[]::new);
+        Map<OWLClass, Integer> classesIds = ClassHierarchy.buildClassesIds(classes);
+        BitSet[] superClasses = new BitSet[classes.length];
+        RoaringBitmap[] extensions = new RoaringBitmap[classes.length];
+        Map<OWLNamedIndividual, Integer> individualsIds = new LinkedHashMap<>();
+        boolean bitmap = classIndexType == ClassIndexType.BITMAP;
+        if (!bitmap) {
+            individualsClasses = HashMultimap.create();
+            classesIndividuals = HashMultimap.create();
+        }
+
+        for (int c = 0; c < classes.length; c++) {
+            superClasses[c] = getClassIds(reasoner.getSuperClasses(classes[c]).getFlattened(), classesIds);
+
+            Set<OWLNamedIndividual> classIndividuals = reasoner.getInstances(classes[c], false).getFlattened();
+            if (bitmap) {
+                extensions[c] = new RoaringBitmap();
+                for (OWLNamedIndividual individual : classIndividuals) {
+                    Integer individualId = individualsIds.get(individual);
+                    if (individualId == null) {
+                        individualId = individualsIds.size();
+                        individualsIds.put(individual, individualId);
+                    }
+                    extensions[c].add(individualId);
+                }
+            } else {
+                classesIndividuals.putAll(classes[c], classIndividuals);
+                for (OWLNamedIndividual individual : classIndividuals) {
+                    individualsClasses.put(individual, classes[c]);
+                }
+            }
+        }
+
+        classHierarchy = new ClassHierarchy(classes, classesIds, superClasses);
+        if (bitmap) {
+            individuals = individualsIds.keySet().toArray(new OWLNamedIndividual[0]);
+            classMembership = new ClassMembership(extensions, individuals.length);
+        }
+    }
+
+    /**
+     * Extracts the classified hierarchy from the reasoner, and builds the individuals of each class from the
+     * class assertions of the ontology and of the given ABox file, which is streamed rather than loaded. Each
+     * individual is an instance of its asserted classes, of their equivalent classes and of their superclasses:
+     * unlike the reasoner, types entailed by property domains, ranges or restrictions are not inferred.
+     * Assertions of classes which are not part of the ontology are ignored. With the BITMAP class index,
+     * individuals are numbered in order of first appearance.
+     *
+     * @param classIndexType Implementation of the index of the classes of the individuals
+     * @param aboxFile RDF file of the class assertions (see {@link TypeAssertionReader})
+     * @throws IOException Exception raised if the ABox file cannot be read or parsed
+     */
+    void buildClassIndex(ClassIndexType classIndexType, File aboxFile) throws IOException {
+        OWLClass[] classes = ontology.classesInSignature().sorted().toArray(OWLClass[]::new);
+        Map<OWLClass, Integer> classesIds = ClassHierarchy.buildClassesIds(classes);
+        BitSet[] superClasses = new BitSet[classes.length];
+        Map<String, BitSet> assertedClassesTypes = new HashMap<>();
+        for (int c = 0; c < classes.length; c++) {
+            superClasses[c] = getClassIds(reasoner.getSuperClasses(classes[c]).getFlattened(), classesIds);
+
+            BitSet types = getClassIds(reasoner.getEquivalentClasses(classes[c]).getEntities(), classesIds);
+            types.or(superClasses[c]);
+            types.set(c);
+            assertedClassesTypes.put(classes[c].getIRI().toString(), types);
+        }
+
+        OWLDataFactory dataFactory = ontology.getOWLOntologyManager().getOWLDataFactory();
+        Map<String, Integer> individualsIds = new HashMap<>();
+        List<OWLNamedIndividual> individualsList = new ArrayList<>();
+        RoaringBitmap[] extensions = new RoaringBitmap[classes.length];
+        boolean bitmap = classIndexType == ClassIndexType.BITMAP;
+        if (bitmap) {
+            for (int c = 0; c < classes.length; c++) {
+                extensions[c] = new RoaringBitmap();
+            }
+        } else {
+            individualsClasses = HashMultimap.create();
+            classesIndividuals = HashMultimap.create();
+        }
+
+        BiConsumer<String, String> addAssertion = (individualIri, classIri) -> {
+            BitSet types = assertedClassesTypes.get(classIri);
+            if (types == null) {
+                return;
+            }
+
+            if (bitmap) {
+                Integer individualId = individualsIds.get(individualIri);
+                if (individualId == null) {
+                    individualId = individualsList.size();
+                    individualsIds.put(individualIri, individualId);
+                    individualsList.add(dataFactory.getOWLNamedIndividual(IRI.create(individualIri)));
+                }
+                for (int c = types.nextSetBit(0); c >= 0; c = types.nextSetBit(c + 1)) {
+                    extensions[c].add(individualId);
+                }
+            } else {
+                OWLNamedIndividual individual = dataFactory.getOWLNamedIndividual(IRI.create(individualIri));
+                for (int c = types.nextSetBit(0); c >= 0; c = types.nextSetBit(c + 1)) {
+                    classesIndividuals.put(classes[c], individual);
+                    individualsClasses.put(individual, classes[c]);
+                }
+            }
+        };
+
+        ontology.axioms(AxiomType.CLASS_ASSERTION).
+                filter(axiom -> !axiom.getClassExpression().isAnonymous() && axiom.getIndividual().isNamed()).
+                forEach(axiom -> addAssertion.accept(axiom.getIndividual().asOWLNamedIndividual().getIRI().toString(),
+                        axiom.getClassExpression().asOWLClass().getIRI().toString()));
+        long numAssertions = TypeAssertionReader.read(aboxFile, addAssertion);
+        logger.info("-- Streamed " + numAssertions + " class assertions");
+
+        classHierarchy = new ClassHierarchy(classes, classesIds, superClasses);
+        if (bitmap) {
+            individuals = individualsList.toArray(new OWLNamedIndividual[0]);
+            classMembership = new ClassMembership(extensions, individuals.length);
+        }
+        aboxStreamed = true;
+    }
+
+    private static BitSet getClassIds(Collection<OWLClass> owlClasses, Map<OWLClass, Integer> classesIds) {
+        BitSet classIds = new BitSet(classesIds.size());
+        for (OWLClass owlClass : owlClasses) {
+            Integer classId = classesIds.get(owlClass);
+            if (classId != null) {
+                classIds.set(classId);
+            }
+        }
+
+        return classIds;
+    }
+
+    /**
+     * Assigns a dense integer identifier to each individual of the ontology.
+     * Identifiers follow the iteration order of the individuals to classes index, or the order of the class
+     * membership bitmaps when they are used.
+     */
+    void buildIndividualsDictionary() {
+        if (classMembership == null) {
+            individuals = individualsClasses.keySet().toArray(new OWLNamedIndividual[0]);
+        }
+        UriDictionary.Builder builder = DictionaryType.COMPACT.newBuilder();
+        for (int i = 0; i < individuals.length; i++) {
+            builder.add(individuals[i].getIRI().toString(), i);
+        }
+        individualsDictionary = builder.build();
+        individualEntityIds = new IndividualEntityIds(individualsDictionary);
+    }
+}
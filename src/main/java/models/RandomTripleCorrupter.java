@@ -0,0 +1,45 @@
+package models;
+
+import controllers.data.Triple;
+
+import java.util.SplittableRandom;
+
+/**
+ * Class which represents a TripleCorrupter which replaces entities with uniformly sampled entities of
+ * the indexer. It does not need any ontology, so it can serve requests while the ontology based
+ * corrupters are being created.
+ */
+public class RandomTripleCorrupter extends TripleCorrupter {
+    private final UriDictionary entities;
+    private final long[] entityIds;
+
+    /**
+     * Constructor which receives the indexer whose entities are sampled.
+     *
+     * @param indexer Mapping between URIs and integer identifiers
+     */
+    public RandomTripleCorrupter(TripleIndexer indexer) {
+        super(indexer.getEntities(), null, new IndividualEntityIds(indexer.getEntities()));
+        this.entities = indexer.getEntities();
+        this.entityIds = new long[entities.size()];
+
+        int[] numEntities = {0};
+        entities.forEach((uri, id) -> entityIds[numEntities[0]++] = id);
+    }
+
+    @Override
+    protected int corruptEntity(Triple triple, int individualId, boolean corruptSubject, SplittableRandom random) {
+        // The individuals of the corrupter are the entities of the indexer, with the same identifiers
+        int corruptedEntity;
+        do {
+            corruptedEntity = (int) entityIds[random.nextInt(entityIds.length)];
+        } while (entityIds.length > 1 && corruptedEntity == individualId);
+
+        return corruptedEntity;
+    }
+
+    @Override
+    public boolean isDegraded() {
+        return true;
+    }
+}
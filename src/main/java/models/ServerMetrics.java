@@ -0,0 +1,159 @@
+package models;
+
+import com.google.inject.Singleton;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Class which represents the metrics of the web server, exported in the Prometheus text format.
+ */
+@Singleton
+public class ServerMetrics {
+    private final Map<String, LatencyHistogram> requestLatencies = new ConcurrentHashMap<>();
+    private final LongAdder triples = new LongAdder();
+    private final LongAdder corruptedTriples = new LongAdder();
+
+    /**
+     * Records a request which has just been served.
+     *
+     * @param endpoint Name of the endpoint
+     * @param startNanos Value of System.nanoTime() when the request was received
+     * @param numTriples Number of input triples
+     * @param numCorruptedTriples Number of corrupted triples generated for all the input triples
+     */
+    public void recordRequest(String endpoint, long startNanos, long numTriples, long numCorruptedTriples) {
+        requestLatencies.computeIfAbsent(endpoint, e -> new LatencyHistogram()).observe(startNanos);
+        triples.add(numTriples);
+        corruptedTriples.add(numCorruptedTriples);
+    }
+
+    /**
+     * Exports the metrics of the server and of the triple corrupters and the indexers of the given generation.
+     * The samples of each triple corrupter are labelled by its dataset and strategy, and the ones of each
+     * indexer by the first dataset using it.
+     *
+     * @param generation Datasets of the server
+     * @param scheduler Scheduler of the corruption requests, whose metrics are exported when it is enabled
+     * @return Metrics in the Prometheus text format
+     */
+    public String toPrometheus(Generation generation, CorruptionScheduler scheduler) {
+        StringBuilder builder = new StringBuilder();
+
+        writeHeader(builder, "berlusca_request_duration_seconds", "histogram", "Latency of the corruption requests");
+        requestLatencies.forEach((endpoint, histogram) ->
+                histogram.writePrometheus(builder, "berlusca_request_duration_seconds",
+                        "endpoint=\"" + endpoint + "\""));
+        writeCounter(builder, "berlusca_triples_total", "Input triples of the corruption requests",
+                triples.sum());
+        writeCounter(builder, "berlusca_corrupted_triples_total", "Corrupted triples generated by the requests",
+                corruptedTriples.sum());
+
+        if (scheduler.isEnabled()) {
+            writeGauge(builder, "berlusca_scheduler_queue_depth", "Corruption requests waiting for a worker",
+                    scheduler.getQueueDepth());
+            writeGauge(builder, "berlusca_scheduler_busy_workers", "Workers executing a corruption request",
+                    scheduler.getBusyWorkers());
+            writeCounter(builder, "berlusca_scheduler_rejected_total",
+                    "Corruption requests rejected because the queue was full", scheduler.getRejectedRequests());
+            writeCounter(builder, "berlusca_scheduler_expired_total",
+                    "Corruption requests rejected because they waited longer than the queue timeout",
+                    scheduler.getExpiredRequests());
+            writeCounter(builder, "berlusca_scheduler_executed_total", "Corruption requests executed by the workers",
+                    scheduler.getExecutedRequests());
+        }
+
+        Map<String, TripleCorrupter> corrupters = new LinkedHashMap<>();
+        Map<TripleIndexer, String> indexers = new LinkedHashMap<>();
+        for (Dataset dataset : generation.getDatasets()) {
+            dataset.getCorrupters().forEach((corrupterId, corrupter) -> corrupters.put(
+                    "dataset=\"" + dataset.getName() + "\",strategy=\"" + corrupterId + "\",corrupter=\"" +
+                            corrupter.getClass().getSimpleName() + "\"", corrupter));
+            indexers.putIfAbsent(dataset.getIndexer(), "dataset=\"" + dataset.getName() + "\"");
+        }
+
+        writeCounters(builder, "berlusca_random_fallbacks_total", "Corrupted triples generated by random sampling",
+                corrupters, CorrupterMetrics::getRandomFallbacks);
+        writeCounters(builder, "berlusca_reasoner_errors_total", "Reasoner queries which raised an exception",
+                corrupters, CorrupterMetrics::getReasonerErrors);
+        writeCounters(builder, "berlusca_unknown_ids_total",
+                "Identifiers and URIs not found in the indexer while corrupting triples", corrupters,
+                CorrupterMetrics::getUnknownIds);
+        writeCounters(builder, "berlusca_exhausted_retries_total",
+                "Corrupted triples which are known triples because all their retries failed", corrupters,
+                CorrupterMetrics::getExhaustedRetries);
+
+        Map<String, TripleCorrupter> cachingCorrupters = new LinkedHashMap<>();
+        corrupters.forEach((labels, corrupter) -> {
+            if (corrupter.getMetrics().getReasonerCacheStats() != null) {
+                cachingCorrupters.put(labels, corrupter);
+            }
+        });
+        if (!cachingCorrupters.isEmpty()) {
+            writeCounters(builder, "berlusca_reasoner_cache_hits_total", "Reasoner queries answered by the cache",
+                    cachingCorrupters, metrics -> metrics.getReasonerCacheStats().hitCount());
+            writeCounters(builder, "berlusca_reasoner_cache_misses_total", "Reasoner queries sent to the reasoner",
+                    cachingCorrupters, metrics -> metrics.getReasonerCacheStats().missCount());
+            writeCounters(builder, "berlusca_reasoner_cache_evictions_total",
+                    "Reasoner results evicted from the cache", cachingCorrupters,
+                    metrics -> metrics.getReasonerCacheStats().evictionCount());
+        }
+
+        writeGauge(builder, "berlusca_degraded",
+                "1 if requests are served by random sampling until the configured corrupters are ready",
+                generation.isDegraded() ? 1 : 0);
+
+        writeHeader(builder, "berlusca_startup_phase_seconds", "gauge", "Duration of the startup phases");
+        corrupters.forEach((labels, corrupter) -> writePhases(builder, "component=\"corrupter\"," + labels,
+                corrupter.getMetrics().getStartupPhases()));
+        indexers.forEach((indexer, labels) ->
+                writePhases(builder, "component=\"indexer\"," + labels, indexer.getStartupPhases()));
+
+        writeHeader(builder, "berlusca_index_bytes", "gauge", "Approximate heap footprint of the indexes");
+        corrupters.forEach((labels, corrupter) -> corrupter.getIndexFootprints().forEach((index, bytes) ->
+                writeSample(builder, "berlusca_index_bytes", labels + ",index=\"" + index + "\"", bytes)));
+        indexers.forEach((indexer, labels) -> {
+            writeSample(builder, "berlusca_index_bytes", labels + ",index=\"entities\"",
+                    indexer.getEntities().getFootprint());
+            writeSample(builder, "berlusca_index_bytes", labels + ",index=\"relations\"",
+                    indexer.getRelations().getFootprint());
+        });
+
+        return builder.toString();
+    }
+
+    private static void writePhases(StringBuilder builder, String labels, StartupPhases startupPhases) {
+        startupPhases.getDurations().forEach((phase, nanos) -> writeSample(builder, "berlusca_startup_phase_seconds",
+                labels + ",phase=\"" + phase + "\"", nanos / 1e9));
+    }
+
+    private static void writeCounters(StringBuilder builder, String name, String help,
+                                      Map<String, TripleCorrupter> corrupters,
+                                      ToLongFunction<CorrupterMetrics> counter) {
+        writeHeader(builder, name, "counter", help);
+        corrupters.forEach((labels, corrupter) ->
+                writeSample(builder, name, labels, counter.applyAsLong(corrupter.getMetrics())));
+    }
+
+    private static void writeCounter(StringBuilder builder, String name, String help, long value) {
+        writeHeader(builder, name, "counter", help);
+        builder.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void writeGauge(StringBuilder builder, String name, String help, long value) {
+        writeHeader(builder, name, "gauge", help);
+        builder.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void writeHeader(StringBuilder builder, String name, String type, String help) {
+        builder.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        builder.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void writeSample(StringBuilder builder, String name, String labels, Object value) {
+        builder.append(name).append('{').append(labels).append("} ").append(value).append('\n');
+    }
+}
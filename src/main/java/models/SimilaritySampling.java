@@ -0,0 +1,16 @@
+package models;
+
+/**
+ * Identifiers of the strategies used by SimilarityTripleCorrupter to choose the class of the corrupted entity.
+ */
+public enum SimilaritySampling {
+    /**
+     * The class having the lowest Leacock-Chodorow similarity with the type of the entity.
+     */
+    NEAREST,
+    /**
+     * Any class having individuals, drawn with probability proportional to a power of its Leacock-Chodorow
+     * dissimilarity with the type of the entity.
+     */
+    WEIGHTED
+}
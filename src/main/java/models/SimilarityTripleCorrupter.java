@@ -2,150 +2,292 @@ package models;
 
 import controllers.data.Triple;
 import org.jgrapht.Graph;
-import org.jgrapht.GraphPath;
-import org.jgrapht.alg.FloydWarshallShortestPaths;
 import org.jgrapht.graph.DefaultEdge;
 import org.jgrapht.graph.SimpleGraph;
-import org.semanticweb.owlapi.model.IRI;
 import org.semanticweb.owlapi.model.OWLClass;
-import org.semanticweb.owlapi.model.OWLNamedIndividual;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
-import org.semanticweb.owlapi.reasoner.NodeSet;
-import uk.ac.manchester.cs.owl.owlapi.OWLNamedIndividualImpl;
+import org.semanticweb.owlapi.reasoner.Node;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Class which represents a TripleCorrupter using Similarity strategy.
+ * <p>
+ * With the NEAREST sampling, the corrupted entity is drawn uniformly among the individuals of the class having
+ * the lowest Leacock-Chodorow similarity with the type of the original entity. With the WEIGHTED sampling, the
+ * class is drawn among all the classes having individuals, with probability proportional to a power of their
+ * dissimilarity (the opposite of the Leacock-Chodorow similarity), using an alias table precomputed for each
+ * type, then the entity is drawn uniformly among its individuals.
  */
 public class SimilarityTripleCorrupter extends TripleCorrupter {
-    private final Map<OWLClass, Map<OWLClass, Double>> nodesLCDistances;
+    private final HierarchyDistances nodeDistances;
+    private final double[] distancesLCSimilarities;
     private Graph<OWLClass, DefaultEdge> conceptHierarchy;
     private double hierarchyDepth;
+    private int[] individualsTypes;
+    private int[] nearestClasses;
+    private int[][] weightedClassesIndividuals;
+    private AliasTable[] typesAliasTables;
+    private int[][] typesWeightedClasses;
 
     public SimilarityTripleCorrupter(File ontologyFile) throws OWLOntologyCreationException, IOException {
-        super(ontologyFile);
+        this(ontologyFile, new TripleCorrupterOptions());
+    }
+
+    public SimilarityTripleCorrupter(File ontologyFile, TripleCorrupterOptions options)
+            throws OWLOntologyCreationException, IOException {
+        this(new OntologyIndex(ontologyFile, options), options);
+    }
+
+    public SimilarityTripleCorrupter(OntologyIndex ontologyIndex, TripleCorrupterOptions options) throws IOException {
+        super(ontologyIndex, options);
+        StartupPhases startupPhases = metrics.getStartupPhases();
+
+        startupPhases.start("concept_hierarchy");
         this.conceptHierarchy = buildConceptHierarchy();
-        Map<OWLClass, Map<OWLClass, Integer>> nodeDistances = computeNodeDistances();
+        startupPhases.end("concept_hierarchy");
+
+        logger.info("-- Computing concept hierarchy distances");
+        startupPhases.start("hierarchy_distances");
+        this.nodeDistances = new HierarchyDistances(conceptHierarchy);
         this.hierarchyDepth = computeHierarchyDepth(nodeDistances);
-        this.nodesLCDistances = computeLeacockChodorowSimilarities(nodeDistances);
-    }
+        this.distancesLCSimilarities = computeLeacockChodorowSimilarities(nodeDistances);
+        startupPhases.end("hierarchy_distances");
 
-    private Map<OWLClass, Map<OWLClass, Double>> computeLeacockChodorowSimilarities(
-            Map<OWLClass, Map<OWLClass, Integer>> nodeDistances) {
-        Map<OWLClass, Map<OWLClass, Double>> lcSimilarities = new HashMap<>();
+        logger.info("-- Building individuals direct types index");
+        startupPhases.start("individuals_types");
+        buildIndividualsTypes();
+        startupPhases.end("individuals_types");
 
-        for (OWLClass c1 : nodeDistances.keySet()) {
-            Map<OWLClass, Integer> c1Distances = nodeDistances.get(c1);
-            Map<OWLClass, Double> c1LCSimilarities = lcSimilarities.get(c1);
-            if (c1LCSimilarities == null) {
-                c1LCSimilarities = new HashMap<>();
-                lcSimilarities.put(c1, c1LCSimilarities);
-            }
+        if (options.getSimilaritySampling() == SimilaritySampling.WEIGHTED) {
+            logger.info("-- Building weighted classes alias tables");
+            startupPhases.start("alias_tables");
+            buildAliasTables(options.getSimilarityWeightExponent());
+            startupPhases.end("alias_tables");
+        } else {
+            logger.info("-- Building nearest classes index");
+            startupPhases.start("nearest_classes");
+            buildNearestClasses();
+            startupPhases.end("nearest_classes");
+
+            logger.info("-- Building nearest classes candidate pools");
+            startupPhases.start("candidate_pools");
+            buildCandidatePools();
+            startupPhases.end("candidate_pools");
+        }
+    }
 
-            for (OWLClass c2 : c1Distances.keySet()) {
-                c1LCSimilarities.put(c2, computeLeacockChodorow(c1, c2, nodeDistances));
+    @Override
+    public Map<String, Long> getIndexFootprints() {
+        Map<String, Long> footprints = super.getIndexFootprints();
+        footprints.put("hierarchy_distances", nodeDistances.getFootprint());
+        footprints.put("individuals_types", 4L * individualsTypes.length);
+        if (nearestClasses != null) {
+            footprints.put("nearest_classes", 4L * nearestClasses.length);
+        }
+        if (typesAliasTables != null) {
+            long aliasTablesFootprint = 8L * typesAliasTables.length;
+            for (int t = 0; t < typesAliasTables.length; t++) {
+                if (typesAliasTables[t] != null) {
+                    aliasTablesFootprint += typesAliasTables[t].getFootprint() + 16 + 4L * typesWeightedClasses[t].length;
+                }
+            }
+            long individualsFootprint = 0;
+            for (int[] classIndividuals : weightedClassesIndividuals) {
+                individualsFootprint += 16 + 4L * classIndividuals.length;
             }
+            footprints.put("alias_tables", aliasTablesFootprint);
+            footprints.put("weighted_classes_individuals", individualsFootprint);
+        }
+
+        return footprints;
+    }
+
+    /**
+     * Computes the Leacock-Chodorow similarity associated to each path length of the hierarchy.
+     *
+     * @param nodeDistances Distances between the classes of the hierarchy
+     * @return Array of similarities indexed by path length
+     */
+    private double[] computeLeacockChodorowSimilarities(HierarchyDistances nodeDistances) {
+        int maxDistance = 0;
+        for (int c = 0; c < nodeDistances.size(); c++) {
+            maxDistance = Math.max(maxDistance, nodeDistances.getMaxDistance(c));
+        }
+
+        double[] lcSimilarities = new double[maxDistance + 1];
+        for (int distance = 0; distance <= maxDistance; distance++) {
+            lcSimilarities[distance] = computeLeacockChodorow(distance);
         }
 
         return lcSimilarities;
     }
 
     @Override
-    protected Triple corrupt(Triple triple, boolean corruptSubject) {
-        OWLNamedIndividual iriIndividual = (corruptSubject) ?
-                new OWLNamedIndividualImpl(IRI.create(triple.subject)) :
-                new OWLNamedIndividualImpl(IRI.create(triple.object));
-        Triple corruptedTriple = null;
-        OWLClass individualClass = null,
-                nearestClass = null;
-
-        try {
-            final NodeSet<OWLClass> individualTypes = reasoner.getTypes(iriIndividual, true);
-
-            if (individualTypes != null && !individualTypes.isEmpty()) {
-                for (OWLClass owlClass : individualTypes.getFlattened()) {
-                    individualClass = owlClass;
-                }
+    protected int corruptEntity(Triple triple, int individualId, boolean corruptSubject, SplittableRandom random) {
+        if (typesAliasTables == null) {
+            return corruptFromPools(individualId, random);
+        }
 
-                Map<OWLClass, Double> individualSimilarities = nodesLCDistances.get(individualClass);
-
-                if (individualSimilarities != null && !individualSimilarities.isEmpty()) {
-                    for (OWLClass c : individualSimilarities.keySet()) {
-                        if (nearestClass != null) {
-                            if (individualSimilarities.get(nearestClass) > individualSimilarities.get(c)) {
-                                nearestClass = c;
-                            }
-                        } else {
-                            nearestClass = c;
-                        }
-                    }
+        int typeId = (individualId != -1) ? individualsTypes[individualId] : -1;
+        AliasTable aliasTable = (typeId != -1) ? typesAliasTables[typeId] : null;
 
-                    List<OWLNamedIndividual> corruptedIndividuals = new ArrayList<>(classesIndividuals.get(nearestClass));
-
-                    OWLNamedIndividual corruptedEntity = corruptedIndividuals.get(
-                            randomEntityGenerator.nextInt(corruptedIndividuals.size()));
-                    corruptedTriple = new Triple();
-                    if (corruptSubject) {
-                        corruptedTriple.subject = corruptedEntity.getIRI().toString();
-                        corruptedTriple.predicate = triple.predicate;
-                        corruptedTriple.object = triple.object;
-                    } else {
-                        corruptedTriple.subject = triple.subject;
-                        corruptedTriple.predicate = triple.predicate;
-                        corruptedTriple.object = corruptedEntity.getIRI().toString();
-                    }
-                }
+        if (aliasTable == null) {
+            metrics.incrementRandomFallbacks();
+            return generateRandomEntity(individualId, random);
+        }
+
+        int[] classIndividuals = weightedClassesIndividuals[typesWeightedClasses[typeId][aliasTable.sample(random)]];
+        return classIndividuals[random.nextInt(classIndividuals.length)];
+    }
+
+    /**
+     * Resolves the direct type of each individual of the ontology, the most specific of its classes in the
+     * class hierarchy, computing the individuals in parallel. When an individual has several direct types,
+     * the last one in IRI order is kept.
+     */
+    void buildIndividualsTypes() {
+        individualsTypes = new int[individuals.length];
+        Arrays.parallelSetAll(individualsTypes, i -> {
+            int[] directTypes = classHierarchy.getMostSpecificClasses(getIndividualClassIds(i));
+            Integer individualClassId = (directTypes.length > 0) ?
+                    nodeDistances.getId(classHierarchy.getOWLClass(directTypes[directTypes.length - 1])) : null;
+            return (individualClassId != null) ? individualClassId : -1;
+        });
+    }
+
+    /**
+     * Resolves the nearest class of each class of the hierarchy.
+     */
+    void buildNearestClasses() {
+        nearestClasses = new int[nodeDistances.size()];
+        Arrays.parallelSetAll(nearestClasses, this::findNearestClass);
+    }
+
+    /**
+     * Builds the candidate pools of the individuals: the candidates of an individual are the
+     * individuals of the nearest class of its direct type.
+     */
+    private void buildCandidatePools() {
+        int[] classesPools = new int[nodeDistances.size()];
+        Arrays.fill(classesPools, CandidatePools.NO_POOL);
+        List<int[]> pools = new ArrayList<>();
+        int[] individualsPools = new int[individuals.length];
+
+        for (int i = 0; i < individuals.length; i++) {
+            int nearestClassId = (individualsTypes[i] != -1) ? nearestClasses[individualsTypes[i]] : -1;
+
+            if (nearestClassId != -1 && classesPools[nearestClassId] == CandidatePools.NO_POOL) {
+                classesPools[nearestClassId] = pools.size();
+                pools.add(getClassIndividualIds(nodeDistances.getOWLClass(nearestClassId)));
             }
-        } catch (Exception e) {
-            logger.warning("Reasoner error: unable to execute getTypes!");
+
+            individualsPools[i] = (nearestClassId != -1) ? classesPools[nearestClassId] : CandidatePools.NO_POOL;
         }
 
-        return (corruptedTriple == null) ? generateRandomTriple(triple, iriIndividual, corruptSubject) : corruptedTriple;
+        candidatePools = new CandidatePools(pools.toArray(new int[0][]), individualsPools);
     }
 
-    private Map<OWLClass, Map<OWLClass, Integer>> computeNodeDistances() {
-        Map<OWLClass, Map<OWLClass, Integer>> distances = new HashMap<>();
-        FloydWarshallShortestPaths<OWLClass, DefaultEdge> floydAlgorithm = new FloydWarshallShortestPaths<>(conceptHierarchy);
+    /**
+     * Builds the alias table of each class which is the direct type of an individual. The outcomes of the
+     * tables are the classes having individuals, weighted by their Leacock-Chodorow dissimilarity with the
+     * type raised to the given exponent; the type itself and the classes it is not connected to have weight 0.
+     * <p>
+     * Only the classes having a weight greater than 0 are kept in the table of each type, along with their
+     * index among the classes having individuals, so the memory used is proportional to the number of
+     * weighted outcomes rather than to the number of types times the number of classes. It is still quadratic
+     * in the worst case, when every type is connected to every class having individuals.
+     *
+     * @param exponent Exponent of the dissimilarities
+     */
+    void buildAliasTables(double exponent) {
+        List<Integer> weightedClasses = new ArrayList<>();
+        List<int[]> classesIndividualsIds = new ArrayList<>();
+        for (int c = 0; c < nodeDistances.size(); c++) {
+            int[] classIndividuals = getClassIndividualIds(nodeDistances.getOWLClass(c));
+            if (classIndividuals.length > 0) {
+                weightedClasses.add(c);
+                classesIndividualsIds.add(classIndividuals);
+            }
+        }
 
-        for (GraphPath<OWLClass, DefaultEdge> path : floydAlgorithm.getShortestPaths()) {
-            OWLClass startVertex = path.getStartVertex(),
-                    endVertex = path.getEndVertex();
-            Map<OWLClass, Integer> startDistances = distances.get(startVertex),
-                    endDistances = distances.get(endVertex);
+        boolean[] types = new boolean[nodeDistances.size()];
+        for (int typeId : individualsTypes) {
+            if (typeId != -1) {
+                types[typeId] = true;
+            }
+        }
 
-            if (startDistances == null) {
-                startDistances = new HashMap<>();
-                distances.put(startVertex, startDistances);
+        AliasTable[] aliasTables = new AliasTable[nodeDistances.size()];
+        int[][] aliasTablesClasses = new int[nodeDistances.size()][];
+        IntStream.range(0, aliasTables.length).parallel().filter(t -> types[t]).forEach(t -> {
+            double[] weights = new double[weightedClasses.size()];
+            int[] outcomes = new int[weightedClasses.size()];
+            int numOutcomes = 0;
+            for (int k = 0; k < weights.length; k++) {
+                int c = weightedClasses.get(k);
+                int distance = nodeDistances.getDistance(t, c);
+                double dissimilarity = (c != t && distance != HierarchyDistances.UNREACHABLE) ?
+                        -distancesLCSimilarities[distance] : 0;
+                // Large exponents must not overflow the sum of the weights, nor keep weights rounded to 0
+                double weight = (dissimilarity > 0) ?
+                        Math.min(Math.pow(dissimilarity, exponent), Double.MAX_VALUE / weights.length) : 0;
+                if (weight > 0) {
+                    weights[numOutcomes] = weight;
+                    outcomes[numOutcomes++] = k;
+                }
             }
-            startDistances.put(path.getEndVertex(), path.getEdgeList().size());
+            if (numOutcomes > 0) {
+                aliasTables[t] = new AliasTable(Arrays.copyOf(weights, numOutcomes));
+                aliasTablesClasses[t] = Arrays.copyOf(outcomes, numOutcomes);
+            }
+        });
+
+        weightedClassesIndividuals = classesIndividualsIds.toArray(new int[0][]);
+        typesWeightedClasses = aliasTablesClasses;
+        typesAliasTables = aliasTables;
+    }
 
-            if (endDistances == null) {
-                endDistances = new HashMap<>();
-                distances.put(endVertex, endDistances);
+    /**
+     * Finds the class having the lowest Leacock-Chodorow similarity value with respect to the given class.
+     * Ties are broken in favour of the class having the lowest identifier.
+     *
+     * @param classId Identifier of the class
+     * @return Identifier of the selected class, -1 if the class is not connected to any other class
+     */
+    private int findNearestClass(int classId) {
+        int nearestClassId = -1;
+
+        for (int c = 0; c < nodeDistances.size(); c++) {
+            int distance = nodeDistances.getDistance(classId, c);
+            if (c != classId && distance != HierarchyDistances.UNREACHABLE) {
+                if (nearestClassId == -1 || distancesLCSimilarities[nodeDistances.getDistance(classId, nearestClassId)] >
+                        distancesLCSimilarities[distance]) {
+                    nearestClassId = c;
+                }
             }
-            endDistances.put(path.getStartVertex(), path.getEdgeList().size());
         }
 
-        return distances;
+        return nearestClassId;
     }
 
-    private int computeHierarchyDepth(Map<OWLClass, Map<OWLClass, Integer>> nodeDistances) {
+    private int computeHierarchyDepth(HierarchyDistances nodeDistances) {
         OWLClass rootNode = reasoner.getTopClassNode().getRepresentativeElement();
-        Map<OWLClass, Integer> rootDistances = nodeDistances.get(rootNode);
 
-        return rootDistances.values().stream().max(Integer::compareTo).get();
+        return nodeDistances.getMaxDistance(nodeDistances.getId(rootNode));
     }
 
     // Leacock-Chodorow similarity = -log (path_length / (2 * D))
     // We sum 1 to the argument of the logarithm to avoid zero logarithm
-    private double computeLeacockChodorow(OWLClass a, OWLClass b, Map<OWLClass, Map<OWLClass, Integer>> nodeDistances) {
-        return -1 * Math.log10(1 + (nodeDistances.get(a).get(b) / (2 * hierarchyDepth)));
+    private double computeLeacockChodorow(int pathLength) {
+        return -1 * Math.log10(1 + (pathLength / (2 * hierarchyDepth)));
     }
 
-    private Graph<OWLClass, DefaultEdge> buildConceptHierarchy() throws IOException {
+    Graph<OWLClass, DefaultEdge> buildConceptHierarchy() throws IOException {
         Graph<OWLClass, DefaultEdge> conceptHierarchy =
                 new SimpleGraph<>(DefaultEdge.class);
         Queue<OWLClass> classQueue = new LinkedList<>();
@@ -157,7 +299,10 @@ public class SimilarityTripleCorrupter extends TripleCorrupter {
             OWLClass currentClass = classQueue.poll();
             if (!currentClass.isOWLNothing()) {
                 conceptHierarchy.addVertex(currentClass);
-                NodeSet<OWLClass> childrenClasses = reasoner.getSubClasses(currentClass, true);
+                // JFact may return empty nodes, which do not have any representative element
+                Set<Node<OWLClass>> childrenClasses = reasoner.getSubClasses(currentClass, true).getNodes().stream().
+                        filter(c -> !c.getEntities().isEmpty()).
+                        collect(Collectors.toSet());
                 childrenClasses.forEach(c -> {
                     OWLClass childClass = c.getRepresentativeElement();
                     if (!visitedClasses.contains(childClass)) {
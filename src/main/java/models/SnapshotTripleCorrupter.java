@@ -0,0 +1,21 @@
+package models;
+
+import controllers.data.Triple;
+
+import java.util.SplittableRandom;
+
+/**
+ * Class which represents a TripleCorrupter restored from a snapshot of its candidate pools.
+ * It does not need neither the ontology nor the reasoner.
+ */
+public class SnapshotTripleCorrupter extends TripleCorrupter {
+    SnapshotTripleCorrupter(UriDictionary individualsDictionary, CandidatePools candidatePools,
+                            IndividualEntityIds individualEntityIds) {
+        super(individualsDictionary, candidatePools, individualEntityIds);
+    }
+
+    @Override
+    protected int corruptEntity(Triple triple, int individualId, boolean corruptSubject, SplittableRandom random) {
+        return corruptFromPools(individualId, random);
+    }
+}
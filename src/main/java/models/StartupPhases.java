@@ -0,0 +1,118 @@
+package models;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Class which represents the durations of the startup phases of a component, in execution order.
+ * <p>
+ * Phases can be read while the component is starting, in order to report its progress. Several components
+ * can record their phases in the same object through views which prefix the names of their phases, and
+ * which read back only their own phases.
+ */
+public class StartupPhases {
+    private final Map<String, Long> durations;
+    private final StartupPhases root;
+    private final String prefix;
+    private String runningPhase;
+    private long runningPhaseStart;
+
+    /**
+     * Constructor which creates an empty record of phases.
+     */
+    public StartupPhases() {
+        this.durations = new LinkedHashMap<>();
+        this.root = this;
+        this.prefix = "";
+    }
+
+    private StartupPhases(StartupPhases root, String prefix) {
+        this.durations = null;
+        this.root = root;
+        this.prefix = prefix;
+    }
+
+    /**
+     * Returns a view which records its phases in this object, prefixing their names. The durations and the
+     * running phase of the view are the ones of its phases, without the prefix, while this object reports the
+     * phases of all its views.
+     *
+     * @param phasePrefix Prefix of the names of the phases recorded by the view
+     * @return View of this object
+     */
+    public StartupPhases withPrefix(String phasePrefix) {
+        return new StartupPhases(root, prefix + phasePrefix);
+    }
+
+    /**
+     * Records the start of a phase.
+     *
+     * @param phase Name of the phase
+     */
+    public void start(String phase) {
+        synchronized (root) {
+            root.runningPhase = prefix + phase;
+            root.runningPhaseStart = System.nanoTime();
+        }
+    }
+
+    /**
+     * Records the end of the running phase.
+     *
+     * @param phase Name of the phase
+     */
+    public void end(String phase) {
+        synchronized (root) {
+            if (!(prefix + phase).equals(root.runningPhase)) {
+                throw new IllegalStateException("Phase " + prefix + phase + " is not running");
+            }
+
+            root.durations.put(root.runningPhase, System.nanoTime() - root.runningPhaseStart);
+            root.runningPhase = null;
+        }
+    }
+
+    /**
+     * Returns the durations of the completed phases.
+     *
+     * @return Duration in nanoseconds of each phase, in execution order
+     */
+    public Map<String, Long> getDurations() {
+        synchronized (root) {
+            Map<String, Long> durations = new LinkedHashMap<>();
+            root.durations.forEach((phase, nanos) -> {
+                if (phase.startsWith(prefix)) {
+                    durations.put(phase.substring(prefix.length()), nanos);
+                }
+            });
+            return Collections.unmodifiableMap(durations);
+        }
+    }
+
+    /**
+     * Returns the phase which is currently running.
+     *
+     * @return Name of the running phase, null if no phase is running
+     */
+    public String getRunningPhase() {
+        synchronized (root) {
+            return isRunning() ? root.runningPhase.substring(prefix.length()) : null;
+        }
+    }
+
+    /**
+     * Returns for how long the running phase has been running.
+     *
+     * @return Elapsed time in nanoseconds, 0 if no phase is running
+     */
+    public long getRunningPhaseElapsed() {
+        synchronized (root) {
+            return isRunning() ? System.nanoTime() - root.runningPhaseStart : 0;
+        }
+    }
+
+    private boolean isRunning() {
+        return root.runningPhase != null && root.runningPhase.startsWith(prefix);
+    }
+}
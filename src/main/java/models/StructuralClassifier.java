@@ -0,0 +1,541 @@
+package models;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Multimap;
+import com.google.common.primitives.Ints;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.ClassExpressionType;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassAssertionAxiom;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataPropertyDomainAxiom;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.model.OWLNaryBooleanClassExpression;
+import org.semanticweb.owlapi.model.OWLNaryClassAxiom;
+import org.semanticweb.owlapi.model.OWLObjectPropertyDomainAxiom;
+import org.semanticweb.owlapi.model.OWLObjectPropertyRangeAxiom;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+import org.semanticweb.owlapi.reasoner.Node;
+import org.semanticweb.owlapi.reasoner.NodeSet;
+import org.semanticweb.owlapi.reasoner.impl.OWLClassNode;
+import org.semanticweb.owlapi.reasoner.impl.OWLClassNodeSet;
+import org.semanticweb.owlapi.reasoner.impl.OWLNamedIndividualNodeSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Class which represents a classifier of the ontologies which are plain class hierarchies, such as RDFS
+ * vocabularies, computing the hierarchy and the instances of the classes from the told axioms instead of
+ * running a tableau reasoner.
+ * <p>
+ * The told subclass and equivalence axioms between named classes form a graph whose strongly connected
+ * components are the sets of equivalent classes. The superclasses of the components are computed as bitsets
+ * with a single pass over the components in reverse topological order, and the instances of a class are the
+ * individuals asserted of the class, of its equivalent classes or of its subclasses.
+ * <p>
+ * The answers are the ones of a complete reasoner only if no other axiom entails a subsumption or a class
+ * assertion, so the ontology is rejected unless it contains only subclass, equivalence and disjointness axioms
+ * between named classes, assertions of named classes, property assertions, annotations and, in ontologies
+ * without property assertions, property axioms whose domains and ranges are named classes or unions and
+ * intersections of them. Disjoint classes must neither make a class unsatisfiable nor the individuals
+ * inconsistent. Only the named classes, their unions and their intersections can be queried.
+ */
+public class StructuralClassifier implements Classifier {
+    private static final int THING = 0;
+    private static final Set<AxiomType<?>> NEUTRAL_AXIOM_TYPES = ImmutableSet.of(
+            AxiomType.DECLARATION, AxiomType.ANNOTATION_ASSERTION, AxiomType.SUB_ANNOTATION_PROPERTY_OF,
+            AxiomType.ANNOTATION_PROPERTY_DOMAIN, AxiomType.ANNOTATION_PROPERTY_RANGE,
+            AxiomType.DIFFERENT_INDIVIDUALS);
+    private static final Set<AxiomType<?>> PROPERTY_AXIOM_TYPES = ImmutableSet.of(
+            AxiomType.SUB_OBJECT_PROPERTY, AxiomType.SUB_DATA_PROPERTY, AxiomType.EQUIVALENT_OBJECT_PROPERTIES,
+            AxiomType.EQUIVALENT_DATA_PROPERTIES, AxiomType.INVERSE_OBJECT_PROPERTIES,
+            AxiomType.FUNCTIONAL_OBJECT_PROPERTY, AxiomType.FUNCTIONAL_DATA_PROPERTY,
+            AxiomType.INVERSE_FUNCTIONAL_OBJECT_PROPERTY, AxiomType.SYMMETRIC_OBJECT_PROPERTY,
+            AxiomType.TRANSITIVE_OBJECT_PROPERTY, AxiomType.OBJECT_PROPERTY_DOMAIN, AxiomType.OBJECT_PROPERTY_RANGE,
+            AxiomType.DATA_PROPERTY_DOMAIN, AxiomType.DATA_PROPERTY_RANGE);
+
+    private final OWLOntology ontology;
+    private final OWLClass[] classes;
+    private final Map<OWLClass, Integer> classesIds;
+    private final BitSet[] equivalentClasses;
+    private final BitSet[] superClasses;
+    private final BitSet[] subClasses;
+    private final Multimap<OWLClass, OWLNamedIndividual> assertedIndividuals = ArrayListMultimap.create();
+
+    /**
+     * Constructor which receives the ontology, including its imports, and classifies it.
+     *
+     * @param ontology Ontology to be classified
+     * @throws IllegalArgumentException Exception raised if the ontology is not a plain class hierarchy
+     */
+    public StructuralClassifier(OWLOntology ontology) {
+        this.ontology = ontology;
+        OWLClass thing = ontology.getOWLOntologyManager().getOWLDataFactory().getOWLThing();
+        classes = Stream.concat(Stream.of(thing), ontology.importsClosure().flatMap(OWLOntology::classesInSignature)).
+                distinct().toArray(OWLClass[]::new);
+        classesIds = ClassHierarchy.buildClassesIds(classes);
+        if (Arrays.stream(classes).anyMatch(OWLClass::isOWLNothing)) {
+            throw new IllegalArgumentException("owl:Nothing is not supported");
+        }
+
+        Multimap<Integer, Integer> toldSuperClasses = HashMultimap.create();
+        List<BitSet> disjointClasses = new ArrayList<>();
+        readAxioms(toldSuperClasses, disjointClasses);
+
+        int[][] graph = new int[classes.length][];
+        for (int c = 0; c < classes.length; c++) {
+            graph[c] = Ints.toArray(toldSuperClasses.get(c));
+        }
+        int[] components = findComponents(graph);
+        int numComponents = Arrays.stream(components).max().orElse(-1) + 1;
+
+        BitSet[] componentsMembers = new BitSet[numComponents];
+        BitSet[] componentsSuperClasses = new BitSet[numComponents];
+        BitSet[] componentsSubClasses = new BitSet[numComponents];
+        for (int k = 0; k < numComponents; k++) {
+            componentsMembers[k] = new BitSet(classes.length);
+            componentsSubClasses[k] = new BitSet(classes.length);
+        }
+        for (int c = 0; c < classes.length; c++) {
+            componentsMembers[components[c]].set(c);
+        }
+
+        // Components are numbered after all the components they reach, so superclasses are already closed
+        for (int k = 0; k < numComponents; k++) {
+            BitSet componentSuperClasses = new BitSet(classes.length);
+            BitSet members = componentsMembers[k];
+            for (int c = members.nextSetBit(0); c >= 0; c = members.nextSetBit(c + 1)) {
+                for (int superClass : graph[c]) {
+                    int superComponent = components[superClass];
+                    if (superComponent != k) {
+                        componentSuperClasses.or(componentsMembers[superComponent]);
+                        componentSuperClasses.or(componentsSuperClasses[superComponent]);
+                    }
+                }
+            }
+            if (k != components[THING]) {
+                componentSuperClasses.set(THING);
+            }
+            componentsSuperClasses[k] = componentSuperClasses;
+
+            for (int c = componentSuperClasses.nextSetBit(0); c >= 0; c = componentSuperClasses.nextSetBit(c + 1)) {
+                componentsSubClasses[components[c]].or(members);
+            }
+        }
+
+        equivalentClasses = new BitSet[classes.length];
+        superClasses = new BitSet[classes.length];
+        subClasses = new BitSet[classes.length];
+        for (int c = 0; c < classes.length; c++) {
+            equivalentClasses[c] = componentsMembers[components[c]];
+            superClasses[c] = componentsSuperClasses[components[c]];
+            subClasses[c] = componentsSubClasses[components[c]];
+        }
+
+        checkDisjointClasses(disjointClasses, componentsMembers);
+    }
+
+    /**
+     * Reads the told axioms of the ontology, checking that all of them are supported.
+     *
+     * @param toldSuperClasses Receives the told superclasses of each class, equivalent classes forming a cycle
+     * @param disjointClasses Receives the sets of pairwise disjoint classes
+     */
+    private void readAxioms(Multimap<Integer, Integer> toldSuperClasses, List<BitSet> disjointClasses) {
+        boolean propertyAssertions = false;
+        OWLAxiom propertyAxiom = null;
+        Iterator<OWLAxiom> axioms = ontology.importsClosure().flatMap(OWLOntology::axioms).iterator();
+
+        while (axioms.hasNext()) {
+            OWLAxiom axiom = axioms.next();
+            AxiomType<?> axiomType = axiom.getAxiomType();
+
+            if (axiomType == AxiomType.SUBCLASS_OF) {
+                OWLClassExpression subClass = ((OWLSubClassOfAxiom) axiom).getSubClass(),
+                        superClass = ((OWLSubClassOfAxiom) axiom).getSuperClass();
+                if (!isNamedClass(subClass) || subClass.isOWLThing() || !isNamedClass(superClass)) {
+                    throw unsupported(axiom);
+                }
+                if (!superClass.isOWLThing()) {
+                    toldSuperClasses.put(classesIds.get(subClass.asOWLClass()),
+                            classesIds.get(superClass.asOWLClass()));
+                }
+            } else if (axiomType == AxiomType.EQUIVALENT_CLASSES || axiomType == AxiomType.DISJOINT_CLASSES) {
+                List<OWLClassExpression> operands = ((OWLNaryClassAxiom) axiom).classExpressions().
+                        collect(Collectors.toList());
+                if (operands.size() < 2 || operands.stream().anyMatch(o -> !isNamedClass(o) || o.isOWLThing())) {
+                    throw unsupported(axiom);
+                }
+
+                BitSet operandsIds = new BitSet(classes.length);
+                for (int o = 0; o < operands.size(); o++) {
+                    operandsIds.set(classesIds.get(operands.get(o).asOWLClass()));
+                    if (axiomType == AxiomType.EQUIVALENT_CLASSES) {
+                        toldSuperClasses.put(classesIds.get(operands.get(o).asOWLClass()),
+                                classesIds.get(operands.get((o + 1) % operands.size()).asOWLClass()));
+                    }
+                }
+                if (axiomType == AxiomType.DISJOINT_CLASSES) {
+                    disjointClasses.add(operandsIds);
+                }
+            } else if (axiomType == AxiomType.CLASS_ASSERTION) {
+                OWLClassAssertionAxiom classAssertion = (OWLClassAssertionAxiom) axiom;
+                if (!isNamedClass(classAssertion.getClassExpression())) {
+                    throw unsupported(axiom);
+                }
+                if (classAssertion.getIndividual().isNamed()) {
+                    assertedIndividuals.put(classAssertion.getClassExpression().asOWLClass(),
+                            classAssertion.getIndividual().asOWLNamedIndividual());
+                }
+            } else if (axiomType == AxiomType.OBJECT_PROPERTY_ASSERTION ||
+                    axiomType == AxiomType.DATA_PROPERTY_ASSERTION) {
+                propertyAssertions = true;
+            } else if (PROPERTY_AXIOM_TYPES.contains(axiomType)) {
+                if (!isSupportedExpression(getDomainOrRange(axiom))) {
+                    throw unsupported(axiom);
+                }
+                propertyAxiom = axiom;
+            } else if (!NEUTRAL_AXIOM_TYPES.contains(axiomType)) {
+                throw unsupported(axiom);
+            }
+        }
+
+        // Domains, ranges and property characteristics may entail class assertions or equalities of individuals
+        if (propertyAssertions && propertyAxiom != null) {
+            throw unsupported(propertyAxiom);
+        }
+    }
+
+    /**
+     * Checks that no class is a subclass of two disjoint classes, and that no individual is asserted of two
+     * disjoint classes.
+     *
+     * @param disjointClasses Sets of pairwise disjoint classes
+     * @param componentsMembers Classes of each set of equivalent classes
+     */
+    private void checkDisjointClasses(List<BitSet> disjointClasses, BitSet[] componentsMembers) {
+        if (disjointClasses.isEmpty()) {
+            return;
+        }
+
+        for (BitSet members : componentsMembers) {
+            int c = members.nextSetBit(0);
+            if (countDisjointClasses(getClassTypes(c), disjointClasses) > 1) {
+                throw new IllegalArgumentException("Unsatisfiable class: " + classes[c]);
+            }
+        }
+
+        Map<OWLNamedIndividual, BitSet> individualsTypes = new HashMap<>();
+        for (Map.Entry<OWLClass, OWLNamedIndividual> assertion : assertedIndividuals.entries()) {
+            individualsTypes.computeIfAbsent(assertion.getValue(), i -> new BitSet(classes.length)).
+                    or(getClassTypes(classesIds.get(assertion.getKey())));
+        }
+        for (Map.Entry<OWLNamedIndividual, BitSet> individualTypes : individualsTypes.entrySet()) {
+            if (countDisjointClasses(individualTypes.getValue(), disjointClasses) > 1) {
+                throw new IllegalArgumentException("Inconsistent individual: " + individualTypes.getKey());
+            }
+        }
+    }
+
+    private static int countDisjointClasses(BitSet types, List<BitSet> disjointClasses) {
+        int maxCount = 0;
+        for (BitSet disjoint : disjointClasses) {
+            BitSet intersection = (BitSet) disjoint.clone();
+            intersection.and(types);
+            maxCount = Math.max(maxCount, intersection.cardinality());
+        }
+
+        return maxCount;
+    }
+
+    /**
+     * Returns the class, its equivalent classes and its superclasses.
+     *
+     * @param classId Identifier of the class
+     * @return Identifiers of the classes
+     */
+    private BitSet getClassTypes(int classId) {
+        BitSet types = (BitSet) equivalentClasses[classId].clone();
+        types.or(superClasses[classId]);
+
+        return types;
+    }
+
+    @Override
+    public NodeSet<OWLNamedIndividual> getInstances(OWLClassExpression classExpression, boolean direct) {
+        OWLNamedIndividualNodeSet instances = new OWLNamedIndividualNodeSet();
+        getInstancesSet(classExpression, direct).forEach(instances::addEntity);
+
+        return instances;
+    }
+
+    private Set<OWLNamedIndividual> getInstancesSet(OWLClassExpression classExpression, boolean direct) {
+        if (classExpression.getClassExpressionType() == ClassExpressionType.OBJECT_UNION_OF && !direct) {
+            Set<OWLNamedIndividual> instances = new HashSet<>();
+            ((OWLNaryBooleanClassExpression) classExpression).operands().
+                    forEach(operand -> instances.addAll(getInstancesSet(operand, false)));
+            return instances;
+        }
+        if (classExpression.getClassExpressionType() == ClassExpressionType.OBJECT_INTERSECTION_OF && !direct) {
+            Set<OWLNamedIndividual> instances = null;
+            for (OWLClassExpression operand :
+                    ((OWLNaryBooleanClassExpression) classExpression).operands().collect(Collectors.toList())) {
+                if (instances == null) {
+                    instances = getInstancesSet(operand, false);
+                } else {
+                    instances.retainAll(getInstancesSet(operand, false));
+                }
+            }
+            return instances;
+        }
+
+        Integer classId = getClassId(classExpression);
+        Set<OWLNamedIndividual> instances = new HashSet<>();
+        if (classId == null) {
+            return instances;
+        }
+        if (classId == THING) {
+            ontology.importsClosure().flatMap(OWLOntology::individualsInSignature).forEach(instances::add);
+        } else {
+            BitSet instancesClasses = (BitSet) equivalentClasses[classId].clone();
+            if (!direct) {
+                instancesClasses.or(subClasses[classId]);
+            }
+            for (int c = instancesClasses.nextSetBit(0); c >= 0; c = instancesClasses.nextSetBit(c + 1)) {
+                instances.addAll(assertedIndividuals.get(classes[c]));
+            }
+        }
+        if (direct) {
+            instances.removeIf(individual -> getIndividualTypes(individual).intersects(subClasses[classId]));
+        }
+
+        return instances;
+    }
+
+    @Override
+    public NodeSet<OWLClass> getSuperClasses(OWLClassExpression classExpression, boolean direct) {
+        Integer classId = getClassId(classExpression);
+        if (classId == null) {
+            return new OWLClassNodeSet(OWLClassNode.getTopNode());
+        }
+
+        return getNodes((direct) ? getDirectClasses(superClasses[classId], superClasses) : superClasses[classId]);
+    }
+
+    @Override
+    public NodeSet<OWLClass> getSubClasses(OWLClassExpression classExpression, boolean direct) {
+        Integer classId = getClassId(classExpression);
+        if (classId == null) {
+            return new OWLClassNodeSet(OWLClassNode.getBottomNode());
+        }
+
+        BitSet classSubClasses = (direct) ? getDirectClasses(subClasses[classId], subClasses) : subClasses[classId];
+        OWLClassNodeSet nodes = getNodes(classSubClasses);
+        if (!direct || classSubClasses.isEmpty()) {
+            nodes.addNode(OWLClassNode.getBottomNode());
+        }
+
+        return nodes;
+    }
+
+    @Override
+    public Node<OWLClass> getEquivalentClasses(OWLClassExpression classExpression) {
+        Integer classId = getClassId(classExpression);
+        if (classId == null) {
+            return new OWLClassNode(classExpression.asOWLClass());
+        }
+
+        return getNode(equivalentClasses[classId]);
+    }
+
+    @Override
+    public NodeSet<OWLClass> getTypes(OWLNamedIndividual individual, boolean direct) {
+        BitSet types = getIndividualTypes(individual);
+
+        return getNodes((direct) ? getDirectClasses(types, superClasses) : types);
+    }
+
+    @Override
+    public Node<OWLClass> getTopClassNode() {
+        return getNode(equivalentClasses[THING]);
+    }
+
+    /**
+     * Returns the identifier of the given class expression.
+     *
+     * @param classExpression Class expression
+     * @return Identifier of the class, null if the class is not part of the ontology
+     * @throws UnsupportedOperationException Exception raised if the class expression is anonymous
+     */
+    private Integer getClassId(OWLClassExpression classExpression) {
+        if (classExpression.isAnonymous()) {
+            throw new UnsupportedOperationException("Unsupported class expression: " + classExpression);
+        }
+
+        return classesIds.get(classExpression.asOWLClass());
+    }
+
+    /**
+     * Returns the asserted classes of the given individual, together with their equivalent classes and their
+     * superclasses.
+     *
+     * @param individual Named individual
+     * @return Identifiers of the classes
+     */
+    private BitSet getIndividualTypes(OWLNamedIndividual individual) {
+        BitSet types = new BitSet(classes.length);
+        types.set(THING);
+        ontology.importsClosure().flatMap(o -> o.classAssertionAxioms(individual)).
+                map(axiom -> classesIds.get(axiom.getClassExpression().asOWLClass())).
+                forEach(classId -> types.or(getClassTypes(classId)));
+
+        return types;
+    }
+
+    /**
+     * Returns the given classes which are not related by the given closure to another of the given classes,
+     * that is the most specific superclasses or the most general subclasses.
+     *
+     * @param classIds Identifiers of the classes
+     * @param closure Strict superclasses or subclasses of each class
+     * @return Identifiers of the direct classes
+     */
+    private static BitSet getDirectClasses(BitSet classIds, BitSet[] closure) {
+        BitSet directClasses = (BitSet) classIds.clone();
+        for (int c = classIds.nextSetBit(0); c >= 0; c = classIds.nextSetBit(c + 1)) {
+            directClasses.andNot(closure[c]);
+        }
+
+        return directClasses;
+    }
+
+    private OWLClassNodeSet getNodes(BitSet classIds) {
+        OWLClassNodeSet nodes = new OWLClassNodeSet();
+        BitSet remainingClasses = (BitSet) classIds.clone();
+        for (int c = remainingClasses.nextSetBit(0); c >= 0; c = remainingClasses.nextSetBit(c + 1)) {
+            nodes.addNode(getNode(equivalentClasses[c]));
+            remainingClasses.andNot(equivalentClasses[c]);
+        }
+
+        return nodes;
+    }
+
+    private OWLClassNode getNode(BitSet classIds) {
+        Set<OWLClass> nodeClasses = new HashSet<>();
+        for (int c = classIds.nextSetBit(0); c >= 0; c = classIds.nextSetBit(c + 1)) {
+            nodeClasses.add(classes[c]);
+        }
+
+        return new OWLClassNode(nodeClasses);
+    }
+
+    private static boolean isNamedClass(OWLClassExpression classExpression) {
+        return !classExpression.isAnonymous() && !classExpression.isOWLNothing();
+    }
+
+    private static boolean isSupportedExpression(OWLClassExpression classExpression) {
+        if (classExpression == null || isNamedClass(classExpression)) {
+            return true;
+        }
+        if (classExpression.getClassExpressionType() == ClassExpressionType.OBJECT_UNION_OF ||
+                classExpression.getClassExpressionType() == ClassExpressionType.OBJECT_INTERSECTION_OF) {
+            return ((OWLNaryBooleanClassExpression) classExpression).operands().
+                    allMatch(StructuralClassifier::isSupportedExpression);
+        }
+
+        return false;
+    }
+
+    private static OWLClassExpression getDomainOrRange(OWLAxiom axiom) {
+        if (axiom instanceof OWLObjectPropertyDomainAxiom) {
+            return ((OWLObjectPropertyDomainAxiom) axiom).getDomain();
+        }
+        if (axiom instanceof OWLObjectPropertyRangeAxiom) {
+            return ((OWLObjectPropertyRangeAxiom) axiom).getRange();
+        }
+        if (axiom instanceof OWLDataPropertyDomainAxiom) {
+            return ((OWLDataPropertyDomainAxiom) axiom).getDomain();
+        }
+
+        return null;
+    }
+
+    private static IllegalArgumentException unsupported(OWLAxiom axiom) {
+        return new IllegalArgumentException("Unsupported axiom: " + axiom);
+    }
+
+    /**
+     * Finds the strongly connected components of the given graph with an iterative version of Tarjan's
+     * algorithm. Each component is numbered after all the components reachable from it.
+     *
+     * @param graph Successors of each node
+     * @return Component of each node
+     */
+    static int[] findComponents(int[][] graph) {
+        int numNodes = graph.length;
+        int[] indexes = new int[numNodes], lowLinks = new int[numNodes], components = new int[numNodes],
+                edgePositions = new int[numNodes], componentStack = new int[numNodes], callStack = new int[numNodes];
+        boolean[] onStack = new boolean[numNodes];
+        Arrays.fill(indexes, -1);
+        int index = 0, numComponents = 0, componentStackSize = 0;
+
+        for (int root = 0; root < numNodes; root++) {
+            if (indexes[root] != -1) {
+                continue;
+            }
+
+            int callStackSize = 0;
+            callStack[callStackSize++] = root;
+            indexes[root] = lowLinks[root] = index++;
+            componentStack[componentStackSize++] = root;
+            onStack[root] = true;
+
+            while (callStackSize > 0) {
+                int node = callStack[callStackSize - 1];
+                if (edgePositions[node] < graph[node].length) {
+                    int successor = graph[node][edgePositions[node]++];
+                    if (indexes[successor] == -1) {
+                        indexes[successor] = lowLinks[successor] = index++;
+                        componentStack[componentStackSize++] = successor;
+                        onStack[successor] = true;
+                        callStack[callStackSize++] = successor;
+                    } else if (onStack[successor]) {
+                        lowLinks[node] = Math.min(lowLinks[node], indexes[successor]);
+                    }
+                    continue;
+                }
+
+                callStackSize--;
+                if (lowLinks[node] == indexes[node]) {
+                    int member;
+                    do {
+                        member = componentStack[--componentStackSize];
+                        onStack[member] = false;
+                        components[member] = numComponents;
+                    } while (member != node);
+                    numComponents++;
+                }
+                if (callStackSize > 0) {
+                    int parent = callStack[callStackSize - 1];
+                    lowLinks[parent] = Math.min(lowLinks[parent], lowLinks[node]);
+                }
+            }
+        }
+
+        return components;
+    }
+}
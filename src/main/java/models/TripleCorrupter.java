@@ -1,18 +1,20 @@
 package models;
 
-import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
 import controllers.data.Triple;
-import org.semanticweb.owlapi.apibinding.OWLManager;
 import org.semanticweb.owlapi.model.*;
-import org.semanticweb.owlapi.reasoner.*;
-import uk.ac.manchester.cs.jfact.JFactFactory;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.logging.Logger;
 
 /**
@@ -20,43 +22,69 @@ import java.util.logging.Logger;
  */
 public abstract class TripleCorrupter {
     protected OWLOntology ontology;
-    protected OWLReasoner reasoner;
-    protected final Random randomTripleGenerator;
-    protected final Random randomEntityGenerator;
+    protected CachingReasoner reasoner;
     protected Multimap<OWLNamedIndividual, OWLClass> individualsClasses;
     protected Multimap<OWLClass, OWLNamedIndividual> classesIndividuals;
+    protected ClassHierarchy classHierarchy;
+    protected ClassMembership classMembership;
+    protected OWLNamedIndividual[] individuals;
+    protected UriDictionary individualsDictionary;
+    protected IndividualEntityIds individualEntityIds;
+    protected CandidatePools candidatePools;
+    private KnownTriples knownTriples;
+    private int maxRetries;
+    protected final CorrupterMetrics metrics;
     protected final Logger logger = Logger.getLogger(TripleCorrupter.class.getName());
-    protected final int RANDOM_SEED = 12345;
+    protected static final int RANDOM_SEED = 12345;
+    private static final int PARALLEL_THRESHOLD = 1024;
+    private static final SplittableRandom seedGenerator = new SplittableRandom(RANDOM_SEED);
+    private static final ThreadLocal<SplittableRandom> threadRandomGenerator =
+            ThreadLocal.withInitial(TripleCorrupter::splitSeedGenerator);
+    private static final ForkJoinPool corruptionPool =
+            new ForkJoinPool(Runtime.getRuntime().availableProcessors());
 
     /**
-     * Constructor which receives an ontology file to read the ontology and instantiate the reasoner.
+     * Constructor which receives the indexes of an ontology, which may be shared with other triple corrupters,
+     * and the options of the triple corrupter.
      *
-     * @param ontologyFile Ontology file to be read
-     * @throws OWLOntologyCreationException Exception raised if the ontology cannot be parsed
-     * @throws IOException Exception raised if the file cannot be read
+     * @param ontologyIndex Indexes derived from the ontology by the reasoner
+     * @param options Optional settings of the triple corrupter
      */
-    public TripleCorrupter(File ontologyFile) throws OWLOntologyCreationException, IOException {
-        logger.info("-- Loading ontology: " + ontologyFile.getAbsolutePath());
-        ontology = OWLManager.createOWLOntologyManager().loadOntology(
-                IRI.create(ontologyFile));
+    protected TripleCorrupter(OntologyIndex ontologyIndex, TripleCorrupterOptions options) {
+        StartupPhases startupPhases = (options.getStartupPhases() != null) ?
+                options.getStartupPhases() : new StartupPhases();
+        metrics = new CorrupterMetrics(startupPhases);
 
-        logger.info("-- Initializing reasoner");
-        OWLReasonerConfiguration config = new SimpleConfiguration(50000);
-        OWLReasonerFactory reasonerFactory = new JFactFactory();
-        reasoner = reasonerFactory.createReasoner(ontology, config);
-        reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
-        this.randomTripleGenerator = new Random(RANDOM_SEED);
-        this.randomEntityGenerator = new Random(RANDOM_SEED);
-
-        logger.info("-- Building individuals to classes index");
-        buildIndividualsClasses();
+        ontology = ontologyIndex.getOntology();
+        reasoner = ontologyIndex.getReasoner();
+        metrics.setReasoner(reasoner);
+        individualsClasses = ontologyIndex.getIndividualsClasses();
+        classesIndividuals = ontologyIndex.getClassesIndividuals();
+        classHierarchy = ontologyIndex.getClassHierarchy();
+        classMembership = ontologyIndex.getClassMembership();
+        individuals = ontologyIndex.getIndividuals();
+        individualsDictionary = ontologyIndex.getIndividualsDictionary();
+        individualEntityIds = ontologyIndex.getIndividualEntityIds();
+    }
 
-        logger.info("-- Building classes to individuals index");
-        buildClassesIndividuals();
+    /**
+     * Constructor which receives the precomputed state of a triple corrupter, without loading any ontology.
+     *
+     * @param individualsDictionary Mapping between individual IRIs and dense identifiers
+     * @param candidatePools Candidate pools of the individuals
+     * @param individualEntityIds Entity identifiers of the individuals
+     */
+    protected TripleCorrupter(UriDictionary individualsDictionary, CandidatePools candidatePools,
+                              IndividualEntityIds individualEntityIds) {
+        this.individualsDictionary = individualsDictionary;
+        this.candidatePools = candidatePools;
+        this.individualEntityIds = individualEntityIds;
+        this.metrics = new CorrupterMetrics(new StartupPhases());
     }
 
     /**
      * Corrupts the given triple generating numCorrupted triples considering the given indexer.
+     * Random choices are drawn from a generator owned by the calling thread.
      *
      * @param triple Triple to be corrupted
      * @param numCorrupted Number of corrupted triples to be generated
@@ -64,31 +92,352 @@ public abstract class TripleCorrupter {
      * @return List of corrupted triples
      */
     public List<Triple> corrupt(Triple triple, int numCorrupted, TripleIndexer indexer) {
-        List<Triple> triples = new ArrayList<>();
-        triple.subject = indexer.getId2entity().get(Long.parseLong(triple.subject));
-        triple.predicate = indexer.getId2relation().get(Long.parseLong(triple.predicate));
-        triple.object = indexer.getId2entity().get(Long.parseLong(triple.object));
+        return corrupt(triple, numCorrupted, indexer, threadRandomGenerator.get());
+    }
+
+    /**
+     * Corrupts the given triple generating numCorrupted triples considering the given indexer.
+     * Random choices are drawn from the given generator, which must not be shared by concurrent calls.
+     *
+     * @param triple Triple to be corrupted
+     * @param numCorrupted Number of corrupted triples to be generated
+     * @param indexer Mapping between URIs and integer identifiers
+     * @param random Random generator
+     * @return List of corrupted triples
+     */
+    public List<Triple> corrupt(Triple triple, int numCorrupted, TripleIndexer indexer, SplittableRandom random) {
+        return corruptIds(triple, numCorrupted, indexer, random).toTriples();
+    }
+
+    /**
+     * Corrupts the given triple of identifiers generating numCorrupted triples considering the given indexer.
+     * Random choices are drawn from the given generator, which must not be shared by concurrent calls.
+     * <p>
+     * When known triples are set, corrupted triples which are known are resampled at most maxRetries times.
+     * If all the retries fail, the last corrupted triple is kept and the exhausted retries counter is incremented.
+     * <p>
+     * The URIs of the input triple are decoded once, while the replacing individuals are drawn as identifiers
+     * and converted to entity identifiers with the identifiers shared by the triple corrupters of the ontology.
+     *
+     * @param subject Identifier of the subject
+     * @param predicate Identifier of the predicate
+     * @param object Identifier of the object
+     * @param numCorrupted Number of corrupted triples to be generated
+     * @param indexer Mapping between URIs and integer identifiers
+     * @param random Random generator
+     * @return Identifiers of the corrupted triples
+     */
+    public CorruptedTriples corruptIds(long subject, long predicate, long object, int numCorrupted,
+                                       TripleIndexer indexer, SplittableRandom random) {
+        CorruptedTriples corruptedTriples = new CorruptedTriples(numCorrupted);
+        UriDictionary entities = indexer.getEntities(),
+                relations = indexer.getRelations();
+        long[] entityIds = individualEntityIds.get(entities);
+        Triple uriTriple = new Triple();
+        uriTriple.subject = entities.getURI(subject);
+        uriTriple.predicate = relations.getURI(predicate);
+        uriTriple.object = entities.getURI(object);
+        countUnknown(uriTriple.subject == null, uriTriple.predicate == null, uriTriple.object == null);
+
+        // Parts of the input triple which are not in the indexer are not found in the corrupted triples either
+        long subjectId = (uriTriple.subject != null) ? subject : UriDictionary.NOT_FOUND,
+                predicateId = (uriTriple.predicate != null) ? predicate : UriDictionary.NOT_FOUND,
+                objectId = (uriTriple.object != null) ? object : UriDictionary.NOT_FOUND;
+        int subjectIndividual = getIndividualId(uriTriple.subject),
+                objectIndividual = getIndividualId(uriTriple.object);
 
         for (int i = 0; i < numCorrupted; i++) {
-            Triple t = corrupt(triple, randomTripleGenerator.nextBoolean());
-            Triple t_id = new Triple();
-            t_id.subject = String.valueOf(indexer.getEntity2id().get(t.subject));
-            t_id.predicate = String.valueOf(indexer.getRelation2id().get(t.predicate));
-            t_id.object = String.valueOf(indexer.getEntity2id().get(t.object));
-            triples.add(t_id);
+            boolean corruptSubject = random.nextBoolean();
+            int individualId = corruptSubject ? subjectIndividual : objectIndividual;
+            long corruptedSubject = subjectId, corruptedObject = objectId;
+            int retries = 0;
+
+            while (true) {
+                long replacement = entityIds[corruptEntity(uriTriple, individualId, corruptSubject, random)];
+                if (corruptSubject) {
+                    corruptedSubject = replacement;
+                } else {
+                    corruptedObject = replacement;
+                }
+                if (knownTriples == null ||
+                        !knownTriples.contains(corruptedSubject, predicateId, corruptedObject)) {
+                    break;
+                }
+                if (retries++ == maxRetries) {
+                    metrics.incrementExhaustedRetries();
+                    break;
+                }
+            }
+
+            // The other parts are the ones of the input triple, which have already been counted
+            if ((corruptSubject ? corruptedSubject : corruptedObject) == UriDictionary.NOT_FOUND) {
+                metrics.addUnknownIds(1);
+            }
+            corruptedTriples.set(i, corruptedSubject, predicateId, corruptedObject, corruptSubject);
         }
 
-        return triples;
+        return corruptedTriples;
+    }
+
+    private void countUnknown(boolean unknownSubject, boolean unknownPredicate, boolean unknownObject) {
+        int numUnknown = (unknownSubject ? 1 : 0) + (unknownPredicate ? 1 : 0) + (unknownObject ? 1 : 0);
+        if (numUnknown > 0) {
+            metrics.addUnknownIds(numUnknown);
+        }
     }
 
     /**
-     * Generates a corrupted triple given a triple and a boolean flag which defines which part to corrupt.
+     * Corrupts each of the given triples generating numCorrupted triples for each of them.
+     * <p>
+     * Each triple receives its own random generator, split from a generator initialized with the given seed
+     * before any triple is corrupted. Results therefore only depend on the seed, even if large batches are
+     * corrupted in parallel on a fork/join pool.
      *
-     * @param triple Triple to be corrupted
+     * @param triples Triples to be corrupted
+     * @param numCorrupted Number of corrupted triples to be generated for each triple
+     * @param indexer Mapping between URIs and integer identifiers
+     * @param seed Seed of the random generators, null to use a generator owned by the calling thread
+     * @return List of corrupted triples for each triple, in the same order
+     */
+    public List<List<Triple>> corrupt(List<Triple> triples, int numCorrupted, TripleIndexer indexer, Long seed) {
+        return corrupt(triples, numCorrupted, indexer, createRandomGenerator(seed));
+    }
+
+    /**
+     * Corrupts each of the given triples generating numCorrupted triples for each of them.
+     * The random generator of each triple is split, in order, from the given generator, so that
+     * consecutive batches of a stream of triples can be corrupted with the same generator.
+     *
+     * @param triples Triples to be corrupted
+     * @param numCorrupted Number of corrupted triples to be generated for each triple
+     * @param indexer Mapping between URIs and integer identifiers
+     * @param random Random generator used to split the generators of the triples
+     * @return List of corrupted triples for each triple, in the same order
+     */
+    public List<List<Triple>> corrupt(List<Triple> triples, int numCorrupted, TripleIndexer indexer,
+                                      SplittableRandom random) {
+        return corruptAll(triples, numCorrupted, random,
+                (triple, tripleRandom) -> corrupt(triple, numCorrupted, indexer, tripleRandom));
+    }
+
+    /**
+     * Corrupts each of the given triples generating numCorrupted triples of identifiers for each of them.
+     * Random generators are split as in {@link #corrupt(List, int, TripleIndexer, SplittableRandom)}, so the
+     * same generator leads to the same corrupted triples.
+     *
+     * @param triples Triples to be corrupted
+     * @param numCorrupted Number of corrupted triples to be generated for each triple
+     * @param indexer Mapping between URIs and integer identifiers
+     * @param random Random generator used to split the generators of the triples
+     * @return Corrupted triples for each triple, in the same order
+     */
+    public List<CorruptedTriples> corruptIds(List<Triple> triples, int numCorrupted, TripleIndexer indexer,
+                                             SplittableRandom random) {
+        return corruptAll(triples, numCorrupted, random,
+                (triple, tripleRandom) -> corruptIds(triple, numCorrupted, indexer, tripleRandom));
+    }
+
+    private CorruptedTriples corruptIds(Triple triple, int numCorrupted, TripleIndexer indexer,
+                                        SplittableRandom random) {
+        return corruptIds(Long.parseLong(triple.subject), Long.parseLong(triple.predicate),
+                Long.parseLong(triple.object), numCorrupted, indexer, random);
+    }
+
+    /**
+     * Applies the given corruption to each triple, with a random generator split for each triple.
+     * Large batches are processed in parallel on the corruption fork/join pool.
+     *
+     * @param triples Triples to be corrupted
+     * @param numCorrupted Number of corrupted triples to be generated for each triple
+     * @param random Random generator used to split the generators of the triples
+     * @param corruption Function which corrupts a triple with its random generator
+     * @return Results of the corruption of each triple, in the same order
+     */
+    private <T> List<T> corruptAll(List<Triple> triples, int numCorrupted, SplittableRandom random,
+                                   BiFunction<Triple, SplittableRandom, T> corruption) {
+        SplittableRandom[] triplesRandoms = new SplittableRandom[triples.size()];
+        for (int i = 0; i < triplesRandoms.length; i++) {
+            triplesRandoms[i] = random.split();
+        }
+
+        IntStream tripleIndexes = IntStream.range(0, triples.size());
+        if ((long) triples.size() * numCorrupted < PARALLEL_THRESHOLD) {
+            return tripleIndexes.
+                    mapToObj(i -> corruption.apply(triples.get(i), triplesRandoms[i])).
+                    collect(Collectors.toList());
+        }
+
+        try {
+            return corruptionPool.submit(() -> tripleIndexes.parallel().
+                    mapToObj(i -> corruption.apply(triples.get(i), triplesRandoms[i])).
+                    collect(Collectors.toList())).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while corrupting triples", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Creates the random generator of a request.
+     *
+     * @param seed Seed of the generator, null to split it from the generator owned by the calling thread
+     * @return Random generator
+     */
+    public static SplittableRandom createRandomGenerator(Long seed) {
+        return (seed != null) ? new SplittableRandom(seed) : threadRandomGenerator.get().split();
+    }
+
+    /**
+     * Creates a new random generator for the calling thread.
+     *
+     * @return Random generator split from the shared seed generator
+     */
+    private static SplittableRandom splitSeedGenerator() {
+        synchronized (seedGenerator) {
+            return seedGenerator.split();
+        }
+    }
+
+    /**
+     * Draws the individual which replaces the subject or the object of the given triple.
+     *
+     * @param triple Triple to be corrupted, made of URIs
+     * @param individualId Identifier of the entity to be replaced in the individuals dictionary, -1 if it is not
+     * an individual
      * @param corruptSubject True corrupts the subject, False corrupts the object
-     * @return Corrupted triple
+     * @param random Random generator
+     * @return Identifier of the replacing individual
+     */
+    protected abstract int corruptEntity(Triple triple, int individualId, boolean corruptSubject,
+                                         SplittableRandom random);
+
+    /**
+     * Draws the replacing individual from the candidate pool of the given individual.
+     * Random sampling is used when the individual does not have any candidate.
+     *
+     * @param individualId Identifier of the entity to be replaced, -1 if it is not an individual
+     * @param random Random generator
+     * @return Identifier of the replacing individual
+     */
+    protected int corruptFromPools(int individualId, SplittableRandom random) {
+        int[] candidatePool = (individualId != -1) ? candidatePools.getPool(individualId) : null;
+
+        if (candidatePool == null || candidatePool.length == 0) {
+            metrics.incrementRandomFallbacks();
+            return generateRandomEntity(individualId, random);
+        }
+
+        return candidatePool[random.nextInt(candidatePool.length)];
+    }
+
+    /**
+     * Sets the known triples which must not be returned as corrupted triples.
+     *
+     * @param knownTriples Known triples, null to disable the filter
+     * @param maxRetries Maximum number of times a known corrupted triple is resampled
+     */
+    public void setKnownTriples(KnownTriples knownTriples, int maxRetries) {
+        this.knownTriples = knownTriples;
+        this.maxRetries = maxRetries;
+    }
+
+    /**
+     * Returns the known triples which must not be returned as corrupted triples.
+     *
+     * @return Known triples, null if the filter is disabled
+     */
+    public KnownTriples getKnownTriples() {
+        return knownTriples;
+    }
+
+    /**
+     * Returns whether the corrupter generates lower quality corrupted triples than the configured one,
+     * because it is only used until the configured corrupter is ready.
+     *
+     * @return True if the corrupter is degraded, False otherwise
      */
-    protected abstract Triple corrupt(Triple triple, boolean corruptSubject);
+    public boolean isDegraded() {
+        return false;
+    }
+
+    /**
+     * Returns the counters of the events of the corrupter.
+     *
+     * @return Metrics of the corrupter
+     */
+    public CorrupterMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns the approximate number of bytes used by each index of the corrupter.
+     *
+     * @return Size in bytes of each available index
+     */
+    public Map<String, Long> getIndexFootprints() {
+        Map<String, Long> footprints = new LinkedHashMap<>();
+        // HashMultimap entries and keys are estimated as hash nodes of 32 bytes referring to sets of 64 bytes
+        if (individualsClasses != null) {
+            footprints.put("individuals_classes",
+                    32L * individualsClasses.size() + 64L * individualsClasses.keySet().size());
+        }
+        if (classesIndividuals != null) {
+            footprints.put("classes_individuals",
+                    32L * classesIndividuals.size() + 64L * classesIndividuals.keySet().size());
+        }
+        if (classHierarchy != null) {
+            footprints.put("class_hierarchy", classHierarchy.getFootprint());
+        }
+        if (classMembership != null) {
+            footprints.put("class_membership", classMembership.getFootprint());
+        }
+        if (individualsDictionary != null) {
+            footprints.put("individuals_dictionary", individualsDictionary.getFootprint());
+        }
+        if (individualEntityIds != null) {
+            footprints.put("individual_entity_ids", individualEntityIds.getFootprint());
+        }
+        if (candidatePools != null) {
+            footprints.put("candidate_pools", candidatePools.getFootprint());
+        }
+        if (knownTriples != null) {
+            footprints.put("known_triples", knownTriples.getFootprint());
+        }
+
+        return footprints;
+    }
+
+    /**
+     * Returns the mapping between individual IRIs and their dense identifiers.
+     *
+     * @return Individuals dictionary
+     */
+    public UriDictionary getIndividualsDictionary() {
+        return individualsDictionary;
+    }
+
+    /**
+     * Returns the identifiers of the individuals in the entities of the indexers.
+     *
+     * @return Entity identifiers of the individuals
+     */
+    public IndividualEntityIds getIndividualEntityIds() {
+        return individualEntityIds;
+    }
+
+    /**
+     * Returns the precomputed candidate pools of the individuals.
+     *
+     * @return Candidate pools, null if candidates are not precomputed
+     */
+    public CandidatePools getCandidatePools() {
+        return candidatePools;
+    }
 
     /**
      * Factory method to instantiate the requested triple corrupter.
@@ -101,72 +450,127 @@ public abstract class TripleCorrupter {
      */
     public static TripleCorrupter create(File ontologyFile, TripleCorrupterType tripleCorrupterType)
             throws OWLOntologyCreationException, IOException {
+        return create(ontologyFile, tripleCorrupterType, new TripleCorrupterOptions());
+    }
+
+    /**
+     * Factory method to instantiate the requested triple corrupter with the given options.
+     *
+     * @param ontologyFile Ontology file to be read
+     * @param tripleCorrupterType Identifier of the triple corrupter
+     * @param options Optional settings of the triple corrupter
+     * @return Requested triple corrupter
+     * @throws OWLOntologyCreationException Exception raised if the ontology cannot be parsed
+     * @throws IOException Exception raised if the file cannot be read
+     */
+    public static TripleCorrupter create(File ontologyFile, TripleCorrupterType tripleCorrupterType,
+                                         TripleCorrupterOptions options)
+            throws OWLOntologyCreationException, IOException {
+        return create(new OntologyIndex(ontologyFile, options), tripleCorrupterType, options);
+    }
+
+    /**
+     * Factory method to instantiate the requested triple corrupter on the given indexes of an ontology, which
+     * are shared with the other triple corrupters created on them.
+     *
+     * @param ontologyIndex Indexes derived from the ontology by the reasoner
+     * @param tripleCorrupterType Identifier of the triple corrupter
+     * @param options Optional settings of the triple corrupter
+     * @return Requested triple corrupter
+     * @throws IOException Exception raised if the corrupter cannot read its resources
+     */
+    public static TripleCorrupter create(OntologyIndex ontologyIndex, TripleCorrupterType tripleCorrupterType,
+                                         TripleCorrupterOptions options) throws IOException {
+        TripleCorrupter corrupter;
         switch (tripleCorrupterType) {
             case DISJOINT:
-                return new DisjointTripleCorrupter(ontologyFile);
+                corrupter = new DisjointTripleCorrupter(ontologyIndex, options);
+                break;
             case SIMILARITY:
-                return new SimilarityTripleCorrupter(ontologyFile);
+                corrupter = new SimilarityTripleCorrupter(ontologyIndex, options);
+                break;
+            case DOMAIN_RANGE:
+                corrupter = new DomainRangeTripleCorrupter(ontologyIndex, options);
+                break;
             default:
                 throw new IllegalArgumentException("Invalid triple corrupter type!");
         }
+        // The indexes of the corrupter are built, the cached results would only be kept alive
+        ontologyIndex.getReasoner().invalidate();
+
+        return corrupter;
     }
 
     /**
-     * Generated a corrupted triple using random sampling.
+     * Draws a random individual other than the given one.
      *
-     * @param triple Triple to be corrupted
-     * @param iriIndividual Entity to be corrupted
-     * @param corruptSubject True corrupts the subject, False corrupts the object
-     * @return Corrupted triple
+     * @param individualId Identifier of the entity to be replaced, -1 if it is not an individual
+     * @param random Random generator
+     * @return Identifier of the replacing individual
      */
-    protected Triple generateRandomTriple(Triple triple, OWLNamedIndividual iriIndividual, boolean corruptSubject) {
-        Triple corruptedTriple = new Triple();
-        List<OWLNamedIndividual> ontologyIndividuals = new ArrayList<>(individualsClasses.keySet());
-
-        if (corruptSubject) {
+    protected int generateRandomEntity(int individualId, SplittableRandom random) {
+        int numIndividuals = individualsDictionary.size();
+        int corruptedEntity;
+        do {
+            corruptedEntity = random.nextInt(numIndividuals);
+        } while (numIndividuals > 1 && corruptedEntity == individualId);
 
-            OWLNamedIndividual corruptedEntity;
-            do {
-                corruptedEntity = ontologyIndividuals.get(randomEntityGenerator.nextInt(ontologyIndividuals.size()));
-            } while (corruptedEntity.equals(iriIndividual));
-
-            corruptedTriple.subject = corruptedEntity.getIRI().toString();
-            corruptedTriple.predicate = triple.predicate;
-            corruptedTriple.object = triple.object;
-        } else {
-            OWLNamedIndividual corruptedEntity;
-            do {
-                corruptedEntity = ontologyIndividuals.get(randomEntityGenerator.nextInt(ontologyIndividuals.size()));
-            } while (corruptedEntity.equals(iriIndividual));
+        return corruptedEntity;
+    }
 
-            corruptedTriple.subject = triple.subject;
-            corruptedTriple.predicate = triple.predicate;
-            corruptedTriple.object = corruptedEntity.getIRI().toString();
-        }
+    /**
+     * Returns the dense identifier of the individual having the given IRI.
+     *
+     * @param iri IRI of an entity, null if the entity is unknown
+     * @return Identifier of the individual, -1 if the entity is not an individual
+     */
+    protected int getIndividualId(String iri) {
+        long individualId = (iri != null) ? individualsDictionary.getId(iri) : UriDictionary.NOT_FOUND;
+        return (int) individualId;
+    }
 
-        return corruptedTriple;
+    /**
+     * Returns the dense identifier of the given individual.
+     *
+     * @param individual Individual of the ontology
+     * @return Identifier of the individual
+     */
+    protected int getIndividualId(OWLNamedIndividual individual) {
+        return (int) individualsDictionary.getId(individual.getIRI().toString());
     }
 
     /**
-     * Builds mapping between individuals and their classes.
+     * Returns the dense identifiers of the individuals of the given class, using the available class index.
+     *
+     * @param owlClass Class of the ontology
+     * @return Identifiers of the individuals of the class
      */
-    private void buildIndividualsClasses() {
-        individualsClasses = HashMultimap.create();
-        for (OWLClass currentClass: ontology.getClassesInSignature()) {
-            for (OWLNamedIndividual currentIndividual:
-                    reasoner.getInstances(currentClass, false).getFlattened()) {
-                individualsClasses.put(currentIndividual, currentClass);
-            }
+    protected int[] getClassIndividualIds(OWLClass owlClass) {
+        if (classMembership != null) {
+            Integer classId = classHierarchy.getClassId(owlClass);
+            return (classId != null) ? classMembership.getExtension(classId).toArray() : new int[0];
         }
+
+        return classesIndividuals.get(owlClass).stream().
+                mapToInt(this::getIndividualId).
+                toArray();
     }
 
     /**
-     * Builds mapping between classes and their individuals.
+     * Returns the identifiers in the class hierarchy of the classes of the given individual, using the
+     * available class index.
+     *
+     * @param individualId Identifier of the individual
+     * @return Identifiers of the classes of the individual, in increasing order
      */
-    private void buildClassesIndividuals() {
-        classesIndividuals = HashMultimap.create();
-        for (OWLClass owlClass: ontology.getClassesInSignature()) {
-            classesIndividuals.putAll(owlClass, reasoner.getInstances(owlClass, false).getFlattened());
+    protected int[] getIndividualClassIds(int individualId) {
+        if (classMembership != null) {
+            return classMembership.getClasses(individualId);
         }
+
+        return individualsClasses.get(individuals[individualId]).stream().
+                mapToInt(owlClass -> classHierarchy.getClassId(owlClass)).
+                sorted().
+                toArray();
     }
 }
@@ -0,0 +1,182 @@
+package models;
+
+import java.io.File;
+
+/**
+ * Class which represents optional settings used to create a TripleCorrupter.
+ */
+public class TripleCorrupterOptions {
+    private boolean candidatePools;
+    private ClassIndexType classIndex = ClassIndexType.MULTIMAP;
+    private ClassifierType classifier = ClassifierType.JFACT;
+    private long reasonerCacheSize = 1000000;
+    private StartupPhases startupPhases;
+    private SimilaritySampling similaritySampling = SimilaritySampling.NEAREST;
+    private double similarityWeightExponent = 1;
+    private File aboxFile;
+
+    /**
+     * Returns true if candidate entities have to be precomputed at startup as compact pools.
+     *
+     * @return True if candidate pools are enabled, False otherwise
+     */
+    public boolean isCandidatePools() {
+        return candidatePools;
+    }
+
+    /**
+     * Enables or disables the precomputation of candidate pools.
+     *
+     * @param candidatePools True to precompute candidate pools at startup
+     * @return This options object
+     */
+    public TripleCorrupterOptions setCandidatePools(boolean candidatePools) {
+        this.candidatePools = candidatePools;
+        return this;
+    }
+
+    /**
+     * Returns the object which records the startup phases of the triple corrupter.
+     *
+     * @return Startup phases, null if the triple corrupter has to create its own
+     */
+    public StartupPhases getStartupPhases() {
+        return startupPhases;
+    }
+
+    /**
+     * Sets the object which records the startup phases, so that they can be observed while the triple
+     * corrupter is being created.
+     *
+     * @param startupPhases Startup phases of the triple corrupter
+     * @return This options object
+     */
+    public TripleCorrupterOptions setStartupPhases(StartupPhases startupPhases) {
+        this.startupPhases = startupPhases;
+        return this;
+    }
+
+    /**
+     * Returns the strategy used by SimilarityTripleCorrupter to choose the class of the corrupted entity.
+     *
+     * @return Similarity sampling strategy
+     */
+    public SimilaritySampling getSimilaritySampling() {
+        return similaritySampling;
+    }
+
+    /**
+     * Sets the strategy used by SimilarityTripleCorrupter to choose the class of the corrupted entity.
+     *
+     * @param similaritySampling Similarity sampling strategy
+     * @return This options object
+     */
+    public TripleCorrupterOptions setSimilaritySampling(SimilaritySampling similaritySampling) {
+        this.similaritySampling = similaritySampling;
+        return this;
+    }
+
+    /**
+     * Returns the exponent applied to the Leacock-Chodorow dissimilarities by the WEIGHTED similarity sampling.
+     *
+     * @return Exponent of the dissimilarities
+     */
+    public double getSimilarityWeightExponent() {
+        return similarityWeightExponent;
+    }
+
+    /**
+     * Sets the exponent applied to the Leacock-Chodorow dissimilarities by the WEIGHTED similarity sampling:
+     * 0 draws classes uniformly, positive values favour dissimilar classes and negative values favour
+     * similar classes.
+     *
+     * @param similarityWeightExponent Exponent of the dissimilarities
+     * @return This options object
+     */
+    public TripleCorrupterOptions setSimilarityWeightExponent(double similarityWeightExponent) {
+        this.similarityWeightExponent = similarityWeightExponent;
+        return this;
+    }
+
+    /**
+     * Returns the implementation of the index of the classes of the individuals.
+     *
+     * @return Class index type
+     */
+    public ClassIndexType getClassIndex() {
+        return classIndex;
+    }
+
+    /**
+     * Sets the implementation of the index of the classes of the individuals.
+     *
+     * @param classIndex Class index type
+     * @return This options object
+     */
+    public TripleCorrupterOptions setClassIndex(ClassIndexType classIndex) {
+        this.classIndex = classIndex;
+        return this;
+    }
+
+    /**
+     * Returns the classifier which computes the class hierarchy and the instances of the classes.
+     *
+     * @return Classifier type
+     */
+    public ClassifierType getClassifier() {
+        return classifier;
+    }
+
+    /**
+     * Sets the classifier which computes the class hierarchy and the instances of the classes.
+     *
+     * @param classifier Classifier type
+     * @return This options object
+     */
+    public TripleCorrupterOptions setClassifier(ClassifierType classifier) {
+        this.classifier = classifier;
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of entities of the reasoner results kept in cache while the indexes are built.
+     *
+     * @return Size of the reasoner cache
+     */
+    public long getReasonerCacheSize() {
+        return reasonerCacheSize;
+    }
+
+    /**
+     * Sets the maximum number of entities of the reasoner results kept in cache while the indexes are built.
+     * The cache is emptied once the indexes of the ontology and of each corrupter have been built.
+     *
+     * @param reasonerCacheSize Size of the reasoner cache, 0 disables the cache
+     * @return This options object
+     */
+    public TripleCorrupterOptions setReasonerCacheSize(long reasonerCacheSize) {
+        this.reasonerCacheSize = reasonerCacheSize;
+        return this;
+    }
+
+    /**
+     * Returns the RDF file whose class assertions are streamed into the class index.
+     *
+     * @return ABox file, null if the individuals are read from the ontology by the reasoner
+     */
+    public File getAboxFile() {
+        return aboxFile;
+    }
+
+    /**
+     * Sets the RDF file whose class assertions are streamed into the class index, so that the ontology file
+     * only has to contain the schema loaded by OWLAPI and classified by the reasoner.
+     *
+     * @param aboxFile ABox file, null to read the individuals from the ontology
+     * @return This options object
+     */
+    public TripleCorrupterOptions setAboxFile(File aboxFile) {
+        this.aboxFile = aboxFile;
+        return this;
+    }
+}
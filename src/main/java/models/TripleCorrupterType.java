@@ -5,5 +5,6 @@ package models;
  */
 public enum TripleCorrupterType {
     DISJOINT,
-    SIMILARITY
+    SIMILARITY,
+    DOMAIN_RANGE
 }
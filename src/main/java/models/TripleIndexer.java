@@ -1,99 +1,164 @@
-package models;
-
-
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
-
-import java.io.File;
-import java.io.FileReader;
-import java.io.IOException;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.Map;
-import java.util.logging.Logger;
-
-/**
- * Class which represents a mapping between URIs and integer identifiers.
- */
-public class TripleIndexer {
-    private Map<String, Long> entity2id;
-    private Map<String, Long> relation2id;
-    private Map<Long, String> id2entity;
-    private Map<Long, String> id2relation;
-
-    private final Logger logger = Logger.getLogger(TripleIndexer.class.getName());
-
-    /**
-     * Constructor which receives an entity mapping file and a relation mapping file.
-     * Each of them is a CSV file which associates URIs to integer identifiers.
-     *
-     * @param entityMappingFile   Entity mapping file
-     * @param relationMappingFile Relation mapping file
-     * @throws IOException Exception raised if the file cannot be read
-     */
-    public TripleIndexer(File entityMappingFile, File relationMappingFile) throws IOException {
-        loadEntityIndexes(entityMappingFile);
-        loadRelationIndexes(relationMappingFile);
-    }
-
-    public Map<String, Long> getEntity2id() {
-        return entity2id;
-    }
-
-    public Map<String, Long> getRelation2id() {
-        return relation2id;
-    }
-
-    public Map<Long, String> getId2entity() {
-        return id2entity;
-    }
-
-    public Map<Long, String> getId2relation() {
-        return id2relation;
-    }
-
-    /**
-     * Loads entity mappings from the given CSV file.
-     *
-     * @param entityMappingFile CSV file which associates entity URIs to integer identifiers
-     * @throws IOException Exception raised if the file cannot be read
-     */
-    private void loadEntityIndexes(File entityMappingFile) throws IOException {
-        logger.info("-- Loading entity indexes");
-        entity2id = new HashMap<>();
-        id2entity = new HashMap<>();
-        try (CSVParser csvParser = new CSVParser(new FileReader(entityMappingFile), CSVFormat.TDF)) {
-            final Iterator<CSVRecord> csvIterator = csvParser.iterator();
-            while (csvIterator.hasNext()) {
-                final CSVRecord csvRecord = csvIterator.next();
-                String uri = csvRecord.get(0);
-                Long id = Long.parseLong(csvRecord.get(1));
-                entity2id.put(uri, id);
-                id2entity.put(id, uri);
-            }
-        }
-    }
-
-    /**
-     * Loads relation mappings from the given CSV file.
-     *
-     * @param relationMappingFile CSV file which associates relation URIs to integer identifiers
-     * @throws IOException Exception raised if the file cannot be read
-     */
-    private void loadRelationIndexes(File relationMappingFile) throws IOException {
-        logger.info("-- Loading relation indexes");
-        relation2id = new HashMap<>();
-        id2relation = new HashMap<>();
-        try (CSVParser csvParser = new CSVParser(new FileReader(relationMappingFile), CSVFormat.TDF)) {
-            final Iterator<CSVRecord> csvIterator = csvParser.iterator();
-            while (csvIterator.hasNext()) {
-                final CSVRecord csvRecord = csvIterator.next();
-                String uri = csvRecord.get(0);
-                Long id = Long.parseLong(csvRecord.get(1));
-                relation2id.put(uri, id);
-                id2relation.put(id, uri);
-            }
-        }
-    }
-}
+package models;
+
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Class which represents a mapping between URIs and integer identifiers.
+ */
+public class TripleIndexer {
+    private UriDictionary entities;
+    private UriDictionary relations;
+    private final StartupPhases startupPhases = new StartupPhases();
+
+    private final Logger logger = Logger.getLogger(TripleIndexer.class.getName());
+
+    /**
+     * Constructor which receives an entity mapping file and a relation mapping file.
+     * Each of them is a CSV file which associates URIs to integer identifiers.
+     *
+     * @param entityMappingFile   Entity mapping file
+     * @param relationMappingFile Relation mapping file
+     * @throws IOException Exception raised if the file cannot be read
+     */
+    public TripleIndexer(File entityMappingFile, File relationMappingFile) throws IOException {
+        this(entityMappingFile, relationMappingFile, DictionaryType.HASH);
+    }
+
+    /**
+     * Constructor which receives an entity mapping file, a relation mapping file and the type of
+     * dictionary used to store the mappings.
+     *
+     * @param entityMappingFile   Entity mapping file
+     * @param relationMappingFile Relation mapping file
+     * @param dictionaryType      Dictionary implementation
+     * @throws IOException Exception raised if the file cannot be read
+     */
+    public TripleIndexer(File entityMappingFile, File relationMappingFile, DictionaryType dictionaryType)
+            throws IOException {
+        startupPhases.start("load_entities");
+        loadEntityIndexes(entityMappingFile, dictionaryType);
+        startupPhases.end("load_entities");
+
+        startupPhases.start("load_relations");
+        loadRelationIndexes(relationMappingFile, dictionaryType);
+        startupPhases.end("load_relations");
+    }
+
+    /**
+     * Constructor which receives already loaded dictionaries.
+     *
+     * @param entities  Entity dictionary
+     * @param relations Relation dictionary
+     */
+    TripleIndexer(UriDictionary entities, UriDictionary relations) {
+        this.entities = entities;
+        this.relations = relations;
+    }
+
+    public Map<String, Long> getEntity2id() {
+        return entities.asURIMap();
+    }
+
+    public Map<String, Long> getRelation2id() {
+        return relations.asURIMap();
+    }
+
+    public Map<Long, String> getId2entity() {
+        return entities.asIdMap();
+    }
+
+    public Map<Long, String> getId2relation() {
+        return relations.asIdMap();
+    }
+
+    /**
+     * Returns the dictionary of entity mappings.
+     *
+     * @return Entity dictionary
+     */
+    public UriDictionary getEntities() {
+        return entities;
+    }
+
+    /**
+     * Returns the dictionary of relation mappings.
+     *
+     * @return Relation dictionary
+     */
+    public UriDictionary getRelations() {
+        return relations;
+    }
+
+    /**
+     * Returns the durations of the loading phases of the indexer.
+     *
+     * @return Startup phases, empty if the indexer has been restored from a snapshot
+     */
+    public StartupPhases getStartupPhases() {
+        return startupPhases;
+    }
+
+    /**
+     * Loads entity mappings from the given CSV file.
+     *
+     * @param entityMappingFile CSV file which associates entity URIs to integer identifiers
+     * @param dictionaryType    Dictionary implementation
+     * @throws IOException Exception raised if the file cannot be read
+     */
+    private void loadEntityIndexes(File entityMappingFile, DictionaryType dictionaryType) throws IOException {
+        logger.info("-- Loading entity indexes");
+        entities = loadDictionary(entityMappingFile, dictionaryType);
+    }
+
+    /**
+     * Loads relation mappings from the given CSV file.
+     *
+     * @param relationMappingFile CSV file which associates relation URIs to integer identifiers
+     * @param dictionaryType      Dictionary implementation
+     * @throws IOException Exception raised if the file cannot be read
+     */
+    private void loadRelationIndexes(File relationMappingFile, DictionaryType dictionaryType) throws IOException {
+        logger.info("-- Loading relation indexes");
+        relations = loadDictionary(relationMappingFile, dictionaryType);
+    }
+
+    /**
+     * Loads a dictionary from the given CSV file.
+     *
+     * @param mappingFile    CSV file which associates URIs to integer identifiers
+     * @param dictionaryType Dictionary implementation
+     * @return Dictionary containing the mappings of the file
+     * @throws IOException Exception raised if the file cannot be read, or if it maps a URI or an identifier twice
+     */
+    private static UriDictionary loadDictionary(File mappingFile, DictionaryType dictionaryType) throws IOException {
+        UriDictionary.Builder builder = dictionaryType.newBuilder();
+        try (CSVParser csvParser = new CSVParser(new FileReader(mappingFile), CSVFormat.TDF)) {
+            final Iterator<CSVRecord> csvIterator = csvParser.iterator();
+            while (csvIterator.hasNext()) {
+                final CSVRecord csvRecord = csvIterator.next();
+                try {
+                    builder.add(csvRecord.get(0), Long.parseLong(csvRecord.get(1)));
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Invalid mapping at line " + csvRecord.getRecordNumber() + " of " +
+                            mappingFile + ": " + e.getMessage(), e);
+                }
+            }
+        }
+
+        try {
+            return builder.build();
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid mappings in " + mappingFile + ": " + e.getMessage(), e);
+        }
+    }
+}
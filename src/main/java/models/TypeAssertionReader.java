@@ -0,0 +1,105 @@
+package models;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.graph.impl.GraphBase;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.shared.JenaException;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.util.iterator.NullIterator;
+import org.apache.jena.vocabulary.RDF;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.BiConsumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Class which represents a reader of the class assertions of an RDF file, which streams the rdf:type triples
+ * of the file without building a model of it.
+ * <p>
+ * The file is parsed by the Jena reader of its extension: N-Triples (.nt), Turtle (.ttl), N3 (.n3) or
+ * RDF/XML (any other extension), optionally compressed with gzip (.gz). The rdf:type triples whose subject
+ * and object are IRIs are passed on as soon as they are parsed, and all the other triples are discarded.
+ */
+public class TypeAssertionReader {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private TypeAssertionReader() {
+    }
+
+    /**
+     * Reads the class assertions of the given file.
+     *
+     * @param file RDF file to be read
+     * @param consumer Action which receives the IRI of the individual and the IRI of the class of each assertion
+     * @return Number of class assertions of the file
+     * @throws IOException Exception raised if the file cannot be read or parsed
+     */
+    public static long read(File file, BiConsumer<String, String> consumer) throws IOException {
+        String name = file.getName().toLowerCase();
+        boolean compressed = name.endsWith(".gz");
+        if (compressed) {
+            name = name.substring(0, name.length() - ".gz".length());
+        }
+
+        TypeAssertionSink sink = new TypeAssertionSink(consumer);
+        try (InputStream inputStream = open(file, compressed)) {
+            ModelFactory.createModelForGraph(sink).read(inputStream, file.toURI().toString(), getLanguage(name));
+        } catch (JenaException e) {
+            throw new IOException("Unable to parse " + file.getAbsolutePath() + ": " + e.getMessage(), e);
+        }
+
+        return sink.numAssertions;
+    }
+
+    private static InputStream open(File file, boolean compressed) throws IOException {
+        InputStream inputStream = new FileInputStream(file);
+        return compressed ? new GZIPInputStream(inputStream, BUFFER_SIZE) :
+                new BufferedInputStream(inputStream, BUFFER_SIZE);
+    }
+
+    private static String getLanguage(String name) {
+        if (name.endsWith(".nt")) {
+            return "N-TRIPLE";
+        }
+        if (name.endsWith(".ttl")) {
+            return "TURTLE";
+        }
+        if (name.endsWith(".n3")) {
+            return "N3";
+        }
+
+        return "RDF/XML";
+    }
+
+    /**
+     * Class which represents a graph which does not store its triples, but passes the class assertions added
+     * by the Jena readers on to a consumer.
+     */
+    private static class TypeAssertionSink extends GraphBase {
+        private final Node type = RDF.type.asNode();
+        private final BiConsumer<String, String> consumer;
+        private long numAssertions;
+
+        TypeAssertionSink(BiConsumer<String, String> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void performAdd(Triple triple) {
+            if (triple.getPredicate().equals(type) && triple.getSubject().isURI() && triple.getObject().isURI()) {
+                consumer.accept(triple.getSubject().getURI(), triple.getObject().getURI());
+                numAssertions++;
+            }
+        }
+
+        @Override
+        protected ExtendedIterator<Triple> graphBaseFind(Triple triplePattern) {
+            return NullIterator.instance();
+        }
+    }
+}
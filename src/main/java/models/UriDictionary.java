@@ -0,0 +1,166 @@
+package models;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Interface which represents a bidirectional mapping between URIs and integer identifiers.
+ */
+public interface UriDictionary {
+    /**
+     * Identifier returned when a URI is not part of the dictionary.
+     */
+    long NOT_FOUND = -1;
+
+    /**
+     * Returns the identifier of the given URI.
+     *
+     * @param uri URI to be converted
+     * @return Integer identifier of the URI, NOT_FOUND if the URI is unknown
+     */
+    long getId(String uri);
+
+    /**
+     * Returns the URI of the given identifier.
+     *
+     * @param id Integer identifier to be converted
+     * @return URI of the identifier, null if the identifier is unknown
+     */
+    String getURI(long id);
+
+    /**
+     * Returns the number of mappings of the dictionary.
+     *
+     * @return Number of mappings
+     */
+    int size();
+
+    /**
+     * Executes the given action for each mapping of the dictionary.
+     *
+     * @param action Action which receives a URI and its integer identifier
+     */
+    void forEach(ObjLongConsumer<String> action);
+
+    /**
+     * Returns the approximate number of bytes used by the dictionary.
+     *
+     * @return Size in bytes of the dictionary
+     */
+    long getFootprint();
+
+    /**
+     * Returns a read-only map view of the URI to identifier mappings.
+     *
+     * @return Map from URIs to integer identifiers
+     */
+    default Map<String, Long> asURIMap() {
+        UriDictionary dictionary = this;
+        return new AbstractMap<String, Long>() {
+            @Override
+            public Long get(Object key) {
+                long id = (key instanceof String) ? dictionary.getId((String) key) : NOT_FOUND;
+                return (id == NOT_FOUND) ? null : id;
+            }
+
+            @Override
+            public boolean containsKey(Object key) {
+                return get(key) != null;
+            }
+
+            @Override
+            public int size() {
+                return dictionary.size();
+            }
+
+            @Override
+            public Set<Entry<String, Long>> entrySet() {
+                List<Entry<String, Long>> entries = new ArrayList<>(dictionary.size());
+                dictionary.forEach((uri, id) -> entries.add(new SimpleImmutableEntry<>(uri, id)));
+                return new EntryListSet<>(entries);
+            }
+        };
+    }
+
+    /**
+     * Returns a read-only map view of the identifier to URI mappings.
+     *
+     * @return Map from integer identifiers to URIs
+     */
+    default Map<Long, String> asIdMap() {
+        UriDictionary dictionary = this;
+        return new AbstractMap<Long, String>() {
+            @Override
+            public String get(Object key) {
+                return (key instanceof Long) ? dictionary.getURI((Long) key) : null;
+            }
+
+            @Override
+            public boolean containsKey(Object key) {
+                return get(key) != null;
+            }
+
+            @Override
+            public int size() {
+                return dictionary.size();
+            }
+
+            @Override
+            public Set<Entry<Long, String>> entrySet() {
+                List<Entry<Long, String>> entries = new ArrayList<>(dictionary.size());
+                dictionary.forEach((uri, id) -> entries.add(new SimpleImmutableEntry<>(id, uri)));
+                return new EntryListSet<>(entries);
+            }
+        };
+    }
+
+    /**
+     * Interface which represents an object used to fill a dictionary one mapping at a time.
+     */
+    interface Builder {
+        /**
+         * Adds a mapping to the dictionary. Each URI and each identifier can only be added once.
+         *
+         * @param uri URI to be added
+         * @param id Integer identifier of the URI
+         * @throws IllegalArgumentException Exception raised if the URI or the identifier has already been added,
+         * either when it is added or when the dictionary is built
+         */
+        void add(String uri, long id);
+
+        /**
+         * Builds the dictionary containing all the added mappings.
+         *
+         * @return Read-only dictionary
+         * @throws IllegalArgumentException Exception raised if a URI or an identifier has been added twice
+         */
+        UriDictionary build();
+    }
+
+    /**
+     * Class which represents a read-only set backed by a list of distinct entries.
+     */
+    final class EntryListSet<E> extends AbstractSet<E> {
+        private final List<E> entries;
+
+        EntryListSet(List<E> entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return entries.iterator();
+        }
+
+        @Override
+        public int size() {
+            return entries.size();
+        }
+    }
+}
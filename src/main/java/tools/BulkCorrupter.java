@@ -0,0 +1,416 @@
+package tools;
+
+import models.CorruptedTriples;
+import models.TripleCorrupter;
+import models.TripleCorrupterOptions;
+import models.TripleCorrupterType;
+import models.TripleIndexer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Command line tool which corrupts all the triples of a TSV file without going through the web server.
+ * <p>
+ * Usage: BulkCorrupter ontology_filename corrupter_id entity_mappings_filename relation_mappings_filename
+ * triples_filename output_filename size [seed] [--resume]
+ * <p>
+ * Each line of the input file is a triple of identifiers "subject TAB predicate TAB object". For each input
+ * triple, size corrupted triples are written to the output file with the same format, unknown identifiers
+ * being written as -1. The input file is memory-mapped and split into batches of lines which are corrupted by
+ * a pool of workers, while a single writer appends their results to the output file in input order.
+ * <p>
+ * The random generator of a triple only depends on the seed and on the byte offset of its line, so a run
+ * which has been interrupted can be resumed with --resume and the same seed, from the last resume offset
+ * reported by the tool. Every CHECKPOINT_INTERVAL, or every CHECKPOINT_BYTES of output, and once all the
+ * batches are written, the output file is forced to disk and the input offset following the last written batch
+ * is recorded together with the output length in a checkpoint file, named after the output file with the
+ * ".checkpoint" extension. The reported resume offsets are the checkpointed ones. A resumed run starts from
+ * the checkpoint and truncates the output file to the checkpointed length, so that batches written after the
+ * last checkpoint by a killed run are corrupted again rather than written twice.
+ */
+public class BulkCorrupter {
+    private static final int BATCH_LINES = 4096;
+    private static final long MAPPING_SIZE = 64L << 20;
+    private static final long REPORT_INTERVAL = TimeUnit.SECONDS.toNanos(10);
+    private static final long CHECKPOINT_INTERVAL = TimeUnit.SECONDS.toNanos(5);
+    private static final long CHECKPOINT_BYTES = 256L << 20;
+    private static final long LINE_SEED_MULTIPLIER = 0xBF58476D1CE4E5B9L;
+    private static final String CHECKPOINT_EXTENSION = ".checkpoint";
+    private static final Future<Batch> END_OF_BATCHES = CompletableFuture.completedFuture(null);
+
+    private final TripleCorrupter corrupter;
+    private final TripleIndexer indexer;
+    private final int size;
+    private final long seed;
+    private final int numWorkers;
+    private final Logger logger = Logger.getLogger(BulkCorrupter.class.getName());
+    private volatile boolean failed;
+
+    /**
+     * Constructor which receives the corrupter and the parameters of the corruption.
+     *
+     * @param corrupter Corrupter of the triples
+     * @param indexer Mapping between URIs and integer identifiers
+     * @param size Number of corrupted triples for each input triple
+     * @param seed Seed of the random generators
+     * @param numWorkers Number of threads which corrupt the triples
+     */
+    public BulkCorrupter(TripleCorrupter corrupter, TripleIndexer indexer, int size, long seed, int numWorkers) {
+        this.corrupter = corrupter;
+        this.indexer = indexer;
+        this.size = size;
+        this.seed = seed;
+        this.numWorkers = numWorkers;
+    }
+
+    public static void main(String[] args) throws Exception {
+        boolean resume = args.length > 0 && "--resume".equals(args[args.length - 1]);
+        if (resume) {
+            args = Arrays.copyOf(args, args.length - 1);
+        }
+        if (args.length < 7 || args.length > 8) {
+            System.err.println("Usage: BulkCorrupter ontology_filename corrupter_id entity_mappings_filename " +
+                    "relation_mappings_filename triples_filename output_filename size [seed] [--resume]");
+            System.exit(1);
+        }
+
+        TripleIndexer indexer = new TripleIndexer(new File(args[2]), new File(args[3]));
+        TripleCorrupter corrupter = TripleCorrupter.create(new File(args[0]), TripleCorrupterType.valueOf(args[1]),
+                new TripleCorrupterOptions().setCandidatePools(true));
+        long seed = (args.length > 7) ? Long.parseLong(args[7]) : System.nanoTime();
+
+        new BulkCorrupter(corrupter, indexer, Integer.parseInt(args[6]), seed,
+                Runtime.getRuntime().availableProcessors())
+                .corrupt(new File(args[4]), new File(args[5]), resume);
+    }
+
+    /**
+     * Corrupts the triples of the input file, from its start or from the checkpoint of the output file.
+     *
+     * @param triplesFile TSV file of triples of identifiers
+     * @param outputFile TSV file of corrupted triples
+     * @param resume True resumes from the checkpoint of the output file, False truncates the output file
+     * @throws IOException Exception raised if the files cannot be read or written, or a triple is invalid
+     * @throws InterruptedException Exception raised if the thread is interrupted while waiting for the workers
+     */
+    public void corrupt(File triplesFile, File outputFile, boolean resume) throws IOException, InterruptedException {
+        long[] checkpoint = resume ? readCheckpoint(outputFile) : new long[]{0, 0};
+        long resumeOffset = checkpoint[0], outputLength = checkpoint[1];
+        logger.info("-- Corrupting " + triplesFile + " from offset " + resumeOffset + " with seed " + seed);
+
+        ExecutorService workers = Executors.newFixedThreadPool(numWorkers);
+        // Bounds the batches in flight, so that memory does not depend on the size of the input file
+        BlockingQueue<Future<Batch>> batches = new ArrayBlockingQueue<>(4 * numWorkers);
+        Thread writer = new Thread(() -> writeBatches(batches, outputFile, resumeOffset, outputLength),
+                "bulk-corrupter-writer");
+        writer.start();
+
+        try (FileChannel input = FileChannel.open(triplesFile.toPath(), StandardOpenOption.READ)) {
+            long offset = resumeOffset;
+            while (offset < input.size() && !failed) {
+                MappedByteBuffer mapping = input.map(FileChannel.MapMode.READ_ONLY, offset,
+                        Math.min(MAPPING_SIZE, input.size() - offset));
+                boolean lastMapping = offset + mapping.capacity() == input.size();
+                int position = 0;
+
+                while (position < mapping.capacity() && !failed) {
+                    int end = findBatchEnd(mapping, position, lastMapping);
+                    if (end == position) {
+                        break;
+                    }
+                    if (end == -1) {
+                        throw new IOException("Line at offset " + (offset + position) + " is longer than " +
+                                MAPPING_SIZE + " bytes");
+                    }
+
+                    ByteBuffer lines = mapping.duplicate();
+                    lines.limit(end);
+                    lines.position(position);
+                    long batchOffset = offset + position;
+                    batches.put(workers.submit(() -> corruptBatch(lines.slice(), batchOffset)));
+                    position = end;
+                }
+
+                offset += position;
+            }
+        } finally {
+            batches.put(END_OF_BATCHES);
+            writer.join();
+            workers.shutdown();
+        }
+
+        if (failed) {
+            throw new IOException("Unable to corrupt the triples of " + triplesFile);
+        }
+    }
+
+    /**
+     * Finds the end of the batch of lines starting at the given position.
+     *
+     * @param mapping Mapped region of the input file
+     * @param position Position of the first line of the batch
+     * @param lastMapping True if the region ends with the input file, False otherwise
+     * @return Position following the last complete line of the batch, -1 if no line is complete
+     */
+    private static int findBatchEnd(ByteBuffer mapping, int position, boolean lastMapping) {
+        int end = position;
+        for (int numLines = 0; numLines < BATCH_LINES && end < mapping.capacity(); numLines++) {
+            int lineEnd = end;
+            while (lineEnd < mapping.capacity() && mapping.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+
+            if (lineEnd == mapping.capacity() && !lastMapping) {
+                return (end == position && position == 0) ? -1 : end;
+            }
+            end = Math.min(lineEnd + 1, mapping.capacity());
+        }
+
+        return end;
+    }
+
+    /**
+     * Corrupts the lines of a batch.
+     *
+     * @param lines Bytes of the lines of the batch
+     * @param batchOffset Offset of the batch in the input file
+     * @return Batch of corrupted triples
+     */
+    private Batch corruptBatch(ByteBuffer lines, long batchOffset) {
+        StringBuilder output = new StringBuilder((int) Math.min(1 << 24, (long) lines.remaining() * size));
+        long[] triple = new long[3];
+        int numTriples = 0;
+
+        int lineStart = 0;
+        while (lineStart < lines.limit()) {
+            int lineEnd = lineStart;
+            while (lineEnd < lines.limit() && lines.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+
+            if (parseTriple(lines, lineStart, lineEnd, triple)) {
+                SplittableRandom random = new SplittableRandom(
+                        new SplittableRandom(seed + (batchOffset + lineStart) * LINE_SEED_MULTIPLIER).nextLong());
+                CorruptedTriples corruptedTriples = corrupter.corruptIds(triple[0], triple[1], triple[2], size,
+                        indexer, random);
+                for (int i = 0; i < corruptedTriples.size(); i++) {
+                    output.append(corruptedTriples.getSubject(i)).append('\t').
+                            append(corruptedTriples.getPredicate(i)).append('\t').
+                            append(corruptedTriples.getObject(i)).append('\n');
+                }
+                numTriples++;
+            }
+
+            lineStart = lineEnd + 1;
+        }
+
+        return new Batch(StandardCharsets.US_ASCII.encode(output.toString()), batchOffset + lines.limit(),
+                numTriples);
+    }
+
+    /**
+     * Parses a line made of three tab separated identifiers.
+     *
+     * @param lines Bytes of the lines of the batch
+     * @param start Position of the first byte of the line
+     * @param end Position of the end of the line
+     * @param triple Array which receives subject, predicate and object identifiers
+     * @return True if the line is a triple, False if it is blank
+     */
+    private static boolean parseTriple(ByteBuffer lines, int start, int end, long[] triple) {
+        int position = start;
+        for (int field = 0; field < 3; field++) {
+            while (position < end && isSeparator(lines.get(position))) {
+                position++;
+            }
+            if (position == end) {
+                if (field == 0) {
+                    return false;
+                }
+                throw new IllegalArgumentException("Invalid triple: " + decode(lines, start, end));
+            }
+
+            long id = 0;
+            for (; position < end && !isSeparator(lines.get(position)); position++) {
+                byte b = lines.get(position);
+                if (b < '0' || b > '9') {
+                    throw new IllegalArgumentException("Invalid triple: " + decode(lines, start, end));
+                }
+                id = 10 * id + (b - '0');
+            }
+            triple[field] = id;
+        }
+
+        return true;
+    }
+
+    private static boolean isSeparator(byte b) {
+        return b == '\t' || b == ' ' || b == '\r';
+    }
+
+    private static String decode(ByteBuffer lines, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = lines.get(start + i);
+        }
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes the corrupted batches to the output file, in input order, checkpointing them on a time or size
+     * interval and reporting the throughput and the input offset from which the corruption can be resumed.
+     *
+     * @param batches Queue of the batches, terminated by END_OF_BATCHES
+     * @param outputFile TSV file of corrupted triples
+     * @param startOffset Offset of the first line to be corrupted
+     * @param outputLength Length of the output file corresponding to the start offset
+     */
+    private void writeBatches(BlockingQueue<Future<Batch>> batches, File outputFile, long startOffset,
+                              long outputLength) {
+        long startTime = System.nanoTime(), lastReport = startTime, lastCheckpoint = startTime, numTriples = 0;
+        long resumeOffset = startOffset, checkpointLength = outputLength, endOffset = startOffset;
+
+        try (FileChannel output = FileChannel.open(outputFile.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+             FileChannel checkpoint = FileChannel.open(getCheckpointFile(outputFile).toPath(),
+                     StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            // Discards the output written after the checkpoint by an interrupted run
+            output.truncate(outputLength);
+            output.position(outputLength);
+            writeCheckpoint(checkpoint, startOffset, outputLength);
+
+            for (Future<Batch> future = batches.take(); future != END_OF_BATCHES; future = batches.take()) {
+                Batch batch = future.get();
+                while (batch.output.hasRemaining()) {
+                    output.write(batch.output);
+                }
+                numTriples += batch.numTriples;
+                endOffset = batch.endOffset;
+
+                long now = System.nanoTime();
+                if (now - lastCheckpoint >= CHECKPOINT_INTERVAL ||
+                        output.position() - checkpointLength >= CHECKPOINT_BYTES) {
+                    output.force(false);
+                    checkpointLength = output.position();
+                    writeCheckpoint(checkpoint, endOffset, checkpointLength);
+                    resumeOffset = endOffset;
+                    lastCheckpoint = now;
+                }
+                if (now - lastReport >= REPORT_INTERVAL) {
+                    report(numTriples, now - startTime, resumeOffset);
+                    lastReport = now;
+                }
+            }
+            output.force(false);
+            writeCheckpoint(checkpoint, endOffset, output.position());
+            resumeOffset = endOffset;
+            report(numTriples, System.nanoTime() - startTime, resumeOffset);
+        } catch (IOException | ExecutionException e) {
+            logger.severe("Unable to corrupt triples, resume with --resume from offset " + resumeOffset + ": " + e);
+            failed = true;
+            discardBatches(batches);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static File getCheckpointFile(File outputFile) {
+        return new File(outputFile.getPath() + CHECKPOINT_EXTENSION);
+    }
+
+    /**
+     * Records the input offset following the last written batch and the length of the output file. The
+     * output file has to be forced to disk before, so that the checkpoint is never ahead of it.
+     *
+     * @param checkpoint Channel of the checkpoint file
+     * @param inputOffset Offset of the first input line which has not been written
+     * @param outputLength Length of the output file
+     * @throws IOException Exception raised if the checkpoint cannot be written
+     */
+    private static void writeCheckpoint(FileChannel checkpoint, long inputOffset, long outputLength)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        buffer.putLong(inputOffset).putLong(outputLength).flip();
+        while (buffer.hasRemaining()) {
+            checkpoint.write(buffer, buffer.position());
+        }
+        checkpoint.force(false);
+    }
+
+    /**
+     * Reads the checkpoint of the given output file.
+     *
+     * @param outputFile TSV file of corrupted triples
+     * @return Input offset from which the corruption is resumed and length of the output file at that offset
+     * @throws IOException Exception raised if the checkpoint is missing or does not match the output file
+     */
+    private static long[] readCheckpoint(File outputFile) throws IOException {
+        File checkpointFile = getCheckpointFile(outputFile);
+        if (!checkpointFile.isFile() || checkpointFile.length() != 16) {
+            throw new IOException("Missing or invalid checkpoint: " + checkpointFile);
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(checkpointFile.toPath()));
+        long[] checkpoint = {buffer.getLong(), buffer.getLong()};
+        if (checkpoint[1] > outputFile.length()) {
+            throw new IOException("Output file " + outputFile + " is shorter than its checkpoint");
+        }
+
+        return checkpoint;
+    }
+
+    /**
+     * Cancels the remaining batches, so that the reader is not blocked on a full queue.
+     *
+     * @param batches Queue of the batches, terminated by END_OF_BATCHES
+     */
+    private static void discardBatches(BlockingQueue<Future<Batch>> batches) {
+        try {
+            for (Future<Batch> future = batches.take(); future != END_OF_BATCHES; future = batches.take()) {
+                future.cancel(true);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void report(long numTriples, long elapsedNanos, long resumeOffset) {
+        double seconds = Math.max(elapsedNanos, 1) / 1e9;
+        logger.info(String.format("-- Corrupted %d triples (%.0f triples/s, %.0f corrupted triples/s), " +
+                "resume offset %d", numTriples, numTriples / seconds, numTriples * size / seconds, resumeOffset));
+    }
+
+    /**
+     * Class which represents the corrupted triples of a batch of input lines.
+     */
+    private static class Batch {
+        private final ByteBuffer output;
+        private final long endOffset;
+        private final int numTriples;
+
+        private Batch(ByteBuffer output, long endOffset, int numTriples) {
+            this.output = output;
+            this.endOffset = endOffset;
+            this.numTriples = numTriples;
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package tools;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import controllers.data.Request;
+import models.TripleCorrupter;
+import models.TripleCorrupterOptions;
+import models.TripleCorrupterType;
+import models.TripleIndexer;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Logger;
+
+/**
+ * Command line tool which replays a log of corruption requests and reports the throughput and the latency
+ * percentiles of the responses.
+ * <p>
+ * Usage: LoadGenerator requests_filename concurrency rate duration_seconds
+ * (url | ontology_filename corrupter_id entity_mappings_filename relation_mappings_filename)
+ * <p>
+ * Each line of the requests file is the JSON body of a /corrupted request, as written by
+ * {@link RequestLogSynthesizer}. Requests are sent in log order, cycling over the log until duration_seconds
+ * have elapsed, or only once if it is 0. They are either posted to the given URL of a running server, whose
+ * query string can select the dataset and the strategy, or corrupted in-process by a triple corrupter built
+ * from the given files, which measures the corruption without the HTTP and JSON overhead.
+ * <p>
+ * With a rate of 0 the load is closed-loop: each of the concurrency workers sends a request as soon as it
+ * receives the previous response, and latencies measure the service time. With a positive rate the load is
+ * open-loop: request i is due i / rate seconds after the start of the run, and its latency is measured from that
+ * time rather than from when a worker was free to send it, so that a server which falls behind is not
+ * hidden by the workers waiting for it.
+ */
+public class LoadGenerator {
+    private static final int FAILED = -1;
+    private static final double[] PERCENTILES = {50, 95, 99, 99.9};
+    private static final String[] PERCENTILE_LABELS = {"p50", "p95", "p99", "p999"};
+
+    private final List<LoggedRequest> requests;
+    private final Target target;
+    private final int concurrency;
+    private final double rate;
+    private final long durationNanos;
+    private final Logger logger = Logger.getLogger(LoadGenerator.class.getName());
+
+    /**
+     * Constructor which receives the requests to be replayed, where to send them and the shape of the load.
+     *
+     * @param requests Requests to be replayed
+     * @param target Server or triple corrupter which receives the requests
+     * @param concurrency Number of threads which send the requests
+     * @param rate Number of requests sent each second, 0 for a closed-loop load
+     * @param durationSeconds Duration of the run, 0 sends each request once
+     */
+    public LoadGenerator(List<LoggedRequest> requests, Target target, int concurrency, double rate,
+                         long durationSeconds) {
+        if (requests.isEmpty()) {
+            throw new IllegalArgumentException("Request log is empty");
+        }
+
+        this.requests = requests;
+        this.target = target;
+        this.concurrency = concurrency;
+        this.rate = rate;
+        this.durationNanos = TimeUnit.SECONDS.toNanos(durationSeconds);
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 5 && args.length != 8) {
+            System.err.println("Usage: LoadGenerator requests_filename concurrency rate duration_seconds " +
+                    "(url | ontology_filename corrupter_id entity_mappings_filename relation_mappings_filename)");
+            System.exit(1);
+        }
+
+        int concurrency = Integer.parseInt(args[1]);
+        Target target;
+        if (args.length == 5) {
+            // Keeps a connection alive for each worker, instead of the 5 kept by default
+            System.setProperty("http.maxConnections", String.valueOf(concurrency));
+            target = new HttpTarget(new URL(args[4]));
+        } else {
+            TripleIndexer indexer = new TripleIndexer(new File(args[6]), new File(args[7]));
+            TripleCorrupter corrupter = TripleCorrupter.create(new File(args[4]),
+                    TripleCorrupterType.valueOf(args[5]), new TripleCorrupterOptions().setCandidatePools(true));
+            target = new LocalTarget(corrupter, indexer);
+        }
+
+        new LoadGenerator(readRequests(new File(args[0])), target, concurrency, Double.parseDouble(args[2]),
+                Long.parseLong(args[3])).run();
+    }
+
+    /**
+     * Reads a log of requests, one JSON body for each line.
+     *
+     * @param requestsFile JSONL file of requests
+     * @return Requests of the log, in log order
+     * @throws IOException Exception raised if the file cannot be read or a line is not a valid request
+     */
+    public static List<LoggedRequest> readRequests(File requestsFile) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        List<LoggedRequest> requests = new ArrayList<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(requestsFile.toPath(), StandardCharsets.UTF_8)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (!line.trim().isEmpty()) {
+                    requests.add(new LoggedRequest(line.getBytes(StandardCharsets.UTF_8),
+                            objectMapper.readValue(line, Request.class)));
+                }
+            }
+        }
+
+        return requests;
+    }
+
+    /**
+     * Replays the requests and reports the results of the run.
+     *
+     * @throws InterruptedException Exception raised if the thread is interrupted while waiting for the workers
+     * @throws ExecutionException Exception raised if a worker fails
+     */
+    public void run() throws InterruptedException, ExecutionException {
+        logger.info("-- Replaying " + requests.size() + " requests with " + concurrency + " workers, " +
+                ((rate > 0) ? rate + " requests/s" : "closed loop"));
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        AtomicLong nextRequest = new AtomicLong();
+        long startNanos = System.nanoTime();
+        List<Future<Results>> futures = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(workers.submit(() -> replay(nextRequest, startNanos)));
+        }
+
+        Results results = new Results();
+        try {
+            for (Future<Results> future : futures) {
+                results.add(future.get());
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+
+        report(results, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Sends requests until the log has been replayed or the duration of the run has elapsed.
+     *
+     * @param nextRequest Sequence number of the next request to be sent, shared by the workers
+     * @param startNanos Value of System.nanoTime() when the run started
+     * @return Results of the requests sent by the worker
+     */
+    private Results replay(AtomicLong nextRequest, long startNanos) {
+        Results results = new Results();
+        long periodNanos = (rate > 0) ? (long) (1e9 / rate) : 0;
+
+        while (true) {
+            long sequence = nextRequest.getAndIncrement();
+            if (durationNanos == 0 && sequence >= requests.size()) {
+                break;
+            }
+
+            long sendNanos = (rate > 0) ? startNanos + sequence * periodNanos : System.nanoTime();
+            if (durationNanos > 0 && sendNanos - startNanos >= durationNanos) {
+                break;
+            }
+            for (long delay = sendNanos - System.nanoTime(); delay > 0; delay = sendNanos - System.nanoTime()) {
+                LockSupport.parkNanos(delay);
+            }
+
+            LoggedRequest request = requests.get((int) (sequence % requests.size()));
+            int status;
+            try {
+                status = target.send(request);
+            } catch (IOException | RuntimeException e) {
+                status = FAILED;
+                if (results.failures() == 0) {
+                    logger.warning("Request failed: " + e);
+                }
+            }
+
+            results.record(status, System.nanoTime() - sendNanos, request);
+        }
+
+        return results;
+    }
+
+    private void report(Results results, long elapsedNanos) {
+        double seconds = Math.max(elapsedNanos, 1) / 1e9;
+        PercentileHistogram latencies = results.latencies;
+
+        logger.info(String.format("-- Sent %d requests in %.1f s (%.1f requests/s, %.0f corrupted triples/s)",
+                latencies.getTotalCount(), seconds, latencies.getTotalCount() / seconds,
+                results.corruptedTriples / seconds));
+        logger.info("-- Responses by status: " + results.statuses);
+
+        StringBuilder builder = new StringBuilder(String.format("-- Latency (ms): min %.3f, mean %.3f",
+                latencies.getMin() / 1e6, latencies.getMean() / 1e6));
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            builder.append(String.format(", %s %.3f", PERCENTILE_LABELS[i],
+                    latencies.getValueAtPercentile(PERCENTILES[i]) / 1e6));
+        }
+        builder.append(String.format(", max %.3f", latencies.getMax() / 1e6));
+        logger.info(builder.toString());
+    }
+
+    /**
+     * Class which represents a request of the log: its body, sent as-is to a server, and its parsed content.
+     */
+    public static class LoggedRequest {
+        private final byte[] body;
+        private final Request request;
+
+        /**
+         * Constructor which receives the body of the request and its parsed content.
+         *
+         * @param body JSON body of the request
+         * @param request Request object for the triple corrupter
+         */
+        public LoggedRequest(byte[] body, Request request) {
+            this.body = body;
+            this.request = request;
+        }
+
+        /**
+         * Returns the number of corrupted triples generated by the request.
+         *
+         * @return Number of corrupted triples
+         */
+        public long getNumCorrupted() {
+            return (long) request.triples.size() * request.size;
+        }
+    }
+
+    /**
+     * Interface which represents the receiver of the replayed requests.
+     */
+    public interface Target {
+        /**
+         * Sends a request and waits for the whole response.
+         *
+         * @param request Request to be sent
+         * @return HTTP status of the response
+         * @throws IOException Exception raised if the request cannot be sent or the response cannot be read
+         */
+        int send(LoggedRequest request) throws IOException;
+    }
+
+    /**
+     * Class which represents a running server, which receives the requests over HTTP.
+     */
+    public static class HttpTarget implements Target {
+        private final URL url;
+
+        /**
+         * Constructor which receives the URL of the corruption endpoint.
+         *
+         * @param url URL of the /corrupted endpoint, with its query parameters
+         */
+        public HttpTarget(URL url) {
+            this.url = url;
+        }
+
+        @Override
+        public int send(LoggedRequest request) throws IOException {
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            connection.setRequestMethod("POST");
+            connection.setRequestProperty("Content-Type", "application/json");
+            connection.setDoOutput(true);
+            connection.setFixedLengthStreamingMode(request.body.length);
+            try (OutputStream outputStream = connection.getOutputStream()) {
+                outputStream.write(request.body);
+            }
+
+            int status = connection.getResponseCode();
+            // Reads the whole response, so that the connection can be reused by the next request
+            try (InputStream inputStream = (status < 400) ? connection.getInputStream() : connection.getErrorStream()) {
+                if (inputStream != null) {
+                    byte[] buffer = new byte[1 << 16];
+                    while (inputStream.read(buffer) != -1) {
+                        // Discards the response
+                    }
+                }
+            }
+
+            return status;
+        }
+    }
+
+    /**
+     * Class which represents an in-process triple corrupter, which receives the requests without going through
+     * the web server.
+     */
+    public static class LocalTarget implements Target {
+        private final TripleCorrupter corrupter;
+        private final TripleIndexer indexer;
+
+        /**
+         * Constructor which receives the triple corrupter and its indexer.
+         *
+         * @param corrupter Triple corrupter of the requests
+         * @param indexer Mapping between URIs and integer identifiers
+         */
+        public LocalTarget(TripleCorrupter corrupter, TripleIndexer indexer) {
+            this.corrupter = corrupter;
+            this.indexer = indexer;
+        }
+
+        @Override
+        public int send(LoggedRequest request) {
+            corrupter.corrupt(request.request.triples, request.request.size, indexer, request.request.seed);
+            return HttpURLConnection.HTTP_OK;
+        }
+    }
+
+    /**
+     * Class which represents the latencies and the responses of the requests sent by one or more workers.
+     */
+    private static class Results {
+        private final PercentileHistogram latencies = new PercentileHistogram();
+        private final Map<String, Long> statuses = new TreeMap<>();
+        private long corruptedTriples;
+
+        private void record(int status, long latencyNanos, LoggedRequest request) {
+            latencies.record(latencyNanos);
+            statuses.merge((status == FAILED) ? "failed" : String.valueOf(status), 1L, Long::sum);
+            if (status == HttpURLConnection.HTTP_OK) {
+                corruptedTriples += request.getNumCorrupted();
+            }
+        }
+
+        private long failures() {
+            return statuses.getOrDefault("failed", 0L);
+        }
+
+        private void add(Results other) {
+            latencies.add(other.latencies);
+            other.statuses.forEach((status, count) -> statuses.merge(status, count, Long::sum));
+            corruptedTriples += other.corruptedTriples;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package tools;
+
+/**
+ * Class which represents a histogram of latencies with log-linear buckets, which gives the percentiles of the
+ * recorded values with a bounded relative error.
+ * <p>
+ * Values below SUB_BUCKETS are recorded exactly, while larger values are recorded in buckets whose width is
+ * 1/HALF_SUB_BUCKETS of their lower bound, so that any percentile is reported with an error below 1% whatever
+ * the range of the values. The histogram is not thread-safe: each thread records its own histogram, and
+ * histograms are merged when they are reported.
+ */
+public class PercentileHistogram {
+    private static final int SUB_BUCKETS_MAGNITUDE = 8;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKETS_MAGNITUDE;
+    private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;
+
+    private final long[] counts = new long[SUB_BUCKETS + (Long.SIZE - SUB_BUCKETS_MAGNITUDE) * HALF_SUB_BUCKETS];
+    private long totalCount;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    /**
+     * Records a value.
+     *
+     * @param value Non-negative value, usually a latency in nanoseconds
+     */
+    public void record(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value: " + value);
+        }
+
+        counts[indexOf(value)]++;
+        totalCount++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds the values recorded by another histogram.
+     *
+     * @param other Histogram to be added
+     */
+    public void add(PercentileHistogram other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Returns the value below which the given percentage of the recorded values fall.
+     *
+     * @param percentile Percentage, between 0 and 100
+     * @return Highest value equivalent to the percentile, 0 if no value has been recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * totalCount));
+        long cumulativeCount = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulativeCount += counts[i];
+            if (cumulativeCount >= rank) {
+                return Math.min(highestEquivalentValue(i), max);
+            }
+        }
+
+        return max;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Returns the mean of the recorded values.
+     *
+     * @return Mean value, 0 if no value has been recorded
+     */
+    public double getMean() {
+        return (totalCount > 0) ? (double) sum / totalCount : 0;
+    }
+
+    /**
+     * Returns the smallest recorded value.
+     *
+     * @return Minimum value, 0 if no value has been recorded
+     */
+    public long getMin() {
+        return (totalCount > 0) ? min : 0;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Returns the bucket of a value: values below SUB_BUCKETS have their own bucket, while larger values are
+     * bucketed by their exponent and by the HALF_SUB_BUCKETS values following their leading bit.
+     *
+     * @param value Non-negative value
+     * @return Index of the bucket
+     */
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+
+        int shift = (Long.SIZE - Long.numberOfLeadingZeros(value)) - SUB_BUCKETS_MAGNITUDE;
+        return SUB_BUCKETS + (shift - 1) * HALF_SUB_BUCKETS + (int) (value >>> shift) - HALF_SUB_BUCKETS;
+    }
+
+    private static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+
+        int shift = (index - SUB_BUCKETS) / HALF_SUB_BUCKETS + 1;
+        long subBucket = HALF_SUB_BUCKETS + (index - SUB_BUCKETS) % HALF_SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,105 @@
+package tools;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import controllers.data.Request;
+import controllers.data.Triple;
+import models.TripleIndexer;
+import models.UriDictionary;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+
+/**
+ * Command line tool which writes a log of synthetic corruption requests, to be replayed by
+ * {@link LoadGenerator}.
+ * <p>
+ * Usage: RequestLogSynthesizer entity_mappings_filename relation_mappings_filename output_filename
+ * num_requests max_triples max_size [seed]
+ * <p>
+ * Each line of the output file is the JSON body of a /corrupted request, whose triples are made of entity and
+ * relation identifiers drawn uniformly from the mapping files. The number of triples and the size of each
+ * request are drawn log-uniformly between 1 and max_triples and max_size, so that the log mixes many small
+ * requests with a few large batches. Each request has its own seed, so that replaying the log always
+ * generates the same corrupted triples.
+ */
+public class RequestLogSynthesizer {
+    public static void main(String[] args) throws IOException {
+        if (args.length < 6 || args.length > 7) {
+            System.err.println("Usage: RequestLogSynthesizer entity_mappings_filename relation_mappings_filename " +
+                    "output_filename num_requests max_triples max_size [seed]");
+            System.exit(1);
+        }
+
+        TripleIndexer indexer = new TripleIndexer(new File(args[0]), new File(args[1]));
+        long seed = (args.length > 6) ? Long.parseLong(args[6]) : System.nanoTime();
+
+        synthesize(indexer, new File(args[2]), Integer.parseInt(args[3]), Integer.parseInt(args[4]),
+                Integer.parseInt(args[5]), new SplittableRandom(seed));
+    }
+
+    /**
+     * Writes a log of synthetic requests.
+     *
+     * @param indexer Mapping between URIs and integer identifiers
+     * @param outputFile JSONL file of requests
+     * @param numRequests Number of requests
+     * @param maxTriples Maximum number of triples of a request
+     * @param maxSize Maximum number of corrupted triples for each input triple
+     * @param random Random generator of the requests
+     * @throws IOException Exception raised if the file cannot be written
+     */
+    public static void synthesize(TripleIndexer indexer, File outputFile, int numRequests, int maxTriples,
+                                  int maxSize, SplittableRandom random) throws IOException {
+        long[] entities = getIds(indexer.getEntities());
+        long[] relations = getIds(indexer.getRelations());
+        if (entities.length == 0 || relations.length == 0) {
+            throw new IllegalArgumentException("Mapping files must contain at least an entity and a relation");
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        try (BufferedWriter writer = Files.newBufferedWriter(outputFile.toPath(), StandardCharsets.UTF_8)) {
+            for (int i = 0; i < numRequests; i++) {
+                Request request = new Request();
+                int numTriples = nextLogUniform(random, maxTriples);
+                request.triples = new ArrayList<>(numTriples);
+                for (int j = 0; j < numTriples; j++) {
+                    Triple triple = new Triple();
+                    triple.subject = String.valueOf(entities[random.nextInt(entities.length)]);
+                    triple.predicate = String.valueOf(relations[random.nextInt(relations.length)]);
+                    triple.object = String.valueOf(entities[random.nextInt(entities.length)]);
+                    request.triples.add(triple);
+                }
+                request.size = nextLogUniform(random, maxSize);
+                request.seed = random.nextLong();
+
+                writer.write(objectMapper.writeValueAsString(request));
+                writer.newLine();
+            }
+        }
+    }
+
+    private static long[] getIds(UriDictionary dictionary) {
+        long[] ids = new long[dictionary.size()];
+        int[] numIds = {0};
+        dictionary.forEach((uri, id) -> ids[numIds[0]++] = id);
+
+        return ids;
+    }
+
+    /**
+     * Draws an integer whose logarithm is uniformly distributed.
+     *
+     * @param random Random generator
+     * @param max Maximum value
+     * @return Integer between 1 and max
+     */
+    private static int nextLogUniform(SplittableRandom random, int max) {
+        int value = (int) Math.exp(random.nextDouble() * Math.log(max + 1.0));
+        return Math.max(1, Math.min(value, max));
+    }
+}
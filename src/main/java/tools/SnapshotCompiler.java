@@ -0,0 +1,82 @@
+package tools;
+
+import models.ClassIndexType;
+import models.CorrupterSnapshot;
+import models.SimilaritySampling;
+import models.TripleCorrupter;
+import models.TripleCorrupterOptions;
+import models.TripleCorrupterType;
+import models.TripleIndexer;
+
+import java.io.File;
+
+/**
+ * Command line tool which compiles the snapshot loaded by the web server at startup.
+ * <p>
+ * Usage: SnapshotCompiler ontology_filename corrupter_id entity_mappings_filename
+ * relation_mappings_filename snapshot_filename [abox_filename] [class_index=MULTIMAP]
+ * [similarity_sampling=NEAREST] [similarity_weight_exponent=1]
+ * <p>
+ * When abox_filename is given, the class assertions of the ABox file are streamed in place of the individuals
+ * of the ontology, as done by the web server with the application.abox_filename parameter. The options are
+ * recorded in the snapshot, and must be the ones configured for the dataset for the web server to restore it.
+ * The WEIGHTED similarity sampling cannot be snapshotted.
+ */
+public class SnapshotCompiler {
+    private static final String USAGE = "Usage: SnapshotCompiler ontology_filename corrupter_id " +
+            "entity_mappings_filename relation_mappings_filename snapshot_filename [abox_filename] " +
+            "[class_index=MULTIMAP] [similarity_sampling=NEAREST] [similarity_weight_exponent=1]";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 5) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+
+        File ontologyFile = new File(args[0]),
+                entityMappingFile = new File(args[2]),
+                relationMappingFile = new File(args[3]);
+        TripleCorrupterType corrupterType = TripleCorrupterType.valueOf(args[1]);
+        TripleCorrupterOptions options = new TripleCorrupterOptions().setCandidatePools(true);
+
+        for (int i = 5; i < args.length; i++) {
+            int separator = args[i].indexOf('=');
+            if (separator == -1) {
+                if (i != 5) {
+                    System.err.println(USAGE);
+                    System.exit(1);
+                }
+                options.setAboxFile(new File(args[i]));
+                continue;
+            }
+
+            String name = args[i].substring(0, separator), value = args[i].substring(separator + 1);
+            switch (name) {
+                case "class_index":
+                    options.setClassIndex(ClassIndexType.valueOf(value));
+                    break;
+                case "similarity_sampling":
+                    options.setSimilaritySampling(SimilaritySampling.valueOf(value));
+                    break;
+                case "similarity_weight_exponent":
+                    options.setSimilarityWeightExponent(Double.parseDouble(value));
+                    break;
+                default:
+                    System.err.println("Unknown option: " + name);
+                    System.err.println(USAGE);
+                    System.exit(1);
+            }
+        }
+        if (corrupterType == TripleCorrupterType.SIMILARITY &&
+                options.getSimilaritySampling() == SimilaritySampling.WEIGHTED) {
+            System.err.println("The WEIGHTED similarity sampling cannot be snapshotted");
+            System.exit(1);
+        }
+
+        TripleIndexer indexer = new TripleIndexer(entityMappingFile, relationMappingFile);
+        TripleCorrupter corrupter = TripleCorrupter.create(ontologyFile, corrupterType, options);
+
+        new CorrupterSnapshot(new File(args[4]), ontologyFile, corrupterType, entityMappingFile, relationMappingFile,
+                options).write(corrupter, indexer);
+    }
+}
@@ -0,0 +1,86 @@
+package models;
+
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Class which represents the tests of the sampling of AliasTable.
+ */
+public class AliasTableTest {
+    private static final int NUM_SAMPLES = 1_000_000;
+    private static final double TOLERANCE = 0.005;
+
+    @Test
+    public void frequenciesMatchWeights() {
+        assertFrequencies(new double[]{1, 2, 3, 4});
+    }
+
+    @Test
+    public void zeroWeightOutcomesAreNeverSampled() {
+        assertFrequencies(new double[]{0, 3, 0, 1, 0});
+    }
+
+    @Test
+    public void singleOutcomeIsAlwaysSampled() {
+        assertFrequencies(new double[]{0, 0, 5});
+    }
+
+    @Test
+    public void leftoverLargeOutcomesKeepTheirWeights() {
+        // The scaled weights are all slightly greater than 1, so every outcome is left over without an alias
+        assertFrequencies(new double[]{0.1, 0.1, 0.1, 0.1, 0.1, 0.1, 0.1, 0.1, 0.1, 0.1});
+    }
+
+    @Test
+    public void leftoverSmallOutcomesKeepTheirWeights() {
+        // The first outcome is left over with a scaled weight slightly lower than 1 once the others are paired
+        assertFrequencies(new double[]{0.7, 0, 1, 0.6, 0.6, 0.8, 0});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void allZeroWeightsAreRejected() {
+        new AliasTable(new double[]{0, 0});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeWeightsAreRejected() {
+        new AliasTable(new double[]{1, -1});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nanWeightsAreRejected() {
+        new AliasTable(new double[]{1, Double.NaN});
+    }
+
+    /**
+     * Samples the alias table of the given weights and checks that the frequency of each outcome is its share
+     * of the total weight, zero-weight outcomes never being sampled.
+     *
+     * @param weights Weights of the outcomes
+     */
+    private static void assertFrequencies(double[] weights) {
+        AliasTable aliasTable = new AliasTable(weights);
+        assertEquals(weights.length, aliasTable.size());
+
+        SplittableRandom random = new SplittableRandom(42);
+        int[] counts = new int[weights.length];
+        for (int i = 0; i < NUM_SAMPLES; i++) {
+            counts[aliasTable.sample(random)]++;
+        }
+
+        double totalWeight = 0;
+        for (double weight : weights) {
+            totalWeight += weight;
+        }
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] == 0) {
+                assertEquals("Outcome " + i, 0, counts[i]);
+            } else {
+                assertEquals("Outcome " + i, weights[i] / totalWeight, (double) counts[i] / NUM_SAMPLES, TOLERANCE);
+            }
+        }
+    }
+}
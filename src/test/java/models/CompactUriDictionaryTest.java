@@ -0,0 +1,148 @@
+package models;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Class which represents the tests of the mappings of CompactUriDictionary.
+ */
+public class CompactUriDictionaryTest {
+    private static final String PREFIX = "http://example.org/resource/";
+
+    @Test
+    public void probesWrapAroundTheEndOfTheTable() {
+        // Three mappings fit a table of 8 slots, and URIs hashed to its last slot are probed from its start
+        int lastSlot = 7;
+        List<String> uris = findURIs(lastSlot, 4);
+        UriDictionary dictionary = build(false, uris.subList(0, 3));
+
+        int[] slots = ((CompactUriDictionary) dictionary).getSlots();
+        assertEquals(8, slots.length);
+        assertTrue(slots[0] != 0 && slots[1] != 0);
+        for (int id = 0; id < 3; id++) {
+            assertEquals(id, dictionary.getId(uris.get(id)));
+        }
+        assertEquals(UriDictionary.NOT_FOUND, dictionary.getId(uris.get(3)));
+    }
+
+    @Test
+    public void nonASCIIURIsAreMapped() {
+        List<String> uris = new ArrayList<>();
+        uris.add(PREFIX + "Caf\u00e9");
+        uris.add(PREFIX + "\u6771\u4eac");
+        uris.add(PREFIX + "\ud83d\ude00");
+        uris.add(PREFIX + "Cafe");
+        UriDictionary dictionary = build(false, uris);
+
+        for (int id = 0; id < uris.size(); id++) {
+            assertEquals(id, dictionary.getId(uris.get(id)));
+            assertEquals(uris.get(id), dictionary.getURI(id));
+        }
+        // Same number of characters as a stored URI, but not the same bytes
+        assertEquals(UriDictionary.NOT_FOUND, dictionary.getId(PREFIX + "Caf\u00e8"));
+        assertEquals(UriDictionary.NOT_FOUND, dictionary.getId(PREFIX + "Cafx"));
+    }
+
+    @Test
+    public void offHeapDictionaryMatchesHeapDictionary() {
+        List<String> uris = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            uris.add(PREFIX + ((i % 3 == 0) ? "entit\u00e9" : "entity") + i);
+        }
+        UriDictionary heapDictionary = build(false, uris), offHeapDictionary = build(true, uris);
+
+        assertFalse(((CompactUriDictionary) heapDictionary).getURIBytes().isDirect());
+        assertTrue(((CompactUriDictionary) offHeapDictionary).getURIBytes().isDirect());
+        assertEquals(heapDictionary.getFootprint(), offHeapDictionary.getFootprint());
+        for (int id = 0; id < uris.size(); id++) {
+            assertEquals(id, offHeapDictionary.getId(uris.get(id)));
+            assertEquals(uris.get(id), offHeapDictionary.getURI(id));
+        }
+
+        Map<String, Long> mappings = new HashMap<>();
+        offHeapDictionary.forEach(mappings::put);
+        assertEquals(heapDictionary.asURIMap(), mappings);
+    }
+
+    @Test
+    public void sparseIdentifiersAreMapped() {
+        CompactUriDictionary.Builder builder = new CompactUriDictionary.Builder(false);
+        builder.add(PREFIX + "a", 5);
+        builder.add(PREFIX + "b", 2);
+        UriDictionary dictionary = builder.build();
+
+        assertEquals(2, dictionary.size());
+        assertEquals(5, dictionary.getId(PREFIX + "a"));
+        assertEquals(PREFIX + "b", dictionary.getURI(2));
+        assertNull(dictionary.getURI(0));
+        assertNull(dictionary.getURI(6));
+        assertNull(dictionary.getURI(-1));
+        assertEquals(UriDictionary.NOT_FOUND, dictionary.getId(null));
+    }
+
+    @Test
+    public void copyOfHashDictionaryHasTheSameMappings() {
+        HashUriDictionary.Builder builder = new HashUriDictionary.Builder();
+        builder.add(PREFIX + "a", 0);
+        builder.add(PREFIX + "\u00e9", 1);
+        UriDictionary dictionary = builder.build();
+        CompactUriDictionary copy = CompactUriDictionary.copyOf(dictionary);
+
+        assertEquals(dictionary.asURIMap(), copy.asURIMap());
+        assertSame(copy, CompactUriDictionary.copyOf(copy));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void duplicateIdentifiersAreRejected() {
+        CompactUriDictionary.Builder builder = new CompactUriDictionary.Builder(false);
+        builder.add(PREFIX + "a", 0);
+        builder.add(PREFIX + "b", 0);
+        builder.build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void duplicateURIsAreRejected() {
+        CompactUriDictionary.Builder builder = new CompactUriDictionary.Builder(false);
+        builder.add(PREFIX + "a", 0);
+        builder.add(PREFIX + "a", 1);
+        builder.build();
+    }
+
+    /**
+     * Finds URIs whose hash selects the given slot of a table of 8 slots.
+     *
+     * @param slot Slot selected by the URIs
+     * @param numURIs Number of URIs to be found
+     * @return URIs of the slot
+     */
+    private static List<String> findURIs(int slot, int numURIs) {
+        List<String> uris = new ArrayList<>();
+        for (int i = 0; uris.size() < numURIs; i++) {
+            String uri = PREFIX + i;
+            if ((CompactUriDictionary.hash(uri) & 7) == slot) {
+                uris.add(uri);
+            }
+        }
+
+        return uris;
+    }
+
+    private static UriDictionary build(boolean offHeap, List<String> uris) {
+        CompactUriDictionary.Builder builder = new CompactUriDictionary.Builder(offHeap);
+        for (int id = 0; id < uris.size(); id++) {
+            builder.add(uris.get(id), id);
+        }
+
+        return builder.build();
+    }
+}
@@ -0,0 +1,168 @@
+package models;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Class which represents the tests of KnownTriples and of the resampling of known corrupted triples.
+ */
+public class KnownTriplesTest {
+    private static final String PREFIX = "http://example.org/";
+
+    @Test
+    public void packedTriplesDoNotOverlap() {
+        // Subjects, predicates and objects use 3, 2 and 3 bits, so that any overlap of the fields is a collision
+        long[][] triples = {{5, 2, 7}, {0, 0, 0}, {7, 0, 1}, {1, 3, 0}, {4, 1, 6}};
+        assertExactMembership(triples, false, 7, 3, 7);
+    }
+
+    @Test
+    public void bloomFilterDoesNotChangeMembership() {
+        SplittableRandom random = new SplittableRandom(42);
+        long[][] triples = new long[2000][];
+        for (int i = 0; i < triples.length; i++) {
+            triples[i] = new long[]{random.nextInt(40), random.nextInt(10), random.nextInt(40)};
+        }
+
+        assertExactMembership(triples, true, 40, 10, 40);
+    }
+
+    @Test
+    public void bloomFilterIsSmallerThanTable() {
+        long[][] triples = new long[1000][];
+        for (int i = 0; i < triples.length; i++) {
+            triples[i] = new long[]{i, 0, i};
+        }
+
+        long tableFootprint = create(triples, false).getFootprint();
+        long bloomFilterFootprint = create(triples, true).getFootprint() - tableFootprint;
+        assertTrue(bloomFilterFootprint > 0 && bloomFilterFootprint < tableFootprint);
+    }
+
+    @Test
+    public void duplicateTriplesAreCountedOnce() {
+        KnownTriples knownTriples = create(new long[][]{{1, 2, 3}, {1, 2, 3}, {3, 2, 1}}, false);
+        assertEquals(2, knownTriples.size());
+    }
+
+    @Test
+    public void unknownIdentifiersAreNotContained() {
+        KnownTriples knownTriples = create(new long[][]{{1, 2, 3}}, true);
+        assertFalse(knownTriples.contains(-1, 2, 3));
+        assertFalse(knownTriples.contains(1, UriDictionary.NOT_FOUND, 3));
+        assertFalse(knownTriples.contains(1, 2, 4));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void identifiersWiderThan63BitsAreRejected() {
+        create(new long[][]{{1L << 30, 1L << 20, 1L << 20}}, false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeIdentifiersAreRejected() {
+        create(new long[][]{{1, -1, 3}}, false);
+    }
+
+    @Test
+    public void knownCorruptedTriplesAreResampled() {
+        TripleIndexer indexer = createIndexer(3);
+        TripleCorrupter corrupter = new RandomTripleCorrupter(indexer);
+        // Half of the corruptions of (0, 0, 1) are known
+        long[][] triples = {{1, 0, 1}, {0, 0, 0}};
+        corrupter.setKnownTriples(create(triples, false), 50);
+
+        CorruptedTriples corruptedTriples = corrupter.corruptIds(0, 0, 1, 1000, indexer, new SplittableRandom(42));
+        for (int i = 0; i < corruptedTriples.size(); i++) {
+            assertFalse(toSet(triples).contains(toList(corruptedTriples, i)));
+        }
+        assertEquals(0, corrupter.getMetrics().getExhaustedRetries());
+    }
+
+    @Test
+    public void exhaustedRetriesKeepKnownTriples() {
+        TripleIndexer indexer = createIndexer(3);
+        TripleCorrupter corrupter = new RandomTripleCorrupter(indexer);
+        // All the corruptions of (0, 0, 1) are known
+        long[][] triples = {{1, 0, 1}, {2, 0, 1}, {0, 0, 0}, {0, 0, 2}};
+        corrupter.setKnownTriples(create(triples, false), 3);
+
+        CorruptedTriples corruptedTriples = corrupter.corruptIds(0, 0, 1, 10, indexer, new SplittableRandom(42));
+        for (int i = 0; i < corruptedTriples.size(); i++) {
+            assertTrue(toSet(triples).contains(toList(corruptedTriples, i)));
+        }
+        assertEquals(10, corrupter.getMetrics().getExhaustedRetries());
+    }
+
+    /**
+     * Checks that the known triples contain exactly the given triples among all the triples of identifiers up
+     * to the given maximum identifiers, and none of the triples having greater identifiers.
+     *
+     * @param triples Known triples
+     * @param bloomFilter True to check a Bloom filter before the hash table
+     * @param maxSubject Greatest subject identifier checked
+     * @param maxPredicate Greatest predicate identifier checked
+     * @param maxObject Greatest object identifier checked
+     */
+    private static void assertExactMembership(long[][] triples, boolean bloomFilter, long maxSubject,
+                                              long maxPredicate, long maxObject) {
+        KnownTriples knownTriples = create(triples, bloomFilter);
+        Set<List<Long>> expectedTriples = toSet(triples);
+        assertEquals(expectedTriples.size(), knownTriples.size());
+
+        for (long subject = 0; subject <= maxSubject + 1; subject++) {
+            for (long predicate = 0; predicate <= maxPredicate + 1; predicate++) {
+                for (long object = 0; object <= maxObject + 1; object++) {
+                    assertEquals(subject + " " + predicate + " " + object,
+                            expectedTriples.contains(Arrays.asList(subject, predicate, object)),
+                            knownTriples.contains(subject, predicate, object));
+                }
+            }
+        }
+    }
+
+    private static KnownTriples create(long[][] triples, boolean bloomFilter) {
+        long[] subjects = new long[triples.length], predicates = new long[triples.length],
+                objects = new long[triples.length];
+        for (int i = 0; i < triples.length; i++) {
+            subjects[i] = triples[i][0];
+            predicates[i] = triples[i][1];
+            objects[i] = triples[i][2];
+        }
+
+        return new KnownTriples(subjects, predicates, objects, triples.length, bloomFilter);
+    }
+
+    private static TripleIndexer createIndexer(int numEntities) {
+        UriDictionary.Builder entities = DictionaryType.HASH.newBuilder();
+        for (int id = 0; id < numEntities; id++) {
+            entities.add(PREFIX + "entity" + id, id);
+        }
+        UriDictionary.Builder relations = DictionaryType.HASH.newBuilder();
+        relations.add(PREFIX + "relation", 0);
+
+        return new TripleIndexer(entities.build(), relations.build());
+    }
+
+    private static Set<List<Long>> toSet(long[][] triples) {
+        Set<List<Long>> set = new HashSet<>();
+        for (long[] triple : triples) {
+            set.add(Arrays.asList(triple[0], triple[1], triple[2]));
+        }
+
+        return set;
+    }
+
+    private static List<Long> toList(CorruptedTriples corruptedTriples, int index) {
+        return Arrays.asList(corruptedTriples.getSubject(index), corruptedTriples.getPredicate(index),
+                corruptedTriples.getObject(index));
+    }
+}